@@ -18,12 +18,15 @@ import com.azure.core.exception.ResourceModifiedException;
 import com.azure.core.exception.ResourceNotFoundException;
 import com.azure.security.keyvault.secrets.SecretClient;
 import com.azure.security.keyvault.secrets.models.KeyVaultSecret;
+import com.google.common.cache.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.http.HttpStatus;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.azure.logging.DependencyPayload;
 import org.opengroup.osdu.common.Validators;
 
 import java.time.Duration;
+import java.util.Optional;
 
 /**
  * A simpler interface for interacting with keyVault.
@@ -41,6 +44,7 @@ import java.time.Duration;
  */
 public final class KeyVaultFacade {
     private static final String LOGGER_NAME = KeyVaultFacade.class.getName();
+    private static volatile KeyVaultSecretCache secretCache;
 
     /**
      * Private constructor -- this class should never be instantiated.
@@ -62,6 +66,7 @@ public final class KeyVaultFacade {
 
     /**
      * Get the secret with a default value. If the secret is not found or is null return the default value.
+     * The value is served from the secret cache when it is enabled.
      *
      * @param kv           Client configured to the correct vault
      * @param secretName   name of secret
@@ -71,6 +76,67 @@ public final class KeyVaultFacade {
     public static String getSecretWithDefault(final SecretClient kv, final String secretName, final String defaultValue) {
         Validators.checkNotNull(secretName, "Secret with name " + secretName);
 
+        KeyVaultSecretCache cache = secretCache;
+        Optional<String> secretValue = cache == null ? loadSecret(kv, secretName) : cache.get(kv, secretName);
+        return secretValue.orElse(defaultValue);
+    }
+
+    /**
+     * Enables the in-process secret cache used by {@link #getSecretWithDefault} and {@link #getSecretWithValidation},
+     * replacing the cache enabled before.
+     *
+     * @param ttl           Time after which a cached secret expires
+     * @param refreshAfter  Age after which a cached secret is reloaded in the background, zero to disable refresh
+     * @param notFoundTtl   Time a missing or empty secret is remembered
+     * @param maxEntries    Maximum number of cached secrets
+     * @param meterRegistry Registry the hit and miss counts are published to, may be null
+     */
+    public static synchronized void enableSecretCache(final Duration ttl, final Duration refreshAfter, final Duration notFoundTtl,
+                                                      final long maxEntries, final MeterRegistry meterRegistry) {
+        disableSecretCache();
+        secretCache = new KeyVaultSecretCache(ttl, refreshAfter, notFoundTtl, maxEntries, KeyVaultFacade::loadSecret, meterRegistry);
+    }
+
+    /**
+     * Disables the secret cache and drops all cached secrets.
+     */
+    public static synchronized void disableSecretCache() {
+        KeyVaultSecretCache cache = secretCache;
+        secretCache = null;
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    /**
+     * Drops a cached secret, for example after it was rotated, so that the next lookup reads it from the vault.
+     *
+     * @param kv         Client configured to the correct vault
+     * @param secretName name of secret
+     */
+    public static void invalidateSecret(final SecretClient kv, final String secretName) {
+        KeyVaultSecretCache cache = secretCache;
+        if (cache != null) {
+            cache.invalidate(kv, secretName);
+        }
+    }
+
+    /**
+     * @return Hit, miss and load counts of the secret cache, null when the cache is disabled
+     */
+    public static CacheStats getSecretCacheStats() {
+        KeyVaultSecretCache cache = secretCache;
+        return cache == null ? null : cache.getStats();
+    }
+
+    /**
+     * Read a secret from the vault.
+     *
+     * @param kv         Client configured to the correct vault
+     * @param secretName name of secret
+     * @return Secret value, empty if the secret is not found, null or empty
+     */
+    private static Optional<String> loadSecret(final SecretClient kv, final String secretName) {
         KeyVaultSecret secret;
         final long start = System.currentTimeMillis();
         int statusCode = HttpStatus.SC_OK;
@@ -79,17 +145,17 @@ public final class KeyVaultFacade {
             CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("Successfully retrieved {}.", secretName);
             if (secret == null || secret.getValue() == null || secret.getValue().isEmpty()) {
                 CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).info("Value for {} is empty.", secretName);
-                return defaultValue;
+                return Optional.empty();
             }
         } catch (ResourceNotFoundException secretNotFound) {
             statusCode = HttpStatus.SC_NOT_FOUND;
             CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Failed to retrieve {}. Not found.", secretName);
-            return defaultValue;
+            return Optional.empty();
         } finally {
             final long timeTaken = System.currentTimeMillis() - start;
             logDependency("GET_SECRET", secretName, kv.getVaultUrl(), timeTaken, statusCode);
         }
-        return secret.getValue();
+        return Optional.of(secret.getValue());
     }
 
     /**
@@ -0,0 +1,171 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure;
+
+import com.azure.security.keyvault.secrets.SecretClient;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded cache of Key Vault secret values used by {@link KeyVaultFacade}. Concurrent misses for the same secret
+ * share one Key Vault call, and entries are reloaded in the background once they are older than the refresh
+ * interval, so callers keep getting the current value while it is refreshed. A failed refresh keeps the old value.
+ * Secrets that do not exist or are empty are remembered for a shorter time.
+ */
+final class KeyVaultSecretCache {
+
+    static final String CACHE_NAME = "keyvault.secret.cache";
+    private static final int REFRESH_THREADS = 2;
+
+    private final LoadingCache<SecretKey, Optional<String>> secrets;
+    private final Cache<SecretKey, Boolean> missingSecrets;
+    private final ExecutorService refreshExecutor;
+    private final Counter missingSecretHits;
+    private final MeterRegistry registry;
+
+    /**
+     * @param ttl           Time after which a cached secret expires
+     * @param refreshAfter  Age after which a cached secret is reloaded in the background, zero to disable refresh
+     * @param notFoundTtl   Time a missing or empty secret is remembered
+     * @param maxEntries    Maximum number of cached secrets
+     * @param loader        Reads a secret from Key Vault, returning an empty value for missing or empty secrets
+     * @param meterRegistry Registry the cache statistics are published to, may be null
+     */
+    KeyVaultSecretCache(final Duration ttl, final Duration refreshAfter, final Duration notFoundTtl, final long maxEntries,
+                        final BiFunction<SecretClient, String, Optional<String>> loader, final MeterRegistry meterRegistry) {
+        refreshExecutor = Executors.newFixedThreadPool(REFRESH_THREADS,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("keyvault-secret-refresh-%d").build());
+        CacheLoader<SecretKey, Optional<String>> cacheLoader = CacheLoader.asyncReloading(
+                CacheLoader.from(key -> loader.apply(key.getClient(), key.getSecretName())), refreshExecutor);
+
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maxEntries)
+                .recordStats();
+        if (!refreshAfter.isZero() && refreshAfter.compareTo(ttl) < 0) {
+            builder.refreshAfterWrite(refreshAfter.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        secrets = builder.build(cacheLoader);
+        missingSecrets = CacheBuilder.newBuilder()
+                .expireAfterWrite(notFoundTtl.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maxEntries)
+                .build();
+
+        registry = meterRegistry;
+        if (meterRegistry != null) {
+            GuavaCacheMetrics.monitor(meterRegistry, secrets, CACHE_NAME);
+            missingSecretHits = Counter.builder(CACHE_NAME + ".notfound.hits")
+                    .description("Lookups answered from the cache of missing or empty secrets")
+                    .register(meterRegistry);
+        } else {
+            missingSecretHits = null;
+        }
+    }
+
+    /**
+     * Returns the cached value of a secret, loading it on a miss.
+     *
+     * @param kv         Client configured to the correct vault
+     * @param secretName name of secret
+     * @return Secret value, empty when the secret does not exist or is empty
+     */
+    Optional<String> get(final SecretClient kv, final String secretName) {
+        SecretKey key = new SecretKey(String.valueOf(kv.getVaultUrl()), secretName, kv);
+        if (missingSecrets.getIfPresent(key) != null) {
+            if (missingSecretHits != null) {
+                missingSecretHits.increment();
+            }
+            return Optional.empty();
+        }
+
+        Optional<String> value;
+        try {
+            value = secrets.get(key);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to load secret " + secretName, e.getCause());
+        }
+        if (!value.isPresent()) {
+            missingSecrets.put(key, Boolean.TRUE);
+            secrets.invalidate(key);
+        }
+        return value;
+    }
+
+    /**
+     * Drops a cached secret, so that the next lookup reads it from Key Vault.
+     *
+     * @param kv         Client configured to the correct vault
+     * @param secretName name of secret
+     */
+    void invalidate(final SecretClient kv, final String secretName) {
+        SecretKey key = new SecretKey(String.valueOf(kv.getVaultUrl()), secretName, kv);
+        secrets.invalidate(key);
+        missingSecrets.invalidate(key);
+    }
+
+    /**
+     * @return Hit, miss and load counts of the cache of existing secrets
+     */
+    CacheStats getStats() {
+        return secrets.stats();
+    }
+
+    /**
+     * Drops all cached secrets, stops the background refresh threads and removes the cache metrics.
+     */
+    void close() {
+        secrets.invalidateAll();
+        missingSecrets.invalidateAll();
+        refreshExecutor.shutdownNow();
+        if (registry != null) {
+            registry.getMeters().stream()
+                    .filter(meter -> CACHE_NAME.equals(meter.getId().getTag("cache")) || meter.getId().getName().startsWith(CACHE_NAME))
+                    .forEach(registry::remove);
+        }
+    }
+
+    /**
+     * Identity of a cached secret. The client is carried along to load the secret but is not part of the identity.
+     */
+    @Value
+    private static class SecretKey {
+        private String vaultUrl;
+        private String secretName;
+        @EqualsAndHashCode.Exclude
+        private SecretClient client;
+    }
+}
@@ -0,0 +1,510 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.blobstorage;
+
+import com.azure.core.util.polling.AsyncPollResponse;
+import com.azure.core.util.polling.LongRunningOperationStatus;
+import com.azure.storage.blob.BlobAsyncClient;
+import com.azure.storage.blob.BlobContainerAsyncClient;
+import com.azure.storage.blob.BlobServiceAsyncClient;
+import com.azure.storage.blob.models.BlobCopyInfo;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobListDetails;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.CopyStatusType;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.models.UserDelegationKey;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.azure.cache.UserDelegationKeyCache;
+import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
+import org.opengroup.osdu.azure.logging.DependencyLogger;
+import org.opengroup.osdu.azure.logging.DependencyPayload;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.slf4j.helpers.MessageFormatter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link BlobStore}. Operations return {@link Mono}s that do nothing until subscribed,
+ * log the same dependency records and fail with the same {@link AppException}s as their blocking equivalents.
+ * Copy progress is polled on Reactor's shared timer instead of a blocked thread.
+ * Usage examples:
+ * <pre>
+ * {@code
+ *      @Autowired
+ *      private BlobAsyncStore blobAsyncStore;
+ *
+ *      Mono<String> readExample()
+ *      {
+ *          return blobAsyncStore.readFromStorageContainer("dataPartitionId", "filePath", "containerName");
+ *      }
+ *
+ *      Mono<BlobCopyInfo> copyFileExample()
+ *      {
+ *          return blobAsyncStore.copyFile("dataPartitionId", "filePath", "containerName", "sourceFilePath");
+ *      }
+ * }
+ * </pre>
+ */
+public class BlobAsyncStore {
+    private static final String LOGGER_NAME = BlobAsyncStore.class.getName();
+    private static final Duration COPY_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private IBlobServiceClientFactory blobServiceClientFactory;
+    private DependencyLogger dependencyLogger;
+    private final UserDelegationKeyCache<UserDelegationKey> userDelegationKeyCache = UserDelegationKeyCache.shared(UserDelegationKey.class);
+
+    /**
+     * Constructor to create BlobAsyncStore.
+     *
+     * @param factory   Factory that provides blob clients.
+     * @param depLogger dependency logger instance to use for dependency logging.
+     */
+    public BlobAsyncStore(final IBlobServiceClientFactory factory, final DependencyLogger depLogger) {
+        this.blobServiceClientFactory = factory;
+        this.dependencyLogger = depLogger;
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be read.
+     * @param containerName   Name of the storage container
+     * @return content of the file.
+     */
+    public Mono<String> readFromStorageContainer(final String dataPartitionId, final String filePath, final String containerName) {
+        return readFromStorageContainerInternal(filePath, containerName, getBlobContainerClient(dataPartitionId, containerName));
+    }
+
+    /**
+     * @param filePath      Path of file to be read.
+     * @param containerName Name of the storage container
+     * @return content of the file in system storage.
+     */
+    public Mono<String> readFromStorageContainer(final String filePath, final String containerName) {
+        return readFromStorageContainerInternal(filePath, containerName, getSystemBlobContainerClient(containerName));
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be written at.
+     * @param content         Content to be written in the file.
+     * @param containerName   Name of the storage container
+     * @return completion of the write.
+     */
+    public Mono<Void> writeToStorageContainer(final String dataPartitionId, final String filePath, final String content, final String containerName) {
+        return writeToStorageContainerInternal(filePath, content, containerName, getBlobContainerClient(dataPartitionId, containerName));
+    }
+
+    /**
+     * @param filePath      Path of file to be written at.
+     * @param content       Content to be written in the file.
+     * @param containerName Name of the storage container
+     * @return completion of the write to system storage.
+     */
+    public Mono<Void> writeToStorageContainer(final String filePath, final String content, final String containerName) {
+        return writeToStorageContainerInternal(filePath, content, containerName, getSystemBlobContainerClient(containerName));
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be deleted.
+     * @param containerName   Name of the storage container
+     * @return true once the file is deleted.
+     */
+    public Mono<Boolean> deleteFromStorageContainer(final String dataPartitionId, final String filePath, final String containerName) {
+        return deleteFromStorageContainerInternal(filePath, containerName, getBlobContainerClient(dataPartitionId, containerName));
+    }
+
+    /**
+     * @param filePath      Path of file to be deleted.
+     * @param containerName Name of the storage container
+     * @return true once the file is deleted from system storage.
+     */
+    public Mono<Boolean> deleteFromStorageContainer(final String filePath, final String containerName) {
+        return deleteFromStorageContainerInternal(filePath, containerName, getSystemBlobContainerClient(containerName));
+    }
+
+    /**
+     * Restores the most recent version of a deleted file. A file whose current version is not deleted is left as is.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be undeleted.
+     * @param containerName   Name of the storage container
+     * @return true once the file is restored.
+     */
+    public Mono<Boolean> undeleteFromStorageContainer(final String dataPartitionId, final String filePath, final String containerName) {
+        final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+        return logged("UNDELETE_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, getBlobContainerClient(dataPartitionId, containerName)
+                .flatMap(blobContainerClient -> {
+                    ListBlobsOptions listBlobsOptions = new ListBlobsOptions().setPrefix(filePath)
+                            .setDetails(new BlobListDetails().setRetrieveVersions(true).setRetrieveDeletedBlobs(true));
+                    return blobContainerClient.listBlobs(listBlobsOptions)
+                            .takeWhile(blobItem -> filePath.equals(blobItem.getName()))
+                            .collectList()
+                            .flatMap(blobItems -> restoreLatestVersion(filePath, blobContainerClient, blobItems));
+                }).onErrorMap(Exception.class, ex -> toAppException(ex, null, "Failed to undelete blob")));
+    }
+
+    /**
+     * Copies a file from a source URL, polling the copy without blocking a thread.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file (blob) to which the file has to be copied
+     * @param containerName   Name of the storage container
+     * @param sourceUrl       URL of the file from where the file contents have to be copied
+     * @return Blob Copy Final Result.
+     */
+    public Mono<BlobCopyInfo> copyFile(final String dataPartitionId, final String filePath, final String containerName, final String sourceUrl) {
+        final String target = MessageFormatter.arrayFormat("{}:{}/{}", new String[]{dataPartitionId, containerName, filePath}).getMessage();
+        return getBlobContainerClient(dataPartitionId, containerName).flatMap(blobContainerClient -> {
+            final long start = System.currentTimeMillis();
+            return blobContainerClient.getBlobAsyncClient(filePath)
+                    .beginCopy(sourceUrl, COPY_POLL_INTERVAL)
+                    .last()
+                    .map(AsyncPollResponse::getValue)
+                    .doOnSuccess(blobCopyInfo -> {
+                        CopyStatusType status = blobCopyInfo == null ? CopyStatusType.FAILED : blobCopyInfo.getCopyStatus();
+                        logDependency("COPY_FILE", sourceUrl, target, System.currentTimeMillis() - start, status.toString(), status == CopyStatusType.SUCCESS);
+                    })
+                    .doOnError(ex -> logDependency("COPY_FILE", sourceUrl, target, System.currentTimeMillis() - start,
+                            CopyStatusType.FAILED.toString(), false));
+        }).onErrorMap(Exception.class, ex -> toAppException(ex, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to copy blob"));
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be shared.
+     * @param containerName   Name of the storage container
+     * @param expiryTime      Time after which the token expires
+     * @param permissions     Permissions for the given blob
+     * @return Pre-signed URL for the given blob.
+     */
+    public Mono<String> generatePreSignedURL(final String dataPartitionId, final String filePath, final String containerName,
+                                             final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+        return getBlobContainerClient(dataPartitionId, containerName).map(blobContainerClient -> {
+            BlobAsyncClient blobClient = blobContainerClient.getBlobAsyncClient(filePath);
+            final long start = System.currentTimeMillis();
+            String sasToken = blobClient.generateSas(new BlobServiceSasSignatureValues(expiryTime, permissions));
+            logDependency("GENERATE_SAS_TOKEN", blobClient.getBlobName(), blobClient.getBlobUrl(), System.currentTimeMillis() - start,
+                    String.valueOf(HttpStatus.SC_OK), true);
+            return blobClient.getBlobUrl() + "?" + sasToken;
+        });
+    }
+
+    /**
+     * Generates a pre-signed URL signed with a user delegation key. Keys are cached per storage account, so only a cache
+     * miss involves a call to the storage service.
+     *
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @param filePath        Path of file to be shared.
+     * @param expiryTime      Time after which the token expires
+     * @param permissions     Permissions for the given blob
+     * @return Pre-signed URL for the given blob.
+     */
+    public Mono<String> generatePreSignedUrlWithUserDelegationSas(final String dataPartitionId, final String containerName, final String filePath,
+                                                                  final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+        return getBlobServiceClient(dataPartitionId).flatMap(blobServiceClient -> {
+            BlobAsyncClient blobClient = blobServiceClient.getBlobContainerAsyncClient(containerName).getBlobAsyncClient(filePath);
+            OffsetDateTime startTime = OffsetDateTime.now();
+            return userDelegationKeyCache.getAsync(blobServiceClient.getAccountUrl(), startTime, expiryTime, blobServiceClient::getUserDelegationKey)
+                    .map(userDelegationKey -> {
+                        BlobServiceSasSignatureValues blobServiceSasSignatureValues = new BlobServiceSasSignatureValues(expiryTime, permissions)
+                                .setStartTime(startTime);
+                        final long start = System.currentTimeMillis();
+                        String sasToken = blobClient.generateUserDelegationSas(blobServiceSasSignatureValues, userDelegationKey);
+                        logDependency("GENERATE_PRESIGNED_URL_USER_DELEGATION_SAS", blobClient.getBlobName(), blobClient.getBlobUrl(),
+                                System.currentTimeMillis() - start, String.valueOf(HttpStatus.SC_OK), true);
+                        return blobClient.getBlobUrl() + "?" + sasToken;
+                    });
+        }).onErrorMap(Exception.class, ex -> toAppException(ex, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to generate pre-signed URL"));
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return true once the container is created.
+     */
+    public Mono<Boolean> createBlobContainer(final String dataPartitionId, final String containerName) {
+        return getBlobServiceClient(dataPartitionId).flatMap(blobServiceClient -> blobServiceClient.createBlobContainer(containerName))
+                .doOnSuccess(container -> debug("Done creating container with name {}", containerName))
+                .thenReturn(true)
+                .onErrorMap(Exception.class, ex -> toAppException(ex, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to create blob container"));
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return whether the container exists.
+     */
+    public Mono<Boolean> checkIfBlobContainerExists(final String dataPartitionId, final String containerName) {
+        return getBlobContainerClient(dataPartitionId, containerName).flatMap(BlobContainerAsyncClient::exists)
+                .onErrorMap(Exception.class, ex -> toAppException(ex, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to check blob container"));
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return true once the container is deleted.
+     */
+    public Mono<Boolean> deleteBlobContainer(final String dataPartitionId, final String containerName) {
+        return getBlobServiceClient(dataPartitionId).flatMap(blobServiceClient -> blobServiceClient.deleteBlobContainer(containerName))
+                .doOnSuccess(ignored -> debug("Done deleting container with name {}", containerName))
+                .thenReturn(true)
+                .onErrorMap(Exception.class, ex -> toAppException(ex, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to delete blob container"));
+    }
+
+    /**
+     * @param filePath        Path of file to be read.
+     * @param containerName   Name of the storage container
+     * @param containerClient Resolves the blob container client
+     * @return content of the file.
+     */
+    private Mono<String> readFromStorageContainerInternal(final String filePath, final String containerName,
+                                                          final Mono<BlobContainerAsyncClient> containerClient) {
+        final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+        return logged("READ_FROM_STORAGE_CONTAINER", dependencyData, dependencyData,
+                containerClient.flatMap(client -> {
+                            BlobAsyncClient blobClient = client.getBlobAsyncClient(filePath);
+                            return blobClient.downloadContent().flatMap(content -> decode(blobClient, ByteBuffer.wrap(content.toBytes())));
+                        })
+                        .doOnSuccess(content -> debug("Done reading from {}", filePath)))
+                .onErrorMap(Exception.class, ex -> toAppException(ex, null, "Failed to read specified blob"));
+    }
+
+    /**
+     * Decodes downloaded content the way {@link BlobStore} does, decompressing blobs uploaded with a gzip Content-Encoding.
+     *
+     * @param blobClient Blob client, used to look up the Content-Encoding of content that may be compressed
+     * @param content    Downloaded content
+     * @return the content as text
+     */
+    private Mono<String> decode(final BlobAsyncClient blobClient, final ByteBuffer content) {
+        if (!BlobContentDecoder.mayBeCompressed(content)) {
+            return Mono.just(BlobContentDecoder.toText(content));
+        }
+        return blobClient.getProperties().flatMap(properties -> BlobContentDecoder.isCompressed(properties.getContentEncoding())
+                ? Mono.fromCallable(() -> BlobContentDecoder.decompress(content))
+                : Mono.just(BlobContentDecoder.toText(content)));
+    }
+
+    /**
+     * @param filePath        Path of file to be written at.
+     * @param content         Content to be written in the file.
+     * @param containerName   Name of the storage container
+     * @param containerClient Resolves the blob container client
+     * @return completion of the write.
+     */
+    private Mono<Void> writeToStorageContainerInternal(final String filePath, final String content, final String containerName,
+                                                       final Mono<BlobContainerAsyncClient> containerClient) {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+        return logged("WRITE_TO_STORAGE_CONTAINER", dependencyData, dependencyData,
+                containerClient.flatMap(client -> client.getBlobAsyncClient(filePath).getBlockBlobAsyncClient()
+                                .upload(Flux.just(ByteBuffer.wrap(bytes)), bytes.length, true))
+                        .doOnSuccess(item -> debug("Done uploading file content to {}", filePath)))
+                .then()
+                .onErrorMap(Exception.class, ex -> toAppException(ex, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to upload file content."));
+    }
+
+    /**
+     * @param filePath        Path of file to be deleted.
+     * @param containerName   Name of the storage container
+     * @param containerClient Resolves the blob container client
+     * @return true once the file is deleted.
+     */
+    private Mono<Boolean> deleteFromStorageContainerInternal(final String filePath, final String containerName,
+                                                             final Mono<BlobContainerAsyncClient> containerClient) {
+        final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+        return logged("DELETE_FROM_STORAGE_CONTAINER", dependencyData, dependencyData,
+                containerClient.flatMap(client -> client.getBlobAsyncClient(filePath).delete())
+                        .doOnSuccess(ignored -> debug("Done deleting blob at {}", filePath))
+                        .thenReturn(true))
+                .onErrorMap(Exception.class, ex -> toAppException(ex, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to delete blob"));
+    }
+
+    /**
+     * Copies the most recent version of a blob over the base blob, unless the current version is not deleted.
+     *
+     * @param filePath            Path of the blob
+     * @param blobContainerClient Blob container client
+     * @param blobItems           Listed versions of the blob
+     * @return true once the blob is live.
+     */
+    private Mono<Boolean> restoreLatestVersion(final String filePath, final BlobContainerAsyncClient blobContainerClient,
+                                               final List<BlobItem> blobItems) {
+        if (blobItems.stream().anyMatch(blobItem -> Boolean.TRUE.equals(blobItem.isCurrentVersion()) && !Boolean.TRUE.equals(blobItem.isDeleted()))) {
+            return Mono.just(true);
+        }
+        return Mono.justOrEmpty(blobItems.stream()
+                        .map(BlobItem::getVersionId)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder()))
+                .switchIfEmpty(Mono.error(() -> new AppException(HttpStatus.SC_NOT_FOUND, "Could not find any item at location " + filePath, "No items found")))
+                .flatMap(versionId -> blobContainerClient.getBlobAsyncClient(filePath)
+                        .beginCopy(blobContainerClient.getBlobVersionClient(filePath, versionId).getBlobUrl(), COPY_POLL_INTERVAL)
+                        .last())
+                .flatMap(pollResponse -> LongRunningOperationStatus.SUCCESSFULLY_COMPLETED.equals(pollResponse.getStatus())
+                        ? Mono.just(true)
+                        : Mono.<Boolean>error(new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Unknown error happened while restoring the blob", "Copy job couldn't finish")));
+    }
+
+    /**
+     * Logs a dependency record when the operation completes or fails.
+     *
+     * @param name      Dependency name
+     * @param data      Dependency data
+     * @param target    Dependency target
+     * @param operation Operation to log
+     * @param <T>       result type
+     * @return the operation with dependency logging attached
+     */
+    private <T> Mono<T> logged(final String name, final String data, final String target, final Mono<T> operation) {
+        return Mono.defer(() -> {
+            final long start = System.currentTimeMillis();
+            return operation
+                    .doOnSuccess(result -> logDependency(name, data, target, System.currentTimeMillis() - start, String.valueOf(HttpStatus.SC_OK), true))
+                    .doOnError(ex -> logDependency(name, data, target, System.currentTimeMillis() - start, String.valueOf(getStatusCode(ex)), false));
+        });
+    }
+
+    /**
+     * @param ex Failure of an operation
+     * @return status code to report for the failure
+     */
+    private int getStatusCode(final Throwable ex) {
+        if (ex instanceof BlobStorageException) {
+            return ((BlobStorageException) ex).getStatusCode();
+        }
+        if (ex instanceof AppException) {
+            return ((AppException) ex).getError().getCode();
+        }
+        return HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Maps a failure the same way {@link BlobStore} does: missing blobs become 404, throttling becomes 503.
+     *
+     * @param ex           Failure of an operation
+     * @param status       Status for other storage failures, null to use the status returned by the service
+     * @param errorMessage Error message
+     * @return exception to surface to the caller
+     */
+    private AppException toAppException(final Exception ex, final Integer status, final String errorMessage) {
+        if (ex instanceof AppException) {
+            return (AppException) ex;
+        }
+        if (ex instanceof BlobStorageException) {
+            BlobStorageException storageException = (BlobStorageException) ex;
+            if (BlobErrorCode.BLOB_NOT_FOUND.equals(storageException.getErrorCode())) {
+                return handleBlobStoreException(HttpStatus.SC_NOT_FOUND, "Specified blob was not found", ex);
+            }
+            if (BlobErrorCode.SERVER_BUSY.equals(storageException.getErrorCode())) {
+                return handleBlobStoreException(HttpStatus.SC_SERVICE_UNAVAILABLE, "The server is busy, retry this request later", ex);
+            }
+            return handleBlobStoreException(status == null ? storageException.getStatusCode() : status, errorMessage, ex);
+        }
+        return handleBlobStoreException(HttpStatus.SC_INTERNAL_SERVER_ERROR, errorMessage, ex);
+    }
+
+    /**
+     * @param status       Status code
+     * @param errorMessage Error message
+     * @param ex           Original exception
+     * @return Instance of AppException
+     */
+    private AppException handleBlobStoreException(final int status, final String errorMessage, final Exception ex) {
+        CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn(MessageFormatter.format("{}", errorMessage).getMessage(), ex);
+        return new AppException(status, errorMessage, ex.getMessage(), ex);
+    }
+
+    /**
+     * @param format   Message format
+     * @param argument Message argument
+     */
+    private void debug(final String format, final String argument) {
+        CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format(format, argument).getMessage());
+    }
+
+    /**
+     * Resolves the blob service client on the bounded elastic scheduler, since a cache miss in the factory performs
+     * blocking calls.
+     *
+     * @param dataPartitionId Data partition id
+     * @return blob service client for the partition.
+     */
+    private Mono<BlobServiceAsyncClient> getBlobServiceClient(final String dataPartitionId) {
+        return resolveClient(() -> blobServiceClientFactory.getBlobServiceAsyncClient(dataPartitionId));
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return blob container client for the partition.
+     */
+    private Mono<BlobContainerAsyncClient> getBlobContainerClient(final String dataPartitionId, final String containerName) {
+        return resolveClient(() -> blobServiceClientFactory.getBlobServiceAsyncClient(dataPartitionId).getBlobContainerAsyncClient(containerName));
+    }
+
+    /**
+     * @param containerName Name of the storage container
+     * @return blob container client for system storage.
+     */
+    private Mono<BlobContainerAsyncClient> getSystemBlobContainerClient(final String containerName) {
+        return resolveClient(() -> blobServiceClientFactory.getSystemBlobServiceAsyncClient().getBlobContainerAsyncClient(containerName));
+    }
+
+    /**
+     * @param client Supplies a client from the factory
+     * @param <T>    client type
+     * @return the client, resolved on the bounded elastic scheduler.
+     */
+    private <T> Mono<T> resolveClient(final Supplier<T> client) {
+        return Mono.fromCallable(client::get)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(Exception.class, ex -> ex instanceof AppException
+                        ? handleBlobStoreException(((AppException) ex).getError().getCode(), "Error creating blob container client.", ex)
+                        : handleBlobStoreException(500, "Error creating blob container client.", ex));
+    }
+
+    /**
+     * @param name          Dependency name
+     * @param data          Dependency data
+     * @param target        Dependency target
+     * @param timeTakenInMs Time taken
+     * @param resultCode    Result code
+     * @param success       Whether the operation succeeded
+     */
+    private void logDependency(final String name, final String data, final String target, final long timeTakenInMs, final String resultCode, final boolean success) {
+        DependencyPayload payload = new DependencyPayload(name, data, Duration.ofMillis(timeTakenInMs), resultCode, success);
+        payload.setType("BlobStore");
+        payload.setTarget(target);
+        dependencyLogger.logDependencyWithPayload(payload);
+    }
+}
@@ -0,0 +1,210 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.blobstorage;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.Block;
+import com.azure.storage.blob.models.BlockListType;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+import com.azure.storage.common.ParallelTransferOptions;
+import lombok.Value;
+import org.apache.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Uploads a file as concurrently staged blocks followed by a single block list commit.
+ * Block ids are derived from the block index and content, so re-running an interrupted upload of the same file
+ * only stages the blocks the service does not already hold.
+ */
+final class BlobBlockUploader {
+
+    static final long DEFAULT_BLOCK_SIZE = 8L * 1024 * 1024;
+    static final int DEFAULT_MAX_CONCURRENCY = 8;
+    static final long DEFAULT_MAX_SINGLE_UPLOAD_SIZE = 32L * 1024 * 1024;
+    private static final int MAX_RETRIES_PER_BLOCK = 3;
+    private static final Duration RETRY_MIN_BACKOFF = Duration.ofMillis(500);
+
+    /**
+     * Private constructor -- this class should never be instantiated.
+     */
+    private BlobBlockUploader() {
+    }
+
+    /**
+     * Outcome of a staged upload.
+     */
+    @Value
+    static class Result {
+        private int stagedBlocks;
+        private int reusedBlocks;
+    }
+
+    /**
+     * Stages every block of the file that is not already staged and commits the block list.
+     *
+     * @param blockBlobClient Blob client
+     * @param source          File channel holding the content
+     * @param size            Number of bytes to upload
+     * @param options         Block size and concurrency, defaults are used for missing values
+     * @return staged and reused block counts
+     */
+    static Result upload(
+            final BlockBlobClient blockBlobClient,
+            final FileChannel source,
+            final long size,
+            final ParallelTransferOptions options) {
+        final long blockSize = options == null || options.getBlockSizeLong() == null ? DEFAULT_BLOCK_SIZE : options.getBlockSizeLong();
+        final int maxConcurrency = options == null || options.getMaxConcurrency() == null ? DEFAULT_MAX_CONCURRENCY : options.getMaxConcurrency();
+        final int blockCount = (int) ((size + blockSize - 1) / blockSize);
+        final Set<String> stagedBlockIds = getUncommittedBlockIds(blockBlobClient);
+
+        List<String> blockIds = Flux.range(0, blockCount)
+                .flatMapSequential(index -> Mono.fromCallable(() -> {
+                    final long offset = index * blockSize;
+                    final byte[] data = readBlock(source, offset, (int) Math.min(blockSize, size - offset));
+                    final byte[] md5 = md5(data);
+                    final String blockId = blockId(index, md5);
+                    if (!stagedBlockIds.contains(blockId)) {
+                        stageBlock(blockBlobClient, blockId, data, md5);
+                    }
+                    return blockId;
+                }).subscribeOn(Schedulers.boundedElastic()), maxConcurrency)
+                .collectList()
+                .block();
+
+        int reused = (int) blockIds.stream().filter(stagedBlockIds::contains).count();
+        blockBlobClient.commitBlockList(blockIds, true);
+        return new Result(blockIds.size() - reused, reused);
+    }
+
+    /**
+     * @param options Transfer options
+     * @return largest size uploaded in a single request
+     */
+    static long getMaxSingleUploadSize(final ParallelTransferOptions options) {
+        return options == null || options.getMaxSingleUploadSizeLong() == null ? DEFAULT_MAX_SINGLE_UPLOAD_SIZE : options.getMaxSingleUploadSizeLong();
+    }
+
+    /**
+     * @param blockBlobClient Blob client
+     * @return ids of blocks staged by an earlier, uncommitted upload
+     */
+    private static Set<String> getUncommittedBlockIds(final BlockBlobClient blockBlobClient) {
+        try {
+            List<Block> blocks = blockBlobClient.listBlocks(BlockListType.UNCOMMITTED).getUncommittedBlocks();
+            return blocks == null ? Set.of() : blocks.stream().map(Block::getName).collect(Collectors.toSet());
+        } catch (BlobStorageException ex) {
+            if (BlobErrorCode.BLOB_NOT_FOUND.equals(ex.getErrorCode())) {
+                return Set.of();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Stages one block, retrying transient failures of that block only.
+     *
+     * @param blockBlobClient Blob client
+     * @param blockId         Base64 block id
+     * @param data            Block content
+     * @param md5             MD5 of the block content, checked by the service
+     */
+    private static void stageBlock(final BlockBlobClient blockBlobClient, final String blockId, final byte[] data, final byte[] md5) {
+        Mono.fromRunnable(() -> blockBlobClient.stageBlockWithResponse(blockId, new ByteArrayInputStream(data), data.length, md5,
+                        null, null, Context.NONE))
+                .retryWhen(Retry.backoff(MAX_RETRIES_PER_BLOCK, RETRY_MIN_BACKOFF)
+                        .filter(BlobBlockUploader::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .block();
+    }
+
+    /**
+     * @param throwable Failure of a block request
+     * @return whether the request may succeed when retried
+     */
+    private static boolean isTransient(final Throwable throwable) {
+        if (throwable instanceof BlobStorageException) {
+            int status = ((BlobStorageException) throwable).getStatusCode();
+            return status == HttpStatus.SC_REQUEST_TIMEOUT || status == 429 || status >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+        }
+        return throwable instanceof UncheckedIOException;
+    }
+
+    /**
+     * @param source File channel holding the content
+     * @param offset Position of the block
+     * @param length Length of the block
+     * @return block content
+     */
+    private static byte[] readBlock(final FileChannel source, final long offset, final int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (source.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file at offset " + (offset + buffer.position()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Block ids must have the same length within a blob, hence the fixed-width index.
+     *
+     * @param index Block index
+     * @param md5   MD5 of the block content
+     * @return Base64 block id
+     */
+    static String blockId(final int index, final byte[] md5) {
+        StringBuilder id = new StringBuilder(String.format("%06d-", index));
+        for (byte b : md5) {
+            id.append(String.format("%02x", b));
+        }
+        return Base64.getEncoder().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param data Block content
+     * @return MD5 digest of the content
+     */
+    private static byte[] md5(final byte[] data) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 digest is not available", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.blobstorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decodes downloaded blob content as UTF-8 text. Content is decompressed only when the blob carries the gzip
+ * Content-Encoding set by compressed uploads, so gzip files stored as they are come back unchanged.
+ */
+final class BlobContentDecoder {
+    static final String GZIP_ENCODING = "gzip";
+
+    /**
+     * This class is all static methods - no need for a constructor.
+     */
+    private BlobContentDecoder() {
+    }
+
+    /**
+     * @param content Downloaded content
+     * @return whether the content starts with the gzip magic number. Only such content needs its Content-Encoding
+     * looked up, since UTF-8 text can not start with it.
+     */
+    static boolean mayBeCompressed(final ByteBuffer content) {
+        return content.remaining() >= 2
+                && (content.get(content.position()) & 0xff) == (GZIPInputStream.GZIP_MAGIC & 0xff)
+                && (content.get(content.position() + 1) & 0xff) == (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
+    /**
+     * @param contentEncoding Content-Encoding of the blob
+     * @return whether the blob was uploaded compressed
+     */
+    static boolean isCompressed(final String contentEncoding) {
+        return GZIP_ENCODING.equalsIgnoreCase(contentEncoding);
+    }
+
+    /**
+     * @param content         Downloaded content
+     * @param contentEncoding Supplies the Content-Encoding of the blob; only called for content that may be compressed
+     * @return the content decoded as UTF-8 text
+     * @throws IOException when compressed content is corrupt
+     */
+    static String decode(final ByteBuffer content, final Supplier<String> contentEncoding) throws IOException {
+        return mayBeCompressed(content) && isCompressed(contentEncoding.get()) ? decompress(content) : toText(content);
+    }
+
+    /**
+     * @param content Uncompressed content
+     * @return the content decoded as UTF-8 text
+     */
+    static String toText(final ByteBuffer content) {
+        return StandardCharsets.UTF_8.decode(content.duplicate()).toString();
+    }
+
+    /**
+     * @param content gzip-compressed content
+     * @return the decompressed content decoded as UTF-8 text
+     * @throws IOException when the content is corrupt
+     */
+    static String decompress(final ByteBuffer content) throws IOException {
+        byte[] compressed = new byte[content.remaining()];
+        content.duplicate().get(compressed);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.blobstorage;
+
+import com.google.common.hash.Hashing;
+import lombok.Value;
+import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded, least-recently-used cache of blob content on local disk. Each blob is kept in its own file together
+ * with the ETag and Content-Encoding it was downloaded with, so callers can revalidate it with a conditional request
+ * and decode it without asking the service again. Cached content is read through memory-mapped files.
+ */
+public class BlobDiskCache {
+    private static final String LOGGER_NAME = BlobDiskCache.class.getName();
+    private static final String FILE_SUFFIX = ".blob";
+
+    private final Path directory;
+    private final long maxSizeBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentSizeBytes;
+
+    /**
+     * Creates the cache and clears the files left in its directory by a previous process.
+     *
+     * @param cacheDirectory Directory owned by the cache
+     * @param maxSize        Maximum total size of the cached blobs in bytes
+     */
+    public BlobDiskCache(final Path cacheDirectory, final long maxSize) {
+        this.directory = cacheDirectory;
+        this.maxSizeBytes = maxSize;
+        try {
+            Files.createDirectories(cacheDirectory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to initialize blob disk cache in " + cacheDirectory, ex);
+        }
+    }
+
+    /**
+     * Returns the cached content of a blob.
+     *
+     * @param key Key of the blob
+     * @return cached blob, or null when it is not cached or its file can no longer be read
+     */
+    public CachedBlob get(final String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(entry.getFile(), StandardOpenOption.READ)) {
+            return new CachedBlob(entry.getETag(), entry.getContentEncoding(), channel.map(FileChannel.MapMode.READ_ONLY, 0, entry.getSize()));
+        } catch (NoSuchFileException ex) {
+            remove(key, entry);
+            return null;
+        } catch (IOException ex) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Unable to read cached blob " + key, ex);
+            remove(key, entry);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the content of a blob, evicting the least recently used blobs when the size budget is exceeded.
+     * Blobs larger than the whole budget are not cached. Every put writes a new file, so concurrent puts of the same
+     * key each keep their ETag with their own content and the last one installed wins.
+     *
+     * @param key             Key of the blob
+     * @param eTag            ETag of the downloaded content
+     * @param contentEncoding Content-Encoding of the downloaded content, may be null
+     * @param content         Content of the blob
+     */
+    public void put(final String key, final String eTag, final String contentEncoding, final byte[] content) {
+        if (eTag == null || content.length > maxSizeBytes) {
+            return;
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile(directory, Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + "-", FILE_SUFFIX);
+            Files.write(file, content);
+        } catch (IOException ex) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Unable to cache blob " + key, ex);
+            if (file != null) {
+                delete(file);
+            }
+            return;
+        }
+        Entry previous;
+        synchronized (entries) {
+            previous = entries.put(key, new Entry(file, eTag, contentEncoding, content.length));
+            if (previous != null) {
+                currentSizeBytes -= previous.getSize();
+            }
+            currentSizeBytes += content.length;
+            evict();
+        }
+        if (previous != null) {
+            delete(previous.getFile());
+        }
+    }
+
+    /**
+     * Drops a blob from the cache.
+     *
+     * @param key Key of the blob
+     */
+    public void invalidate(final String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.remove(key);
+            if (entry != null) {
+                currentSizeBytes -= entry.getSize();
+            }
+        }
+        if (entry != null) {
+            delete(entry.getFile());
+        }
+    }
+
+    /**
+     * @return total size of the cached blobs in bytes
+     */
+    public long getSizeBytes() {
+        synchronized (entries) {
+            return currentSizeBytes;
+        }
+    }
+
+    /**
+     * Removes least recently used entries until the cache fits its budget. Must be called holding the entries lock.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (currentSizeBytes > maxSizeBytes && eldest.hasNext()) {
+            Entry entry = eldest.next().getValue();
+            eldest.remove();
+            currentSizeBytes -= entry.getSize();
+            delete(entry.getFile());
+        }
+    }
+
+    /**
+     * Removes an entry if it is still the one cached for the key.
+     *
+     * @param key   Key of the blob
+     * @param entry Entry that turned out to be unreadable
+     */
+    private void remove(final String key, final Entry entry) {
+        synchronized (entries) {
+            if (entries.remove(key, entry)) {
+                currentSizeBytes -= entry.getSize();
+            }
+        }
+    }
+
+    /**
+     * @param file File to delete; failures are logged since the file is no longer referenced
+     */
+    private static void delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Unable to delete cached blob file " + file, ex);
+        }
+    }
+
+    /**
+     * Content of a cached blob and the ETag and Content-Encoding it was downloaded with.
+     */
+    @Value
+    public static class CachedBlob {
+        private String eTag;
+        private String contentEncoding;
+        private ByteBuffer content;
+
+        /**
+         * @return the content decoded as UTF-8
+         */
+        public String asString() {
+            return StandardCharsets.UTF_8.decode(content.duplicate()).toString();
+        }
+    }
+
+    /**
+     * Location, ETag and Content-Encoding of a cached blob.
+     */
+    @Value
+    private static class Entry {
+        private Path file;
+        private String eTag;
+        private String contentEncoding;
+        private long size;
+    }
+}
@@ -0,0 +1,54 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.blobstorage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+/**
+ * Outcome of one blob within a multi-blob operation.
+ *
+ * @param <T> type of the value produced for the blob
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BlobItemResult<T> {
+    /**
+     * the path of the blob.
+     */
+    private String filePath;
+    /**
+     * the value produced for the blob, if the operation has one.
+     */
+    private T value;
+    /**
+     * the status code of the operation for this blob.
+     */
+    private int statusCode;
+    /**
+     * whether the operation succeeded for this blob.
+     */
+    private boolean success;
+    /**
+     * the error of a failed operation.
+     */
+    private AppException error;
+}
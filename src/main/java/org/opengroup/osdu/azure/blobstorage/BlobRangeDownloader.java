@@ -0,0 +1,211 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.blobstorage;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.DownloadRetryOptions;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+import com.azure.storage.common.ParallelTransferOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.LongFunction;
+
+/**
+ * Downloads a blob as concurrent byte-range requests, each range written straight to its position in the target.
+ */
+final class BlobRangeDownloader {
+
+    static final long DEFAULT_BLOCK_SIZE = 8L * 1024 * 1024;
+    static final int DEFAULT_MAX_CONCURRENCY = 8;
+    private static final int MAX_RETRY_REQUESTS_PER_RANGE = 3;
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Private constructor -- this class should never be instantiated.
+     */
+    private BlobRangeDownloader() {
+    }
+
+    /**
+     * Downloads all ranges of a blob. Every range is pinned to the given ETag, so a blob replaced during the
+     * download fails the download instead of mixing two versions.
+     *
+     * @param blockBlobClient Blob client
+     * @param blobSize        Size of the blob in bytes
+     * @param eTag            ETag of the blob version to download
+     * @param options         Block size and concurrency, defaults are used for missing values
+     * @param rangeTarget     Returns the stream receiving the range starting at the given offset
+     * @return number of bytes downloaded
+     */
+    static long download(
+            final BlockBlobClient blockBlobClient,
+            final long blobSize,
+            final String eTag,
+            final ParallelTransferOptions options,
+            final LongFunction<OutputStream> rangeTarget) {
+        final long blockSize = getBlockSize(options);
+        final int maxConcurrency = getMaxConcurrency(options);
+        final long rangeCount = (blobSize + blockSize - 1) / blockSize;
+        final BlobRequestConditions conditions = new BlobRequestConditions().setIfMatch(eTag);
+        final DownloadRetryOptions retryOptions = new DownloadRetryOptions().setMaxRetryRequests(MAX_RETRY_REQUESTS_PER_RANGE);
+
+        Long downloaded = Flux.range(0, (int) rangeCount)
+                .flatMap(index -> Mono.fromCallable(() -> {
+                    final long offset = index * blockSize;
+                    final long count = Math.min(blockSize, blobSize - offset);
+                    try (OutputStream target = rangeTarget.apply(offset)) {
+                        blockBlobClient.downloadStreamWithResponse(target, new BlobRange(offset, count), retryOptions,
+                                conditions, false, null, Context.NONE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return count;
+                }).subscribeOn(Schedulers.boundedElastic()), maxConcurrency)
+                .reduce(0L, Long::sum)
+                .block();
+        return downloaded == null ? 0 : downloaded;
+    }
+
+    /**
+     * @param options Transfer options
+     * @return block size to use
+     */
+    static long getBlockSize(final ParallelTransferOptions options) {
+        return options == null || options.getBlockSizeLong() == null ? DEFAULT_BLOCK_SIZE : options.getBlockSizeLong();
+    }
+
+    /**
+     * @param options Transfer options
+     * @return maximum number of concurrent requests to use
+     */
+    static int getMaxConcurrency(final ParallelTransferOptions options) {
+        return options == null || options.getMaxConcurrency() == null ? DEFAULT_MAX_CONCURRENCY : options.getMaxConcurrency();
+    }
+
+    /**
+     * @param channel File channel holding the downloaded content
+     * @param size    Number of bytes to digest
+     * @return MD5 digest of the content
+     * @throws IOException when the file can not be read
+     */
+    static byte[] md5(final FileChannel channel, final long size) throws IOException {
+        MessageDigest digest = newMd5Digest();
+        ByteBuffer buffer = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+        return digest.digest();
+    }
+
+    /**
+     * @param buffer Buffer holding the downloaded content
+     * @return MD5 digest of the content
+     */
+    static byte[] md5(final ByteBuffer buffer) {
+        MessageDigest digest = newMd5Digest();
+        digest.update(buffer.duplicate());
+        return digest.digest();
+    }
+
+    /**
+     * @return MD5 message digest
+     */
+    private static MessageDigest newMd5Digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 digest is not available", e);
+        }
+    }
+
+    /**
+     * Stream writing to a file channel at an absolute position, so several ranges can be written concurrently.
+     */
+    static final class FileChannelRangeOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private long position;
+
+        /**
+         * @param fileChannel File channel to write to
+         * @param offset      Position of the first byte
+         */
+        FileChannelRangeOutputStream(final FileChannel fileChannel, final long offset) {
+            this.channel = fileChannel;
+            this.position = offset;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            ByteBuffer source = ByteBuffer.wrap(b, off, len);
+            while (source.hasRemaining()) {
+                position += channel.write(source, position);
+            }
+        }
+    }
+
+    /**
+     * Stream writing to a region of a byte buffer, so several ranges can be written concurrently.
+     */
+    static final class ByteBufferRangeOutputStream extends OutputStream {
+        private final ByteBuffer target;
+
+        /**
+         * @param buffer Buffer holding the whole blob
+         * @param offset Position of the first byte
+         */
+        ByteBufferRangeOutputStream(final ByteBuffer buffer, final long offset) {
+            ByteBuffer region = buffer.duplicate();
+            region.position((int) offset);
+            this.target = region;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len > target.remaining()) {
+                throw new IOException("Received more data than the blob size");
+            }
+            target.put(b, off, len);
+        }
+    }
+}
@@ -16,6 +16,7 @@ package org.opengroup.osdu.azure.blobstorage;
 
 import com.azure.identity.DefaultAzureCredential;
 import com.azure.security.keyvault.secrets.SecretClient;
+import com.azure.storage.blob.BlobServiceAsyncClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
 import com.azure.storage.common.StorageSharedKeyCredential;
@@ -24,6 +25,7 @@ import org.opengroup.osdu.azure.KeyVaultFacade;
 import org.opengroup.osdu.azure.blobstorage.system.config.SystemBlobStoreConfig;
 import org.opengroup.osdu.azure.di.BlobStoreRetryConfiguration;
 import org.opengroup.osdu.azure.di.MSIConfiguration;
+import org.opengroup.osdu.azure.httpconfig.HttpClientProvider;
 import org.opengroup.osdu.azure.partition.PartitionInfoAzure;
 import org.opengroup.osdu.azure.partition.PartitionServiceClient;
 import org.opengroup.osdu.common.Validators;
@@ -39,6 +41,7 @@ public class BlobServiceClientFactoryImpl implements IBlobServiceClientFactory {
     private DefaultAzureCredential defaultAzureCredential;
     private PartitionServiceClient partitionService;
     private Map<String, BlobServiceClient> blobServiceClientMap;
+    private Map<String, BlobServiceAsyncClient> blobServiceAsyncClientMap;
     private static final String SYSTEM_STORAGE_CACHE_KEY = "system_storage";
     private static final String SYSTEM_STORAGE_BLOB_ENDPOINT = "system-storage-blob-endpoint";
 
@@ -54,6 +57,9 @@ public class BlobServiceClientFactoryImpl implements IBlobServiceClientFactory {
     @Autowired
     private SystemBlobStoreConfig systemBlobStoreConfig;
 
+    @Autowired(required = false)
+    private HttpClientProvider httpClientProvider;
+
     /**
      * Constructor to initialize instance of {@link BlobServiceClientFactoryImpl}.
      * @param credentials Azure Credentials to use
@@ -64,6 +70,7 @@ public class BlobServiceClientFactoryImpl implements IBlobServiceClientFactory {
         this.defaultAzureCredential = credentials;
         this.partitionService = partitionServiceClient;
         blobServiceClientMap = new ConcurrentHashMap<>();
+        blobServiceAsyncClientMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -96,6 +103,28 @@ public class BlobServiceClientFactoryImpl implements IBlobServiceClientFactory {
         return this.blobServiceClientMap.computeIfAbsent(SYSTEM_STORAGE_CACHE_KEY, blobServiceClient -> createSystemBlobServiceClient());
     }
 
+    /**
+     * @param dataPartitionId data partition id.
+     * @return BlobServiceAsyncClient sharing the pipeline of the cached BlobServiceClient.
+     */
+    @Override
+    public BlobServiceAsyncClient getBlobServiceAsyncClient(final String dataPartitionId) {
+        Validators.checkNotNullAndNotEmpty(dataPartitionId, "dataPartitionId");
+
+        String cacheKey = String.format("%s-blobServiceAsyncClient", dataPartitionId);
+        return this.blobServiceAsyncClientMap.computeIfAbsent(cacheKey,
+                blobServiceAsyncClient -> IBlobServiceClientFactory.super.getBlobServiceAsyncClient(dataPartitionId));
+    }
+
+    /**
+     * @return BlobServiceAsyncClient for system resources, sharing the pipeline of the cached BlobServiceClient.
+     */
+    @Override
+    public BlobServiceAsyncClient getSystemBlobServiceAsyncClient() {
+        return this.blobServiceAsyncClientMap.computeIfAbsent(SYSTEM_STORAGE_CACHE_KEY,
+                blobServiceAsyncClient -> IBlobServiceClientFactory.super.getSystemBlobServiceAsyncClient());
+    }
+
     /**
      * @param dataPartitionId data partition id.
      * @return BlobServiceClient
@@ -150,9 +179,13 @@ public class BlobServiceClientFactoryImpl implements IBlobServiceClientFactory {
      */
     private BlobServiceClientBuilder getBlobServiceClientBuilder(final String storageAccountEndpoint) {
         RequestRetryOptions requestRetryOptions = blobStoreRetryConfiguration.getRequestRetryOptions();
-        return new BlobServiceClientBuilder()
+        BlobServiceClientBuilder blobServiceClientBuilder = new BlobServiceClientBuilder()
                 .endpoint(storageAccountEndpoint)
                 .retryOptions(requestRetryOptions);
+        if (httpClientProvider != null) {
+            blobServiceClientBuilder.httpClient(httpClientProvider.getHttpClient());
+        }
+        return blobServiceClientBuilder;
     }
 
     /**
@@ -15,41 +15,91 @@
 package org.opengroup.osdu.azure.blobstorage;
 
 import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
 import com.azure.core.util.polling.LongRunningOperationStatus;
 import com.azure.core.util.polling.PollResponse;
 import com.azure.core.util.polling.SyncPoller;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.batch.BlobBatch;
+import com.azure.storage.blob.batch.BlobBatchClient;
 import com.azure.storage.blob.models.BlobCopyInfo;
+import com.azure.storage.blob.models.BlobDownloadContentResponse;
+import com.azure.storage.blob.models.BlobDownloadResponse;
 import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobHttpHeaders;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobListDetails;
 import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.CopyStatusType;
+import com.azure.storage.blob.models.FindBlobsOptions;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.models.TaggedBlobItem;
 import com.azure.storage.blob.models.UserDelegationKey;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.azure.storage.blob.options.BlockBlobSimpleUploadOptions;
 import com.azure.storage.blob.sas.BlobContainerSasPermission;
 import com.azure.storage.blob.sas.BlobSasPermission;
 import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import com.azure.storage.blob.specialized.BlobInputStream;
 import com.azure.storage.blob.specialized.BlockBlobClient;
+import com.azure.storage.common.ParallelTransferOptions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.io.CountingOutputStream;
 import org.apache.http.HttpStatus;
+import org.opengroup.osdu.azure.cache.UserDelegationKeyCache;
+import org.opengroup.osdu.azure.di.BlobCompressionConfiguration;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.azure.logging.DependencyLogger;
 import org.opengroup.osdu.azure.logging.DependencyPayload;
+import org.opengroup.osdu.azure.logging.LoggedListing;
 import org.opengroup.osdu.core.common.logging.ILogger;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.slf4j.helpers.MessageFormatter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * A simpler interface to interact with Azure blob storage.
@@ -84,6 +134,15 @@ import java.time.OffsetDateTime;
  *          String sasToken = blobStorage.getSasToken("dataPartitionId", "filePath", "containerName", expiryTime, permissions);
  *      }
  *
+ *      void streamingExample(WritableByteChannel channel, InputStream data, long length)
+ *      {
+ *          long bytesRead = blobStore.download("dataPartitionId", "filePath", "containerName", channel);
+ *          blobStore.upload("dataPartitionId", "filePath", "containerName", data, length);
+ *          try (InputStream in = blobStore.openInputStream("dataPartitionId", "filePath", "containerName")) {
+ *              // consume the blob without holding it in memory
+ *          }
+ *      }
+ *
  *      void copyFileExample()
  *      {
  *          BlobCopyInfo copyInfo = blobStore.copyFile("dataPartitionId", "filePath", "containerName", "sourceFilePath");
@@ -97,9 +156,20 @@ public class BlobStore {
 
     private static final int POLL_COMPLETION_TIMEOUT_IN_SECONDS = 10;
     private static final int BLOB_LIST_TIMEOUT_IN_SECONDS = 60;
+    private static final int PARALLEL_SIGNING_THRESHOLD = 32;
+    private static final int MAX_BATCH_SUB_REQUESTS = 256;
+    private static final int MAX_UNDELETE_CONCURRENCY = 8;
+    private static final int DEFAULT_MULTI_BLOB_CONCURRENCY = 16;
+    private static final long MAX_CACHED_CONTAINERS = 10_000;
+    private static final String COMPRESSION_METADATA = "compression";
+    private static final String UNCOMPRESSED_LENGTH_METADATA = "uncompressedlength";
     private IBlobServiceClientFactory blobServiceClientFactory;
     private ILogger logger;
     private DependencyLogger dependencyLogger;
+    private final UserDelegationKeyCache<UserDelegationKey> userDelegationKeyCache = UserDelegationKeyCache.shared(UserDelegationKey.class);
+    private BlobDiskCache diskCache;
+    private BlobCompressionConfiguration compression;
+    private Cache<String, Boolean> containerExistenceCache = buildContainerExistenceCache(Duration.ZERO);
 
     /**
      * Constructor to create BlobStore.
@@ -114,6 +184,42 @@ public class BlobStore {
         this.dependencyLogger = depLogger;
     }
 
+    /**
+     * Enables the local disk cache for blobs read from system storage. Cached blobs are revalidated with a
+     * conditional request on every read, so unchanged blobs are not downloaded again.
+     *
+     * @param cache disk cache to use, or null to disable caching
+     */
+    public void setDiskCache(final BlobDiskCache cache) {
+        this.diskCache = cache;
+    }
+
+    /**
+     * Enables gzip compression of content written through writeToStorageContainer and writeMany to the configured
+     * containers.
+     * Compressed blobs carry a gzip Content-Encoding and are decompressed transparently by readFromStorageContainer,
+     * readMany and openInputStream, whether or not compression is still enabled. Blobs without that Content-Encoding
+     * are returned as stored, even when they hold gzip data. download, downloadToFile and downloadToMappedBuffer
+     * transfer the stored bytes, so they return compressed blobs still compressed.
+     *
+     * @param compressionConfiguration compression settings, or null to disable compression
+     */
+    public void setCompression(final BlobCompressionConfiguration compressionConfiguration) {
+        this.compression = compressionConfiguration;
+    }
+
+    /**
+     * Sets how long checkIfBlobContainerExists remembers an existing container; nothing is cached until this is set
+     * to a positive duration. Missing containers are not cached, so a container created elsewhere is found on the next
+     * check. Containers created or deleted through this store update the cache immediately; a deletion made elsewhere
+     * becomes visible once the cached result expires.
+     *
+     * @param ttl time a result is cached, zero to disable caching
+     */
+    public void setContainerExistenceTtl(final Duration ttl) {
+        this.containerExistenceCache = buildContainerExistenceCache(ttl);
+    }
+
     /**
      * @param filePath        Path of file to be read.
      * @param dataPartitionId Data partition id
@@ -137,6 +243,9 @@ public class BlobStore {
             final String filePath,
             final String containerName) {
         BlobContainerClient blobContainerClient = getSystemBlobContainerClient(containerName);
+        if (diskCache != null) {
+            return this.readThroughDiskCache(filePath, containerName, blobContainerClient);
+        }
         return this.readFromStorageContainerInternal(filePath, containerName, blobContainerClient);
     }
 
@@ -181,291 +290,1418 @@ public class BlobStore {
     }
 
     /**
-     * @param filePath        Path of file to be written at.
-     * @param content         Content to be written in the file.
+     * Deletes several blobs through the Blob Batch API, sending up to 256 deletes per request.
+     *
      * @param dataPartitionId Data partition id
      * @param containerName   Name of the storage container
+     * @param filePaths       Paths of the blobs to delete
+     * @return result per blob, in the order of the given paths. Missing blobs are reported with status 404.
      */
-    public void writeToStorageContainer(
+    public List<BlobItemResult<Void>> deleteBlobs(
             final String dataPartitionId,
-            final String filePath,
-            final String content,
-            final String containerName) {
-        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        this.writeToStorageContainerInternal(filePath, content, containerName, blobContainerClient);
+            final String containerName,
+            final List<String> filePaths) {
+        BlobBatchClient blobBatchClient;
+        try {
+            blobBatchClient = blobServiceClientFactory.getBlobBatchClient(dataPartitionId);
+        } catch (AppException ex) {
+            throw handleBlobStoreException(ex.getError().getCode(), "Error creating blob batch client.", ex);
+        } catch (Exception ex) {
+            throw handleBlobStoreException(500, "Error creating blob batch client.", ex);
+        }
+        return this.deleteBlobsInternal(containerName, filePaths, blobBatchClient);
     }
 
     /**
-     * @param filePath        Path of file to be written at.
-     * @param content         Content to be written in the file.
+     * Restores the latest version of several deleted blobs concurrently. Only the versions of each exact path are
+     * read from the listing.
+     *
+     * @param dataPartitionId Data partition id
      * @param containerName   Name of the storage container
+     * @param filePaths       Paths of the blobs to restore
+     * @return result per blob holding the restored version id, in the order of the given paths.
      */
-    public void writeToStorageContainer(
-            final String filePath,
-            final String content,
-            final String containerName) {
-        BlobContainerClient blobContainerClient = getSystemBlobContainerClient(containerName);
-        this.writeToStorageContainerInternal(filePath, content, containerName, blobContainerClient);
+    public List<BlobItemResult<String>> undeleteBlobs(
+            final String dataPartitionId,
+            final String containerName,
+            final List<String> filePaths) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        return this.undeleteBlobsInternal(containerName, filePaths, blobContainerClient);
     }
 
     /**
+     * Reads several blobs concurrently.
+     *
      * @param dataPartitionId Data partition id
      * @param containerName   Name of the storage container
-     * @return boolean indicating whether the creation of the given container was successful or not.
-     *         Throws exception in case of failure.
+     * @param filePaths       Paths of the blobs to read
+     * @return result per blob holding its content, in the order of the given paths.
      */
-    public boolean createBlobContainer(
+    public List<BlobItemResult<String>> readMany(
             final String dataPartitionId,
-            final String containerName) {
-        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
-        try {
-            blobServiceClient.createBlobContainer(containerName);
-            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done creating container with name {}", containerName).getMessage());
-            return true;
-        } catch (BlobStorageException ex) {
-            throw handleBlobStorageException(500, "Failed to create blob container", ex);
+            final String containerName,
+            final List<String> filePaths) {
+        try (Stream<BlobItemResult<String>> results = readMany(dataPartitionId, containerName, filePaths, DEFAULT_MULTI_BLOB_CONCURRENCY, true)) {
+            return results.collect(Collectors.toList());
         }
     }
 
     /**
+     * Reads several blobs with bounded concurrency. A single dependency record covering all blobs is logged once
+     * the stream is consumed or closed.
+     *
      * @param dataPartitionId Data partition id
      * @param containerName   Name of the storage container
-     * @return boolean indicating whether the given container exists or not.
-     *
+     * @param filePaths       Paths of the blobs to read
+     * @param maxConcurrency  Maximum number of blobs read at the same time
+     * @param ordered         true to return results in the order of the given paths, false to return them as they complete
+     * @return stream of results holding the content of each blob.
      */
-    public boolean checkIfBlobContainerExists(
+    public Stream<BlobItemResult<String>> readMany(
             final String dataPartitionId,
-            final String containerName) {
+            final String containerName,
+            final List<String> filePaths,
+            final int maxConcurrency,
+            final boolean ordered) {
         BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        return blobContainerClient.exists();
+        return runMany("READ_MANY_FROM_STORAGE_CONTAINER", containerName, filePaths, maxConcurrency, ordered,
+                filePath -> readItem(filePath, blobContainerClient));
     }
 
     /**
+     * Writes several blobs concurrently, overwriting existing blobs.
+     *
      * @param dataPartitionId Data partition id
      * @param containerName   Name of the storage container
-     * @return boolean indicating whether the deletion of the given container was successful or not.
-     *         Throws exception in case of failure.
+     * @param contents        Content per blob path
+     * @return result per blob, in the iteration order of the given map.
      */
-    public boolean deleteBlobContainer(
+    public List<BlobItemResult<Void>> writeMany(
             final String dataPartitionId,
-            final String containerName) {
-        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
-        try {
-            blobServiceClient.deleteBlobContainer(containerName);
-            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done deleting container with name {}", containerName).getMessage());
-            return true;
-        } catch (BlobStorageException ex) {
-            throw handleBlobStorageException(500, "Failed to delete blob container", ex);
+            final String containerName,
+            final Map<String, byte[]> contents) {
+        try (Stream<BlobItemResult<Void>> results = writeMany(dataPartitionId, containerName, contents, DEFAULT_MULTI_BLOB_CONCURRENCY, true)) {
+            return results.collect(Collectors.toList());
         }
     }
 
     /**
+     * Writes several blobs with bounded concurrency, overwriting existing blobs. Content is compressed like
+     * writeToStorageContainer does when compression is enabled for the container. A single dependency record covering
+     * all blobs is logged once the stream is consumed or closed.
+     *
      * @param dataPartitionId Data partition id
-     * @param filePath        Path of file (blob) for which SAS token needs to be generated
      * @param containerName   Name of the storage container
-     * @param expiryTime      Time after which the token expires
-     * @param permissions     Permissions for the given blob
-     * @return SAS token for the given blob
+     * @param contents        Content per blob path
+     * @param maxConcurrency  Maximum number of blobs written at the same time
+     * @param ordered         true to return results in the iteration order of the map, false to return them as they complete
+     * @return stream of results per blob.
      */
-    public String getSasToken(final String dataPartitionId, final String filePath, final String containerName, final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+    public Stream<BlobItemResult<Void>> writeMany(
+            final String dataPartitionId,
+            final String containerName,
+            final Map<String, byte[]> contents,
+            final int maxConcurrency,
+            final boolean ordered) {
         BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
-        return generateSASToken(blockBlobClient, expiryTime, permissions);
+        return runMany("WRITE_MANY_TO_STORAGE_CONTAINER", containerName, new ArrayList<>(contents.keySet()), maxConcurrency, ordered,
+                filePath -> writeItem(filePath, contents.get(filePath), containerName, blobContainerClient));
     }
 
     /**
-     * This method is used to generate pre-signed url for file (blob).
-     * NOTE: Using the below method will require BlobServiceClient to be instantiated using StorageSharedKeyCredential
+     * @param filePath        Path of file to be written at.
+     * @param content         Content to be written in the file.
      * @param dataPartitionId Data partition id
-     * @param filePath        Path of file (blob) for which SAS token needs to be generated
      * @param containerName   Name of the storage container
-     * @param expiryTime      Time after which the token expires
-     * @param permissions     Permissions for the given blob
-     * @return Generates Pre-Signed URL for a given blob.
      */
-    public String generatePreSignedURL(final String dataPartitionId, final String filePath, final String containerName, final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+    public void writeToStorageContainer(
+            final String dataPartitionId,
+            final String filePath,
+            final String content,
+            final String containerName) {
         BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
-        return blockBlobClient.getBlobUrl() + "?" + generateSASToken(blockBlobClient, expiryTime, permissions);
+        this.writeToStorageContainerInternal(filePath, content, containerName, blobContainerClient, null);
     }
 
     /**
-     * This method is used to generate pre-signed url for file (blob). NOTE: Using
-     * the below method will require BlobServiceClient to be instantiated using
-     * StorageSharedKeyCredential
+     * Writes a blob, optionally creating the container when the write fails because the container does not exist.
+     * This replaces a checkIfBlobContainerExists round trip before each write with a single retry on the rare
+     * write that hits a missing container.
+     *
      * @param dataPartitionId Data partition id
-     * @param filePath Path of file (blob) for which SAS token needs to be generated
-     * @param fileName Name of the file
-     * @param contentType Content type of the file
-     * @param containerName Name of the storage container
-     * @param expiryTime Time after which the token expires
-     * @param permissions Permissions for the given blob
-     * @return Generates Pre-Signed URL for a given blob.
+     * @param filePath        Path of file to be written at.
+     * @param content         Content to be written in the file.
+     * @param containerName   Name of the storage container
+     * @param ensureContainer Whether to create a missing container and retry the write
      */
-    public String generatePreSignedURL(final String dataPartitionId, final String filePath, final String containerName,
-            final OffsetDateTime expiryTime, final BlobSasPermission permissions, final String fileName,
-            final String contentType) {
+    public void writeToStorageContainer(
+            final String dataPartitionId,
+            final String filePath,
+            final String content,
+            final String containerName,
+            final boolean ensureContainer) {
         BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
-        return blockBlobClient.getBlobUrl() + "?"
-                + generateSASToken(blockBlobClient, expiryTime, permissions, fileName, contentType);
+        try {
+            this.writeToStorageContainerInternal(filePath, content, containerName, blobContainerClient, null);
+        } catch (AppException ex) {
+            if (!ensureContainer || !isContainerNotFound(ex)) {
+                throw ex;
+            }
+            createContainerIfMissing(dataPartitionId, containerName, blobContainerClient);
+            this.writeToStorageContainerInternal(filePath, content, containerName, blobContainerClient, null);
+        }
     }
 
     /**
-     * This method is used to generate pre-signed url for blob container.
-     * NOTE: Using the below method will require BlobServiceClient to be instantiated using StorageSharedKeyCredential
-     * @param dataPartitionId data partition id
+     * Writes a blob together with its index tags in a single request, so the blob can be found by
+     * findBlobsByTags as soon as it exists.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be written at.
+     * @param content         Content to be written in the file.
      * @param containerName   Name of the storage container
-     * @param expiryTime      Time after which the token expires
-     * @param permissions     permissions for the given container
-     * @return Generates pre-signed url for a given container
+     * @param tags            Blob index tags, at most 10 per blob
      */
-    public String generatePreSignedURL(final String dataPartitionId, final String containerName, final OffsetDateTime expiryTime, final BlobContainerSasPermission permissions) {
+    public void writeToStorageContainer(
+            final String dataPartitionId,
+            final String filePath,
+            final String content,
+            final String containerName,
+            final Map<String, String> tags) {
         BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        return blobContainerClient.getBlobContainerUrl() + "?" + generateSASToken(blobContainerClient, expiryTime, permissions);
+        this.writeToStorageContainerInternal(filePath, content, containerName, blobContainerClient, tags);
     }
 
     /**
-     * Generates pre-signed url to a blob container using the user delegation key.
-     *
-     * @param dataPartitionId data partition id
+     * @param filePath        Path of file to be written at.
+     * @param content         Content to be written in the file.
      * @param containerName   Name of the storage container
-     * @param startTime       Time after which the token is activated (null in case of instant activation)
-     * @param expiryTime      Time after which the token expires
-     * @param permissions     permissions for the given container
-     * @return Generates pre-signed url for a given container
      */
-    public String generatePreSignedUrlWithUserDelegationSas(final String dataPartitionId, final String containerName, final OffsetDateTime startTime, final OffsetDateTime expiryTime, final BlobContainerSasPermission permissions) {
-        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
-        UserDelegationKey userDelegationKey = blobServiceClient.getUserDelegationKey(startTime, expiryTime);
-        BlobServiceSasSignatureValues blobServiceSasSignatureValues = new BlobServiceSasSignatureValues(expiryTime, permissions).setStartTime(startTime);
-
-        final long start = System.currentTimeMillis();
-        String sasToken = blobContainerClient.generateUserDelegationSas(blobServiceSasSignatureValues, userDelegationKey);
-        final long timeTaken = System.currentTimeMillis() - start;
-
-        logDependency("GENERATE_PRESIGNED_URL_USER_DELEGATION_SAS", blobContainerClient.getBlobContainerName(), blobContainerClient.getBlobContainerUrl(), timeTaken, String.valueOf(HttpStatus.SC_OK), true);
-        return blobContainerClient.getBlobContainerUrl() + "?" + sasToken;
+    public void writeToStorageContainer(
+            final String filePath,
+            final String content,
+            final String containerName) {
+        BlobContainerClient blobContainerClient = getSystemBlobContainerClient(containerName);
+        this.writeToStorageContainerInternal(filePath, content, containerName, blobContainerClient, null);
     }
 
     /**
-     * Generates pre-signed url to a blob block using the user delegation key.
+     * Opens a stream over the content of a blob. The content is fetched in chunks as the stream is read, so the
+     * blob is never held in memory as a whole.
      *
-     * @param dataPartitionId data partition id
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be read.
      * @param containerName   Name of the storage container
-     * @param filePath        file Path
-     * @param expiryTime      Time after which the token expires
-     * @param permissions     permissions for the given container
-     * @return Generates pre-signed url for a given container
+     * @return stream over the content of the blob; the caller must close it.
      */
-    public String generatePreSignedUrlWithUserDelegationSas(final String dataPartitionId, final String containerName, final String filePath, final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+    public InputStream openInputStream(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName) {
         BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
-        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
-
-        OffsetDateTime startTime = OffsetDateTime.now();
-        UserDelegationKey userDelegationKey = blobServiceClient.getUserDelegationKey(startTime, expiryTime);
-        BlobServiceSasSignatureValues blobServiceSasSignatureValues = new BlobServiceSasSignatureValues(expiryTime, permissions).setStartTime(startTime);
-
-        final long start = System.currentTimeMillis();
-        String sasToken = blockBlobClient.generateUserDelegationSas(blobServiceSasSignatureValues, userDelegationKey);
-        final long timeTaken = System.currentTimeMillis() - start;
-
-        logDependency("GENERATE_PRESIGNED_URL_USER_DELEGATION_SAS", blockBlobClient.getBlobName(), blockBlobClient.getBlobUrl(), timeTaken, String.valueOf(HttpStatus.SC_OK), true);
-        return blockBlobClient.getBlobUrl() + "?" + sasToken;
+        return this.openInputStreamInternal(filePath, containerName, blobContainerClient);
     }
 
     /**
-     * This method is used to generate pre-signed url for file (blob). NOTE: Using
-     * the below method will require BlobServiceClient to be instantiated using
-     * the user delegation key.
-     * @param dataPartitionId Data partition id
-     * @param filePath Path of file (blob) for which SAS token needs to be generated
-     * @param fileName Name of the file
-     * @param contentType Content type of the file
+     * @param filePath      Path of file to be read.
      * @param containerName Name of the storage container
-     * @param expiryTime Time after which the token expires
-     * @param permissions Permissions for the given blob
-     * @return Generates Pre-Signed URL for a given blob.
+     * @return stream over the content of the blob in the system storage account; the caller must close it.
      */
-    public String generatePreSignedUrlWithUserDelegationSas(final String dataPartitionId, final String filePath, final String containerName,
-                                       final OffsetDateTime expiryTime, final BlobSasPermission permissions, final String fileName,
-                                       final String contentType) {
-        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
-        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
-
-        OffsetDateTime startTime = OffsetDateTime.now();
-        UserDelegationKey userDelegationKey = blobServiceClient.getUserDelegationKey(startTime, expiryTime);
-        return blockBlobClient.getBlobUrl() + "?"
-                + generateSASTokenWithUserDelegationKey(blockBlobClient, expiryTime, permissions, fileName, contentType, userDelegationKey);
+    public InputStream openInputStream(
+            final String filePath,
+            final String containerName) {
+        BlobContainerClient blobContainerClient = getSystemBlobContainerClient(containerName);
+        return this.openInputStreamInternal(filePath, containerName, blobContainerClient);
     }
 
     /**
-     * Method is used to copy a file specified at Source URL to the provided destination.
+     * Opens a stream that uploads what is written to it as blocks, overwriting any existing blob. The blob is
+     * committed when the stream is closed; storage failures surface as {@link IOException} from write or close.
      *
      * @param dataPartitionId Data partition id
-     * @param filePath        Path of file (blob) to which the file has to be copied
+     * @param filePath        Path of file to be written at.
      * @param containerName   Name of the storage container
-     * @param sourceUrl       URL of the file from where the file contents have to be copied
-     * @return Blob Copy Final Result.
+     * @return stream writing to the blob; the caller must close it.
      */
-    public BlobCopyInfo copyFile(final String dataPartitionId, final String filePath, final String containerName,
-                                 final String sourceUrl) {
+    public OutputStream openOutputStream(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName) {
         BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
-        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
-        final long start = System.currentTimeMillis();
-        SyncPoller<BlobCopyInfo, Void> result = blockBlobClient.beginCopy(sourceUrl, Duration.ofSeconds(1));
-        BlobCopyInfo blobCopyInfo = result.waitForCompletion().getValue();
-        final long timeTaken = System.currentTimeMillis() - start;
-        final String target = MessageFormatter.arrayFormat("{}:{}/{}", new String[]{dataPartitionId, containerName, filePath}).getMessage();
-        CopyStatusType status = blobCopyInfo == null ? CopyStatusType.FAILED : blobCopyInfo.getCopyStatus();
-        logDependency("COPY_FILE", sourceUrl, target, timeTaken, status.toString(), status == CopyStatusType.SUCCESS);
+        return this.openOutputStreamInternal(filePath, containerName, blobContainerClient);
+    }
 
-        return blobCopyInfo;
+    /**
+     * @param filePath      Path of file to be written at.
+     * @param containerName Name of the storage container
+     * @return stream writing to the blob in the system storage account; the caller must close it.
+     */
+    public OutputStream openOutputStream(
+            final String filePath,
+            final String containerName) {
+        BlobContainerClient blobContainerClient = getSystemBlobContainerClient(containerName);
+        return this.openOutputStreamInternal(filePath, containerName, blobContainerClient);
     }
 
     /**
-     * @param filePath              Path of file to be read.
-     * @param containerName         Name of the storage container
-     * @param blobContainerClient   Blob container client
-     * @return the content of file with provided file path.
+     * Streams the stored content of a blob into a channel; compressed blobs are not decompressed.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be read.
+     * @param containerName   Name of the storage container
+     * @param channel         Channel receiving the content; it is not closed.
+     * @return number of bytes written to the channel.
      */
-    private String readFromStorageContainerInternal(
+    public long download(
+            final String dataPartitionId,
             final String filePath,
             final String containerName,
-            final BlobContainerClient blobContainerClient) {
+            final WritableByteChannel channel) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        return this.downloadInternal(filePath, containerName, blobContainerClient, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Uploads the content of a stream, overwriting any existing blob. Content larger than the maximum single upload
+     * size is read in blocks that are staged concurrently and committed at the end; transient failures are retried
+     * per block.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be written at.
+     * @param containerName   Name of the storage container
+     * @param data            Content to upload; it is not closed.
+     * @param length          Exact number of bytes in the content
+     */
+    public void upload(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName,
+            final InputStream data,
+            final long length) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        this.uploadInternal(filePath, containerName, blobContainerClient, data, length);
+    }
+
+    /**
+     * Uploads the content of a channel, overwriting any existing blob. Content larger than the maximum single upload
+     * size is read in blocks that are staged concurrently and committed at the end; transient failures are retried
+     * per block.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be written at.
+     * @param containerName   Name of the storage container
+     * @param channel         Content to upload; it is not closed.
+     * @param length          Exact number of bytes in the content
+     */
+    public void upload(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName,
+            final ReadableByteChannel channel,
+            final long length) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        this.uploadInternal(filePath, containerName, blobContainerClient, Channels.newInputStream(channel), length);
+    }
+
+    /**
+     * Uploads a local file, overwriting any existing blob. Files larger than the maximum single upload size are split
+     * into blocks that are staged concurrently and committed at the end; transient failures are retried per block.
+     * Repeating an interrupted upload of the same file re-stages only the blocks that are missing.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be written at.
+     * @param containerName   Name of the storage container
+     * @param source          Local file to upload
+     * @param transferOptions Block size, number of concurrent requests and maximum single upload size;
+     *                        defaults are used when null.
+     */
+    public void uploadFile(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName,
+            final Path source,
+            final ParallelTransferOptions transferOptions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        this.uploadFileInternal(filePath, containerName, blobContainerClient, source, transferOptions);
+    }
+
+    /**
+     * Downloads a blob into a local file, fetching byte ranges concurrently. The file is created or truncated.
+     * The stored bytes are written as they are; compressed blobs are not decompressed.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be read.
+     * @param containerName   Name of the storage container
+     * @param target          Local file receiving the content
+     * @param transferOptions Range size and number of concurrent requests; defaults are used when null.
+     * @return number of bytes downloaded.
+     */
+    public long downloadToFile(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName,
+            final Path target,
+            final ParallelTransferOptions transferOptions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        return this.downloadToFileInternal(filePath, containerName, blobContainerClient, target, transferOptions);
+    }
+
+    /**
+     * Downloads a blob into a memory-mapped local file, fetching byte ranges concurrently. The file is created or
+     * truncated and stays mapped for as long as the returned buffer is reachable. The stored bytes are mapped as they
+     * are; compressed blobs are not decompressed.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file to be read.
+     * @param containerName   Name of the storage container
+     * @param target          Local file backing the mapping
+     * @param transferOptions Range size and number of concurrent requests; defaults are used when null.
+     * @return buffer mapping the downloaded content. Blobs larger than 2GB can not be mapped and are rejected.
+     */
+    public MappedByteBuffer downloadToMappedBuffer(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName,
+            final Path target,
+            final ParallelTransferOptions transferOptions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        return this.downloadToMappedBufferInternal(filePath, containerName, blobContainerClient, target, transferOptions);
+    }
+
+    /**
+     * Lists the blobs under a prefix as a lazily paged stream; pages are fetched while the stream is consumed.
+     * Close the stream when it is not consumed to the end.
+     *
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @param prefix          Prefix of the blob names, null for the whole container
+     * @param options         Page size and details to include, null for the defaults. Its prefix is ignored.
+     * @return stream of blobs in name order.
+     */
+    public Stream<BlobItem> listBlobs(
+            final String dataPartitionId,
+            final String containerName,
+            final String prefix,
+            final ListBlobsOptions options) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        ListBlobsOptions listBlobsOptions = withPrefix(options, prefix);
+        Flux<BlobItem> blobItems = Flux.defer(() -> Flux.fromIterable(
+                blobContainerClient.listBlobs(listBlobsOptions, Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS))));
+        return toLoggedStream(blobItems, "LIST_BLOBS", "Failed to list blobs", containerName, prefix);
+    }
+
+    /**
+     * Lists one page of blobs under a prefix, resuming from a continuation token.
+     *
+     * @param dataPartitionId   Data partition id
+     * @param containerName     Name of the storage container
+     * @param prefix            Prefix of the blob names, null for the whole container
+     * @param options           Page size and details to include, null for the defaults. Its prefix is ignored.
+     * @param continuationToken Token returned with the previous page, null for the first page
+     * @return page of blobs; its continuation token is null on the last page.
+     */
+    public PagedResponse<BlobItem> listBlobsPage(
+            final String dataPartitionId,
+            final String containerName,
+            final String prefix,
+            final ListBlobsOptions options,
+            final String continuationToken) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        ListBlobsOptions listBlobsOptions = withPrefix(options, prefix);
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            return blobContainerClient.listBlobs(listBlobsOptions, continuationToken, Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS))
+                    .iterableByPage()
+                    .iterator()
+                    .next();
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to list blobs", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, prefix}).getMessage();
+            logDependency("LIST_BLOBS_PAGE", dependencyData, containerName, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * Lists the blobs under a prefix by splitting the namespace at the first delimiter below the prefix and listing
+     * the resulting virtual directories concurrently. Blobs are emitted as they arrive, so the stream is not in
+     * name order. Close the stream when it is not consumed to the end.
+     *
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @param prefix          Prefix of the blob names, null for the whole container
+     * @param options         Page size and details to include, null for the defaults. Its prefix is ignored.
+     * @param delimiter       Delimiter of virtual directories, usually "/"
+     * @param maxConcurrency  Maximum number of virtual directories listed at the same time
+     * @return stream of blobs in no particular order.
+     */
+    public Stream<BlobItem> listBlobsParallel(
+            final String dataPartitionId,
+            final String containerName,
+            final String prefix,
+            final ListBlobsOptions options,
+            final String delimiter,
+            final int maxConcurrency) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        final Duration timeout = Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS);
+        Flux<BlobItem> blobItems = Flux.defer(() -> Flux.fromIterable(
+                        blobContainerClient.listBlobsByHierarchy(delimiter, withPrefix(options, prefix), timeout)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(blobItem -> Boolean.TRUE.equals(blobItem.isPrefix())
+                        ? Flux.defer(() -> Flux.fromIterable(blobContainerClient.listBlobs(withPrefix(options, blobItem.getName()), timeout)))
+                                .subscribeOn(Schedulers.boundedElastic())
+                        : Flux.just(blobItem), maxConcurrency);
+        return toLoggedStream(blobItems, "LIST_BLOBS", "Failed to list blobs", containerName, prefix);
+    }
+
+    /**
+     * Replaces the index tags of a blob.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of the blob
+     * @param containerName   Name of the storage container
+     * @param tags            Blob index tags, at most 10 per blob
+     */
+    public void setBlobTags(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName,
+            final Map<String, String> tags) {
+        BlockBlobClient blockBlobClient = getBlobContainerClient(dataPartitionId, containerName).getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            blockBlobClient.setTags(tags);
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to set blob tags", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("SET_BLOB_TAGS", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of the blob
+     * @param containerName   Name of the storage container
+     * @return index tags of the blob.
+     */
+    public Map<String, String> getBlobTags(
+            final String dataPartitionId,
+            final String filePath,
+            final String containerName) {
+        BlockBlobClient blockBlobClient = getBlobContainerClient(dataPartitionId, containerName).getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            return blockBlobClient.getTags();
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to get blob tags", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("GET_BLOB_TAGS", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * Finds the blobs of all containers of the partition's storage account whose index tags match a filter, as a
+     * lazily paged stream. Close the stream when it is not consumed to the end.
+     *
+     * @param dataPartitionId Data partition id
+     * @param tagFilter       Tag filter expression, e.g. {@code "kind" = 'wks' AND "version" >= '2'}
+     * @return stream of matching blobs.
+     */
+    public Stream<TaggedBlobItem> findBlobsByTags(
+            final String dataPartitionId,
+            final String tagFilter) {
+        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
+        Flux<TaggedBlobItem> blobItems = Flux.defer(() -> Flux.fromIterable(blobServiceClient.findBlobsByTags(
+                new FindBlobsOptions(tagFilter), Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS), Context.NONE)));
+        return toLoggedStream(blobItems, "FIND_BLOBS_BY_TAGS", "Failed to find blobs by tags", dataPartitionId, tagFilter);
+    }
+
+    /**
+     * Finds the blobs of a container whose index tags match a filter, as a lazily paged stream. Close the stream
+     * when it is not consumed to the end.
+     *
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @param tagFilter       Tag filter expression, e.g. {@code "kind" = 'wks'}
+     * @return stream of matching blobs.
+     */
+    public Stream<TaggedBlobItem> findBlobsByTags(
+            final String dataPartitionId,
+            final String containerName,
+            final String tagFilter) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        Flux<TaggedBlobItem> blobItems = Flux.defer(() -> Flux.fromIterable(blobContainerClient.findBlobsByTags(
+                new FindBlobsOptions(tagFilter), Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS), Context.NONE)));
+        return toLoggedStream(blobItems, "FIND_BLOBS_BY_TAGS", "Failed to find blobs by tags", containerName, tagFilter);
+    }
+
+    /**
+     * Finds one page of blobs whose index tags match a filter, resuming from a continuation token.
+     *
+     * @param dataPartitionId    Data partition id
+     * @param containerName      Name of the storage container, null to search all containers of the account
+     * @param tagFilter          Tag filter expression
+     * @param maxResultsPerPage  Maximum number of blobs in the page, null for the service default
+     * @param continuationToken  Token returned with the previous page, null for the first page
+     * @return page of matching blobs; its continuation token is null on the last page.
+     */
+    public PagedResponse<TaggedBlobItem> findBlobsByTagsPage(
+            final String dataPartitionId,
+            final String containerName,
+            final String tagFilter,
+            final Integer maxResultsPerPage,
+            final String continuationToken) {
+        FindBlobsOptions options = new FindBlobsOptions(tagFilter).setMaxResultsPerPage(maxResultsPerPage);
+        final Duration timeout = Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS);
+        final String target = containerName == null ? dataPartitionId : containerName;
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            PagedIterable<TaggedBlobItem> blobItems = containerName == null
+                    ? blobServiceClientFactory.getBlobServiceClient(dataPartitionId).findBlobsByTags(options, timeout, Context.NONE)
+                    : getBlobContainerClient(dataPartitionId, containerName).findBlobsByTags(options, timeout, Context.NONE);
+            return blobItems.iterableByPage(continuationToken).iterator().next();
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to find blobs by tags", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{target, tagFilter}).getMessage();
+            logDependency("FIND_BLOBS_BY_TAGS_PAGE", dependencyData, target, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return boolean indicating whether the creation of the given container was successful or not.
+     *         Throws exception in case of failure.
+     */
+    public boolean createBlobContainer(
+            final String dataPartitionId,
+            final String containerName) {
+        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
+        try {
+            blobServiceClient.createBlobContainer(containerName);
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done creating container with name {}", containerName).getMessage());
+            containerExistenceCache.put(getContainerKey(dataPartitionId, containerName), true);
+            return true;
+        } catch (BlobStorageException ex) {
+            throw handleBlobStorageException(500, "Failed to create blob container", ex);
+        }
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return boolean indicating whether the given container exists or not. Only existing containers are cached.
+     *
+     */
+    public boolean checkIfBlobContainerExists(
+            final String dataPartitionId,
+            final String containerName) {
+        final String containerKey = getContainerKey(dataPartitionId, containerName);
+        Boolean cached = containerExistenceCache.getIfPresent(containerKey);
+        if (cached != null) {
+            return cached;
+        }
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        boolean exists = blobContainerClient.exists();
+        if (exists) {
+            containerExistenceCache.put(containerKey, true);
+        }
+        return exists;
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return boolean indicating whether the deletion of the given container was successful or not.
+     *         Throws exception in case of failure.
+     */
+    public boolean deleteBlobContainer(
+            final String dataPartitionId,
+            final String containerName) {
+        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
+        containerExistenceCache.invalidate(getContainerKey(dataPartitionId, containerName));
+        try {
+            blobServiceClient.deleteBlobContainer(containerName);
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done deleting container with name {}", containerName).getMessage());
+            return true;
+        } catch (BlobStorageException ex) {
+            throw handleBlobStorageException(500, "Failed to delete blob container", ex);
+        }
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file (blob) for which SAS token needs to be generated
+     * @param containerName   Name of the storage container
+     * @param expiryTime      Time after which the token expires
+     * @param permissions     Permissions for the given blob
+     * @return SAS token for the given blob
+     */
+    public String getSasToken(final String dataPartitionId, final String filePath, final String containerName, final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        return generateSASToken(blockBlobClient, expiryTime, permissions);
+    }
+
+    /**
+     * This method is used to generate pre-signed url for file (blob).
+     * NOTE: Using the below method will require BlobServiceClient to be instantiated using StorageSharedKeyCredential
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file (blob) for which SAS token needs to be generated
+     * @param containerName   Name of the storage container
+     * @param expiryTime      Time after which the token expires
+     * @param permissions     Permissions for the given blob
+     * @return Generates Pre-Signed URL for a given blob.
+     */
+    public String generatePreSignedURL(final String dataPartitionId, final String filePath, final String containerName, final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        return blockBlobClient.getBlobUrl() + "?" + generateSASToken(blockBlobClient, expiryTime, permissions);
+    }
+
+    /**
+     * This method is used to generate pre-signed url for file (blob). NOTE: Using
+     * the below method will require BlobServiceClient to be instantiated using
+     * StorageSharedKeyCredential
+     * @param dataPartitionId Data partition id
+     * @param filePath Path of file (blob) for which SAS token needs to be generated
+     * @param fileName Name of the file
+     * @param contentType Content type of the file
+     * @param containerName Name of the storage container
+     * @param expiryTime Time after which the token expires
+     * @param permissions Permissions for the given blob
+     * @return Generates Pre-Signed URL for a given blob.
+     */
+    public String generatePreSignedURL(final String dataPartitionId, final String filePath, final String containerName,
+            final OffsetDateTime expiryTime, final BlobSasPermission permissions, final String fileName,
+            final String contentType) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        return blockBlobClient.getBlobUrl() + "?"
+                + generateSASToken(blockBlobClient, expiryTime, permissions, fileName, contentType);
+    }
+
+    /**
+     * This method is used to generate pre-signed url for blob container.
+     * NOTE: Using the below method will require BlobServiceClient to be instantiated using StorageSharedKeyCredential
+     * @param dataPartitionId data partition id
+     * @param containerName   Name of the storage container
+     * @param expiryTime      Time after which the token expires
+     * @param permissions     permissions for the given container
+     * @return Generates pre-signed url for a given container
+     */
+    public String generatePreSignedURL(final String dataPartitionId, final String containerName, final OffsetDateTime expiryTime, final BlobContainerSasPermission permissions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        return blobContainerClient.getBlobContainerUrl() + "?" + generateSASToken(blobContainerClient, expiryTime, permissions);
+    }
+
+    /**
+     * Generates pre-signed url to a blob container using the user delegation key.
+     *
+     * @param dataPartitionId data partition id
+     * @param containerName   Name of the storage container
+     * @param startTime       Time after which the token is activated (null in case of instant activation)
+     * @param expiryTime      Time after which the token expires
+     * @param permissions     permissions for the given container
+     * @return Generates pre-signed url for a given container
+     */
+    public String generatePreSignedUrlWithUserDelegationSas(final String dataPartitionId, final String containerName, final OffsetDateTime startTime, final OffsetDateTime expiryTime, final BlobContainerSasPermission permissions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
+        UserDelegationKey userDelegationKey = userDelegationKeyCache.get(blobServiceClient.getAccountUrl(), startTime, expiryTime, blobServiceClient::getUserDelegationKey);
+        BlobServiceSasSignatureValues blobServiceSasSignatureValues = new BlobServiceSasSignatureValues(expiryTime, permissions).setStartTime(startTime);
+
+        final long start = System.currentTimeMillis();
+        String sasToken = blobContainerClient.generateUserDelegationSas(blobServiceSasSignatureValues, userDelegationKey);
+        final long timeTaken = System.currentTimeMillis() - start;
+
+        logDependency("GENERATE_PRESIGNED_URL_USER_DELEGATION_SAS", blobContainerClient.getBlobContainerName(), blobContainerClient.getBlobContainerUrl(), timeTaken, String.valueOf(HttpStatus.SC_OK), true);
+        return blobContainerClient.getBlobContainerUrl() + "?" + sasToken;
+    }
+
+    /**
+     * Generates pre-signed url to a blob block using the user delegation key.
+     *
+     * @param dataPartitionId data partition id
+     * @param containerName   Name of the storage container
+     * @param filePath        file Path
+     * @param expiryTime      Time after which the token expires
+     * @param permissions     permissions for the given container
+     * @return Generates pre-signed url for a given container
+     */
+    public String generatePreSignedUrlWithUserDelegationSas(final String dataPartitionId, final String containerName, final String filePath, final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+
+        OffsetDateTime startTime = OffsetDateTime.now();
+        UserDelegationKey userDelegationKey = userDelegationKeyCache.get(blobServiceClient.getAccountUrl(), startTime, expiryTime, blobServiceClient::getUserDelegationKey);
+        BlobServiceSasSignatureValues blobServiceSasSignatureValues = new BlobServiceSasSignatureValues(expiryTime, permissions).setStartTime(startTime);
+
+        final long start = System.currentTimeMillis();
+        String sasToken = blockBlobClient.generateUserDelegationSas(blobServiceSasSignatureValues, userDelegationKey);
+        final long timeTaken = System.currentTimeMillis() - start;
+
+        logDependency("GENERATE_PRESIGNED_URL_USER_DELEGATION_SAS", blockBlobClient.getBlobName(), blockBlobClient.getBlobUrl(), timeTaken, String.valueOf(HttpStatus.SC_OK), true);
+        return blockBlobClient.getBlobUrl() + "?" + sasToken;
+    }
+
+    /**
+     * This method is used to generate pre-signed url for file (blob). NOTE: Using
+     * the below method will require BlobServiceClient to be instantiated using
+     * the user delegation key.
+     * @param dataPartitionId Data partition id
+     * @param filePath Path of file (blob) for which SAS token needs to be generated
+     * @param fileName Name of the file
+     * @param contentType Content type of the file
+     * @param containerName Name of the storage container
+     * @param expiryTime Time after which the token expires
+     * @param permissions Permissions for the given blob
+     * @return Generates Pre-Signed URL for a given blob.
+     */
+    public String generatePreSignedUrlWithUserDelegationSas(final String dataPartitionId, final String filePath, final String containerName,
+                                       final OffsetDateTime expiryTime, final BlobSasPermission permissions, final String fileName,
+                                       final String contentType) {
+        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+
+        OffsetDateTime startTime = OffsetDateTime.now();
+        UserDelegationKey userDelegationKey = userDelegationKeyCache.get(blobServiceClient.getAccountUrl(), startTime, expiryTime, blobServiceClient::getUserDelegationKey);
+        return blockBlobClient.getBlobUrl() + "?"
+                + generateSASTokenWithUserDelegationKey(blockBlobClient, expiryTime, permissions, fileName, contentType, userDelegationKey);
+    }
+
+    /**
+     * Generates pre-signed URLs for several blobs of one container. The container client is resolved once, the blobs
+     * are signed in parallel and a single dependency record covers the whole batch.
+     *
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @param filePaths       Paths of the blobs
+     * @param expiryTime      Time after which the tokens expire
+     * @param permissions     Permissions for the given blobs
+     * @return Pre-signed URL per blob path, in the order of the given paths. A path given more than once has one entry.
+     */
+    public Map<String, String> generatePreSignedURLs(final String dataPartitionId, final String containerName, final List<String> filePaths,
+                                                     final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlobServiceSasSignatureValues blobServiceSasSignatureValues = new BlobServiceSasSignatureValues(expiryTime, permissions);
+        return generatePreSignedURLsInternal("GENERATE_PRESIGNED_URLS", blobContainerClient, filePaths,
+                blockBlobClient -> blockBlobClient.generateSas(blobServiceSasSignatureValues));
+    }
+
+    /**
+     * Generates user delegation pre-signed URLs for several blobs of one container. The container client and the
+     * user delegation key are resolved once, the blobs are signed in parallel and a single dependency record covers
+     * the whole batch.
+     *
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @param filePaths       Paths of the blobs
+     * @param expiryTime      Time after which the tokens expire
+     * @param permissions     Permissions for the given blobs
+     * @return Pre-signed URL per blob path, in the order of the given paths. A path given more than once has one entry.
+     */
+    public Map<String, String> generatePreSignedUrlsWithUserDelegationSas(final String dataPartitionId, final String containerName, final List<String> filePaths,
+                                                                          final OffsetDateTime expiryTime, final BlobSasPermission permissions) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlobServiceClient blobServiceClient = blobServiceClientFactory.getBlobServiceClient(dataPartitionId);
+        OffsetDateTime startTime = OffsetDateTime.now();
+        UserDelegationKey userDelegationKey = userDelegationKeyCache.get(blobServiceClient.getAccountUrl(), startTime, expiryTime, blobServiceClient::getUserDelegationKey);
+        BlobServiceSasSignatureValues blobServiceSasSignatureValues = new BlobServiceSasSignatureValues(expiryTime, permissions).setStartTime(startTime);
+        return generatePreSignedURLsInternal("GENERATE_PRESIGNED_URLS_USER_DELEGATION_SAS", blobContainerClient, filePaths,
+                blockBlobClient -> blockBlobClient.generateUserDelegationSas(blobServiceSasSignatureValues, userDelegationKey));
+    }
+
+    /**
+     * Method is used to copy a file specified at Source URL to the provided destination.
+     *
+     * @param dataPartitionId Data partition id
+     * @param filePath        Path of file (blob) to which the file has to be copied
+     * @param containerName   Name of the storage container
+     * @param sourceUrl       URL of the file from where the file contents have to be copied
+     * @return Blob Copy Final Result.
+     */
+    public BlobCopyInfo copyFile(final String dataPartitionId, final String filePath, final String containerName,
+                                 final String sourceUrl) {
+        BlobContainerClient blobContainerClient = getBlobContainerClient(dataPartitionId, containerName);
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        SyncPoller<BlobCopyInfo, Void> result = blockBlobClient.beginCopy(sourceUrl, Duration.ofSeconds(1));
+        BlobCopyInfo blobCopyInfo = result.waitForCompletion().getValue();
+        final long timeTaken = System.currentTimeMillis() - start;
+        final String target = MessageFormatter.arrayFormat("{}:{}/{}", new String[]{dataPartitionId, containerName, filePath}).getMessage();
+        CopyStatusType status = blobCopyInfo == null ? CopyStatusType.FAILED : blobCopyInfo.getCopyStatus();
+        logDependency("COPY_FILE", sourceUrl, target, timeTaken, status.toString(), status == CopyStatusType.SUCCESS);
+
+        return blobCopyInfo;
+    }
+
+    /**
+     * @param containerName Name of the storage container
+     * @param length        Uncompressed content length
+     * @return whether content written to the container is compressed
+     */
+    private boolean shouldCompress(final String containerName, final long length) {
+        return compression != null && compression.isEnabled()
+                && compression.getContainers().contains(containerName)
+                && length >= compression.getMinSizeBytes();
+    }
+
+    /**
+     * Uploads content with the options plain uploads do not need: gzip compression, marked with a gzip
+     * Content-Encoding and the original length, and blob index tags.
+     *
+     * @param blockBlobClient Block blob client
+     * @param content         Uncompressed content
+     * @param compress        Whether to compress the content
+     * @param tags            Blob index tags, null for none
+     * @throws IOException when compression fails
+     */
+    private void uploadWithOptions(final BlockBlobClient blockBlobClient, final byte[] content, final boolean compress,
+                                   final Map<String, String> tags) throws IOException {
+        byte[] data = content;
+        BlobHttpHeaders headers = null;
+        Map<String, String> metadata = null;
+        if (compress) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(content);
+            }
+            data = compressed.toByteArray();
+            headers = new BlobHttpHeaders().setContentEncoding(BlobContentDecoder.GZIP_ENCODING);
+            metadata = new HashMap<>();
+            metadata.put(COMPRESSION_METADATA, BlobContentDecoder.GZIP_ENCODING);
+            metadata.put(UNCOMPRESSED_LENGTH_METADATA, String.valueOf(content.length));
+        }
+        try (ByteArrayInputStream dataStream = new ByteArrayInputStream(data)) {
+            blockBlobClient.uploadWithResponse(new BlockBlobSimpleUploadOptions(dataStream, data.length)
+                    .setHeaders(headers)
+                    .setMetadata(metadata)
+                    .setTags(tags), null, Context.NONE);
+        }
+    }
+
+    /**
+     * Reads a blob through the disk cache, sending the cached ETag as If-None-Match so an unchanged blob is served
+     * from disk after a 304 response.
+     *
+     * @param filePath            Path of file to be read.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @return the content of file with provided file path.
+     */
+    private String readThroughDiskCache(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient) {
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final String cacheKey = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+        final BlobDiskCache.CachedBlob cached = diskCache.get(cacheKey);
+        final BlobRequestConditions conditions = cached == null ? null : new BlobRequestConditions().setIfNoneMatch(cached.getETag());
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            ByteArrayOutputStream downloadStream = new ByteArrayOutputStream();
+            BlobDownloadResponse response = blockBlobClient.downloadStreamWithResponse(downloadStream, null, null, conditions, false, null, Context.NONE);
+            if (cached != null && response.getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                statusCode = HttpStatus.SC_NOT_MODIFIED;
+                return BlobContentDecoder.decode(cached.getContent(), cached::getContentEncoding);
+            }
+            byte[] content = downloadStream.toByteArray();
+            diskCache.put(cacheKey, response.getDeserializedHeaders().getETag(), response.getDeserializedHeaders().getContentEncoding(), content);
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done reading from {}", filePath).getMessage());
+            return BlobContentDecoder.decode(ByteBuffer.wrap(content), () -> response.getDeserializedHeaders().getContentEncoding());
+        } catch (BlobStorageException ex) {
+            if (cached != null && ex.getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                statusCode = HttpStatus.SC_NOT_MODIFIED;
+                return BlobContentDecoder.decode(cached.getContent(), cached::getContentEncoding);
+            }
+            statusCode = ex.getStatusCode();
+            if (statusCode == HttpStatus.SC_NOT_FOUND) {
+                diskCache.invalidate(cacheKey);
+            }
+            throw handleBlobStorageException(statusCode, "Failed to read specified blob", ex);
+        } catch (IOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, MessageFormatter.format("Malformed document for item with name={}", filePath).getMessage(), ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("READ_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode),
+                    statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_NOT_MODIFIED);
+        }
+    }
+
+    /**
+     * @param filePath              Path of file to be read.
+     * @param containerName         Name of the storage container
+     * @param blobContainerClient   Blob container client
+     * @return the content of file with provided file path.
+     */
+    private String readFromStorageContainerInternal(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient) {
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try (ByteArrayOutputStream downloadStream = new ByteArrayOutputStream()) {
+            BlobDownloadResponse response = blockBlobClient.downloadStreamWithResponse(downloadStream, null, null, null, false, null, Context.NONE);
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done reading from {}", filePath).getMessage());
+            return BlobContentDecoder.decode(ByteBuffer.wrap(downloadStream.toByteArray()), () -> response.getDeserializedHeaders().getContentEncoding());
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to read specified blob", ex);
+        } catch (UnsupportedEncodingException ex) {
+            statusCode = HttpStatus.SC_BAD_REQUEST;
+            throw handleBlobStoreException(400, MessageFormatter.format("Encoding was not correct for item with name={}", filePath).getMessage(), ex);
+        } catch (IOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, MessageFormatter.format("Malformed document for item with name={}", filePath).getMessage(), ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("READ_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param filePath        Path of file to be deleted.
+     * @param containerName   Name of the storage container
+     * @param blobContainerClient   Blob container client
+     * @return boolean indicating whether the deletion of given file was successful or not.
+     */
+    private boolean deleteFromStorageContainerInternal(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient) {
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            blockBlobClient.delete();
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done deleting blob at {}", filePath).getMessage());
+            return true;
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(500, "Failed to delete blob", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("DELETE_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param filePath        Path of file to be deleted.
+     * @param containerName   Name of the storage container
+     * @param blobContainerClient   Blob container client
+     * @return boolean indicating whether the deletion of given file was successful or not.
+     */
+    private boolean undeleteFromStorageContainerInternal(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient) {
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            ListBlobsOptions listBlobsOptions = new ListBlobsOptions().setPrefix(filePath).setDetails(new BlobListDetails().setRetrieveSnapshots(true).setRetrieveVersions(true).setRetrieveDeletedBlobs(true));
+            PagedIterable<BlobItem> blobItems = blobContainerClient.listBlobs(listBlobsOptions, Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS));
+            if (blobItems == null || !blobItems.iterator().hasNext()) {
+                statusCode = HttpStatus.SC_NOT_FOUND;
+                throw new AppException(statusCode, "Could not find any item at location " + filePath, "No items found");
+            }
+            for (BlobItem blobItem : blobItems) {
+                if (blobItem.getVersionId() != null && filePath.equals(blobItem.getName())) {
+                    BlobClient sourceBlobClient = blobContainerClient.getBlobVersionClient(blobItem.getName(), blobItem.getVersionId());
+                    BlobClient destBlobClient = blobContainerClient.getBlobClient(filePath);
+                    SyncPoller<BlobCopyInfo, Void> poller = destBlobClient.beginCopy(sourceBlobClient.getBlobUrl(), null);
+                    PollResponse<BlobCopyInfo> poll = poller.waitForCompletion(Duration.ofSeconds(POLL_COMPLETION_TIMEOUT_IN_SECONDS));
+                    if (destBlobClient.exists() && poll.getStatus().equals(LongRunningOperationStatus.SUCCESSFULLY_COMPLETED)) {
+                        break;
+                    } else {
+                        statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+                        throw new AppException(statusCode, "Unknown error happened while restoring the blob", "Copy job couldn't finish");
+                    }
+                } else {
+                    statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+                    throw new AppException(statusCode, "Unknown error happened while restoring the blob", "Corrupt data");
+                }
+            }
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("Done undeleting blob at {}", filePath);
+            return true;
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to undelete blob", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("UNDELETE_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param containerName   Name of the storage container
+     * @param filePaths       Paths of the blobs to delete
+     * @param blobBatchClient Blob batch client
+     * @return result per blob, in the order of the given paths.
+     */
+    private List<BlobItemResult<Void>> deleteBlobsInternal(
+            final String containerName,
+            final List<String> filePaths,
+            final BlobBatchClient blobBatchClient) {
+        final long start = System.currentTimeMillis();
+        List<BlobItemResult<Void>> results = new ArrayList<>(filePaths.size());
+        for (List<String> chunk : Lists.partition(filePaths, MAX_BATCH_SUB_REQUESTS)) {
+            BlobBatch blobBatch = blobBatchClient.getBlobBatch();
+            List<Response<Void>> responses = new ArrayList<>(chunk.size());
+            for (String filePath : chunk) {
+                responses.add(blobBatch.deleteBlob(containerName, filePath));
+            }
+            BlobStorageException batchFailure = null;
+            try {
+                blobBatchClient.submitBatchWithResponse(blobBatch, false, null, Context.NONE);
+            } catch (BlobStorageException ex) {
+                batchFailure = ex;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(getBatchDeleteResult(chunk.get(i), responses.get(i), batchFailure));
+            }
+        }
+        long failed = results.stream().filter(result -> !result.isSuccess()).count();
+        final long timeTaken = System.currentTimeMillis() - start;
+        final String dependencyData = MessageFormatter.arrayFormat("{} count={} failed={}", new Object[]{containerName, filePaths.size(), failed}).getMessage();
+        final int statusCode = failed == 0 ? HttpStatus.SC_OK : HttpStatus.SC_MULTI_STATUS;
+        logDependency("DELETE_BLOBS_BATCH", dependencyData, containerName, timeTaken, String.valueOf(statusCode), failed == 0);
+        return results;
+    }
+
+    /**
+     * @param filePath     Path of the blob
+     * @param response     Sub-response of the delete
+     * @param batchFailure Failure of the whole batch request, null when it was sent
+     * @return result of the delete
+     */
+    private BlobItemResult<Void> getBatchDeleteResult(final String filePath, final Response<Void> response, final BlobStorageException batchFailure) {
+        BlobStorageException failure = batchFailure;
+        int statusCode;
+        if (failure == null) {
+            try {
+                statusCode = response.getStatusCode();
+            } catch (BlobStorageException ex) {
+                failure = ex;
+                statusCode = ex.getStatusCode();
+            }
+        } else {
+            statusCode = failure.getStatusCode();
+        }
+        if (failure == null) {
+            return BlobItemResult.<Void>builder().filePath(filePath).statusCode(statusCode).success(true).build();
+        }
+        AppException error = new AppException(statusCode, "Failed to delete blob",
+                MessageFormatter.format("Failed to delete blob {}", filePath).getMessage(), failure);
+        return BlobItemResult.<Void>builder().filePath(filePath).statusCode(statusCode).success(false).error(error).build();
+    }
+
+    /**
+     * @param containerName       Name of the storage container
+     * @param filePaths           Paths of the blobs to restore
+     * @param blobContainerClient Blob container client
+     * @return result per blob, in the order of the given paths.
+     */
+    private List<BlobItemResult<String>> undeleteBlobsInternal(
+            final String containerName,
+            final List<String> filePaths,
+            final BlobContainerClient blobContainerClient) {
+        final long start = System.currentTimeMillis();
+        List<BlobItemResult<String>> results = Flux.fromIterable(filePaths)
+                .flatMapSequential(filePath -> Mono.fromCallable(() -> undeleteLatestVersion(filePath, blobContainerClient))
+                        .subscribeOn(Schedulers.boundedElastic()), MAX_UNDELETE_CONCURRENCY)
+                .collectList()
+                .block();
+        long failed = results.stream().filter(result -> !result.isSuccess()).count();
+        final long timeTaken = System.currentTimeMillis() - start;
+        final String dependencyData = MessageFormatter.arrayFormat("{} count={} failed={}", new Object[]{containerName, filePaths.size(), failed}).getMessage();
+        final int statusCode = failed == 0 ? HttpStatus.SC_OK : HttpStatus.SC_MULTI_STATUS;
+        logDependency("UNDELETE_BLOBS", dependencyData, containerName, timeTaken, String.valueOf(statusCode), failed == 0);
+        return results;
+    }
+
+    /**
+     * Restores the most recent version of a blob by copying it over the base blob. Versions are listed in name order,
+     * and the exact path sorts before any other name sharing it as a prefix, so the listing stops at the first other name.
+     *
+     * @param filePath            Path of the blob
+     * @param blobContainerClient Blob container client
+     * @return result holding the restored version id
+     */
+    private BlobItemResult<String> undeleteLatestVersion(final String filePath, final BlobContainerClient blobContainerClient) {
+        try {
+            ListBlobsOptions listBlobsOptions = new ListBlobsOptions().setPrefix(filePath)
+                    .setDetails(new BlobListDetails().setRetrieveVersions(true).setRetrieveDeletedBlobs(true));
+            String latestVersionId = null;
+            for (BlobItem blobItem : blobContainerClient.listBlobs(listBlobsOptions, Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS))) {
+                if (!filePath.equals(blobItem.getName())) {
+                    break;
+                }
+                if (Boolean.TRUE.equals(blobItem.isCurrentVersion()) && !Boolean.TRUE.equals(blobItem.isDeleted())) {
+                    return BlobItemResult.<String>builder().filePath(filePath).value(blobItem.getVersionId())
+                            .statusCode(HttpStatus.SC_OK).success(true).build();
+                }
+                if (blobItem.getVersionId() != null && (latestVersionId == null || blobItem.getVersionId().compareTo(latestVersionId) > 0)) {
+                    latestVersionId = blobItem.getVersionId();
+                }
+            }
+            if (latestVersionId == null) {
+                return failedItem(filePath, new AppException(HttpStatus.SC_NOT_FOUND, "No items found", "Could not find any version at location " + filePath));
+            }
+            BlobClient sourceBlobClient = blobContainerClient.getBlobVersionClient(filePath, latestVersionId);
+            BlobClient destBlobClient = blobContainerClient.getBlobClient(filePath);
+            PollResponse<BlobCopyInfo> poll = destBlobClient.beginCopy(sourceBlobClient.getBlobUrl(), null)
+                    .waitForCompletion(Duration.ofSeconds(POLL_COMPLETION_TIMEOUT_IN_SECONDS));
+            if (!LongRunningOperationStatus.SUCCESSFULLY_COMPLETED.equals(poll.getStatus())) {
+                return failedItem(filePath, new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Unknown error happened while restoring the blob", "Copy job couldn't finish"));
+            }
+            return BlobItemResult.<String>builder().filePath(filePath).value(latestVersionId).statusCode(HttpStatus.SC_OK).success(true).build();
+        } catch (BlobStorageException ex) {
+            return failedItem(filePath, new AppException(ex.getStatusCode(), "Failed to undelete blob", ex.getMessage(), ex));
+        }
+    }
+
+    /**
+     * Runs an operation for several blobs on the bounded elastic scheduler and logs one aggregated dependency record.
+     *
+     * @param dependencyName Name of the aggregated dependency record
+     * @param containerName  Name of the storage container
+     * @param filePaths      Paths of the blobs
+     * @param maxConcurrency Maximum number of blobs processed at the same time
+     * @param ordered        Whether results keep the order of the paths
+     * @param operation      Operation for one blob; it reports failures in its result instead of throwing
+     * @param <T>            type of the value produced for each blob
+     * @return stream of results.
+     */
+    private <T> Stream<BlobItemResult<T>> runMany(
+            final String dependencyName,
+            final String containerName,
+            final List<String> filePaths,
+            final int maxConcurrency,
+            final boolean ordered,
+            final Function<String, BlobItemResult<T>> operation) {
+        final AtomicLong failed = new AtomicLong();
+        Function<String, Mono<BlobItemResult<T>>> item = filePath -> Mono.fromCallable(() -> operation.apply(filePath))
+                .subscribeOn(Schedulers.boundedElastic());
+        Flux<BlobItemResult<T>> items = ordered
+                ? Flux.fromIterable(filePaths).flatMapSequential(item, maxConcurrency)
+                : Flux.fromIterable(filePaths).flatMap(item, maxConcurrency);
+        return Flux.defer(() -> {
+            final long start = System.currentTimeMillis();
+            return items
+                    .doOnNext(result -> {
+                        if (!result.isSuccess()) {
+                            failed.incrementAndGet();
+                        }
+                    })
+                    .doFinally(signal -> {
+                        final long timeTaken = System.currentTimeMillis() - start;
+                        final int statusCode = failed.get() == 0 ? HttpStatus.SC_OK : HttpStatus.SC_MULTI_STATUS;
+                        final String dependencyData = MessageFormatter.arrayFormat("{} count={} failed={}",
+                                new Object[]{containerName, filePaths.size(), failed.get()}).getMessage();
+                        logDependency(dependencyName, dependencyData, containerName, timeTaken, String.valueOf(statusCode), failed.get() == 0);
+                    });
+        }).toStream();
+    }
+
+    /**
+     * @param filePath            Path of the blob
+     * @param blobContainerClient Blob container client
+     * @return result holding the content of the blob
+     */
+    private BlobItemResult<String> readItem(final String filePath, final BlobContainerClient blobContainerClient) {
+        try {
+            BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+            BlobDownloadContentResponse response = blockBlobClient.downloadContentWithResponse(null, null, null, Context.NONE);
+            String content = BlobContentDecoder.decode(ByteBuffer.wrap(response.getValue().toBytes()),
+                    () -> response.getDeserializedHeaders().getContentEncoding());
+            return BlobItemResult.<String>builder().filePath(filePath).value(content).statusCode(HttpStatus.SC_OK).success(true).build();
+        } catch (BlobStorageException ex) {
+            return failedItem(filePath, toItemError(ex, "Failed to read specified blob"));
+        } catch (IOException ex) {
+            return failedItem(filePath, new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Malformed document for item with name=" + filePath, ex.getMessage(), ex));
+        } catch (RuntimeException ex) {
+            return failedItem(filePath, new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to read specified blob", ex.getMessage(), ex));
+        }
+    }
+
+    /**
+     * Writes one blob, compressed like {@link #writeToStorageContainer} when the container is configured for it.
+     *
+     * @param filePath            Path of the blob
+     * @param content             Content to write
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @return result of the write
+     */
+    private BlobItemResult<Void> writeItem(final String filePath, final byte[] content, final String containerName,
+                                           final BlobContainerClient blobContainerClient) {
+        try {
+            BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+            if (shouldCompress(containerName, content.length)) {
+                uploadWithOptions(blockBlobClient, content, true, null);
+            } else {
+                blockBlobClient.upload(new ByteArrayInputStream(content), content.length, true);
+            }
+            return BlobItemResult.<Void>builder().filePath(filePath).statusCode(HttpStatus.SC_OK).success(true).build();
+        } catch (BlobStorageException ex) {
+            return failedItem(filePath, toItemError(ex, "Failed to upload file content."));
+        } catch (IOException ex) {
+            return failedItem(filePath, new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Malformed document for item with name=" + filePath, ex.getMessage(), ex));
+        } catch (RuntimeException ex) {
+            return failedItem(filePath, new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Failed to upload file content.", ex.getMessage(), ex));
+        }
+    }
+
+    /**
+     * @param ex           Storage failure of one blob
+     * @param errorMessage Error message
+     * @return error for the blob's result, using the same status mapping as single-blob operations
+     */
+    private AppException toItemError(final BlobStorageException ex, final String errorMessage) {
+        if (BlobErrorCode.BLOB_NOT_FOUND.equals(ex.getErrorCode())) {
+            return new AppException(HttpStatus.SC_NOT_FOUND, "Specified blob was not found", ex.getMessage(), ex);
+        }
+        if (BlobErrorCode.SERVER_BUSY.equals(ex.getErrorCode())) {
+            return new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "The server is busy, retry this request later", ex.getMessage(), ex);
+        }
+        return new AppException(ex.getStatusCode(), errorMessage, ex.getMessage(), ex);
+    }
+
+    /**
+     * @param ttl time a result is cached, zero to disable caching
+     * @return cache of container existence checks
+     */
+    private static Cache<String, Boolean> buildContainerExistenceCache(final Duration ttl) {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(MAX_CACHED_CONTAINERS)
+                .build();
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param containerName   Name of the storage container
+     * @return key of the container in the existence cache
+     */
+    private static String getContainerKey(final String dataPartitionId, final String containerName) {
+        return dataPartitionId + "/" + containerName;
+    }
+
+    /**
+     * @param ex Failure of a write
+     * @return whether the write failed because its container does not exist
+     */
+    private static boolean isContainerNotFound(final AppException ex) {
+        return ex.getCause() instanceof BlobStorageException
+                && BlobErrorCode.CONTAINER_NOT_FOUND.equals(((BlobStorageException) ex.getCause()).getErrorCode());
+    }
+
+    /**
+     * Creates a container unless a concurrent writer created it first.
+     *
+     * @param dataPartitionId     Data partition id
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     */
+    private void createContainerIfMissing(final String dataPartitionId, final String containerName, final BlobContainerClient blobContainerClient) {
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            blobContainerClient.createIfNotExists();
+            containerExistenceCache.put(getContainerKey(dataPartitionId, containerName), true);
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(500, "Failed to create blob container", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            logDependency("CREATE_CONTAINER_IF_MISSING", containerName, containerName, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param filePath Path of the blob
+     * @param error    Error of the operation
+     * @param <T>      type of the value produced for the blob
+     * @return failed result
+     */
+    private <T> BlobItemResult<T> failedItem(final String filePath, final AppException error) {
+        return BlobItemResult.<T>builder().filePath(filePath).statusCode(error.getError().getCode()).success(false).error(error).build();
+    }
+
+    /**
+     * @param filePath        Path of file to be written at.
+     * @param content         Content to be written in the file.
+     * @param containerName   Name of the storage container
+     * @param blobContainerClient   Blob container client
+     * @param tags            Blob index tags, null for none
+     */
+    private void writeToStorageContainerInternal(
+            final String filePath,
+            final String content,
+            final String containerName,
+            final BlobContainerClient blobContainerClient,
+            final Map<String, String> tags) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int bytesSize = bytes.length;
         BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+
         final long start = System.currentTimeMillis();
         int statusCode = HttpStatus.SC_OK;
-        try (ByteArrayOutputStream downloadStream = new ByteArrayOutputStream()) {
-            blockBlobClient.download(downloadStream);
-            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done reading from {}", filePath).getMessage());
-            return downloadStream.toString(StandardCharsets.UTF_8.name());
+        try {
+            final boolean compress = shouldCompress(containerName, bytesSize);
+            if (compress || tags != null) {
+                uploadWithOptions(blockBlobClient, bytes, compress, tags);
+            } else {
+                try (ByteArrayInputStream dataStream = new ByteArrayInputStream(bytes)) {
+                    blockBlobClient.upload(dataStream, bytesSize, true);
+                }
+            }
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done uploading file content to {}", filePath).getMessage());
         } catch (BlobStorageException ex) {
             statusCode = ex.getStatusCode();
-            throw handleBlobStorageException(statusCode, "Failed to read specified blob", ex);
-        } catch (UnsupportedEncodingException ex) {
-            statusCode = HttpStatus.SC_BAD_REQUEST;
-            throw handleBlobStoreException(400, MessageFormatter.format("Encoding was not correct for item with name={}", filePath).getMessage(), ex);
+            throw handleBlobStorageException(500, "Failed to upload file content.", ex);
         } catch (IOException ex) {
             statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
             throw handleBlobStoreException(500, MessageFormatter.format("Malformed document for item with name={}", filePath).getMessage(), ex);
         } finally {
             final long timeTaken = System.currentTimeMillis() - start;
-            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
-            logDependency("READ_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+            final String dependencyData = MessageFormatter.format("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("WRITE_TO_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
         }
     }
 
     /**
-     * @param filePath        Path of file to be deleted.
-     * @param containerName   Name of the storage container
-     * @param blobContainerClient   Blob container client
-     * @return boolean indicating whether the deletion of given file was successful or not.
+     * @param filePath            Path of file to be read.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @return stream over the content of the blob.
      */
-    private boolean deleteFromStorageContainerInternal(
+    private InputStream openInputStreamInternal(
             final String filePath,
             final String containerName,
             final BlobContainerClient blobContainerClient) {
@@ -473,97 +1709,364 @@ public class BlobStore {
         final long start = System.currentTimeMillis();
         int statusCode = HttpStatus.SC_OK;
         try {
-            blockBlobClient.delete();
-            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done deleting blob at {}", filePath).getMessage());
-            return true;
+            BlobInputStream blobInputStream = blockBlobClient.openInputStream();
+            BlobProperties properties = blobInputStream.getProperties();
+            if (properties != null && BlobContentDecoder.isCompressed(properties.getContentEncoding())) {
+                return new GZIPInputStream(blobInputStream);
+            }
+            return blobInputStream;
         } catch (BlobStorageException ex) {
             statusCode = ex.getStatusCode();
-            throw handleBlobStorageException(500, "Failed to delete blob", ex);
+            throw handleBlobStorageException(statusCode, "Failed to read specified blob", ex);
+        } catch (IOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, MessageFormatter.format("Malformed document for item with name={}", filePath).getMessage(), ex);
         } finally {
             final long timeTaken = System.currentTimeMillis() - start;
             final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
-            logDependency("DELETE_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+            logDependency("OPEN_INPUT_STREAM", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
         }
     }
 
     /**
-     * @param filePath        Path of file to be deleted.
-     * @param containerName   Name of the storage container
-     * @param blobContainerClient   Blob container client
-     * @return boolean indicating whether the deletion of given file was successful or not.
+     * @param filePath            Path of file to be written at.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @return stream writing to the blob.
      */
-    private boolean undeleteFromStorageContainerInternal(
+    private OutputStream openOutputStreamInternal(
             final String filePath,
             final String containerName,
             final BlobContainerClient blobContainerClient) {
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
         final long start = System.currentTimeMillis();
         int statusCode = HttpStatus.SC_OK;
         try {
-            ListBlobsOptions listBlobsOptions = new ListBlobsOptions().setPrefix(filePath).setDetails(new BlobListDetails().setRetrieveSnapshots(true).setRetrieveVersions(true).setRetrieveDeletedBlobs(true));
-            PagedIterable<BlobItem> blobItems = blobContainerClient.listBlobs(listBlobsOptions, Duration.ofSeconds(BLOB_LIST_TIMEOUT_IN_SECONDS));
-            if (blobItems == null || !blobItems.iterator().hasNext()) {
-                statusCode = HttpStatus.SC_NOT_FOUND;
-                throw new AppException(statusCode, "Could not find any item at location " + filePath, "No items found");
-            }
-            for (BlobItem blobItem : blobItems) {
-                if (blobItem.getVersionId() != null && filePath.equals(blobItem.getName())) {
-                    BlobClient sourceBlobClient = blobContainerClient.getBlobVersionClient(blobItem.getName(), blobItem.getVersionId());
-                    BlobClient destBlobClient = blobContainerClient.getBlobClient(filePath);
-                    SyncPoller<BlobCopyInfo, Void> poller = destBlobClient.beginCopy(sourceBlobClient.getBlobUrl(), null);
-                    PollResponse<BlobCopyInfo> poll = poller.waitForCompletion(Duration.ofSeconds(POLL_COMPLETION_TIMEOUT_IN_SECONDS));
-                    if (destBlobClient.exists() && poll.getStatus().equals(LongRunningOperationStatus.SUCCESSFULLY_COMPLETED)) {
-                        break;
-                    } else {
-                        statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
-                        throw new AppException(statusCode, "Unknown error happened while restoring the blob", "Copy job couldn't finish");
-                    }
-                } else {
-                    statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
-                    throw new AppException(statusCode, "Unknown error happened while restoring the blob", "Corrupt data");
-                }
-            }
-            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("Done undeleting blob at {}", filePath);
-            return true;
+            return blockBlobClient.getBlobOutputStream(true);
         } catch (BlobStorageException ex) {
             statusCode = ex.getStatusCode();
-            throw handleBlobStorageException(statusCode, "Failed to undelete blob", ex);
+            throw handleBlobStorageException(500, "Failed to open blob for writing", ex);
         } finally {
             final long timeTaken = System.currentTimeMillis() - start;
             final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
-            logDependency("UNDELETE_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+            logDependency("OPEN_OUTPUT_STREAM", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
         }
     }
 
     /**
-     * @param filePath        Path of file to be written at.
-     * @param content         Content to be written in the file.
-     * @param containerName   Name of the storage container
-     * @param blobContainerClient   Blob container client
+     * @param filePath            Path of file to be read.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @param outputStream        Stream receiving the content
+     * @return number of bytes downloaded.
      */
-    private void writeToStorageContainerInternal(
+    private long downloadInternal(
             final String filePath,
-            final String content,
             final String containerName,
-            final BlobContainerClient blobContainerClient) {
-        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
-        int bytesSize = bytes.length;
+            final BlobContainerClient blobContainerClient,
+            final OutputStream outputStream) {
         BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        try {
+            blockBlobClient.downloadStream(countingStream);
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done downloading {}", filePath).getMessage());
+            return countingStream.getCount();
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to read specified blob", ex);
+        } catch (UncheckedIOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, MessageFormatter.format("Failed to write content of item with name={}", filePath).getMessage(), ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("DOWNLOAD_FROM_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
 
+    /**
+     * @param filePath            Path of file to be written at.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @param data                Content to upload
+     * @param length              Exact number of bytes in the content
+     */
+    private void uploadInternal(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient,
+            final InputStream data,
+            final long length) {
+        BlobClient blobClient = blobContainerClient.getBlobClient(filePath);
+        // The content is read in blocks that are buffered until staged, so each block can be retried on its own.
+        ParallelTransferOptions transferOptions = new ParallelTransferOptions()
+                .setBlockSizeLong(BlobBlockUploader.DEFAULT_BLOCK_SIZE)
+                .setMaxSingleUploadSizeLong(BlobBlockUploader.DEFAULT_MAX_SINGLE_UPLOAD_SIZE)
+                .setMaxConcurrency(BlobBlockUploader.DEFAULT_MAX_CONCURRENCY);
         final long start = System.currentTimeMillis();
         int statusCode = HttpStatus.SC_OK;
-        try (ByteArrayInputStream dataStream = new ByteArrayInputStream(bytes)) {
-            blockBlobClient.upload(dataStream, bytesSize, true);
-            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done uploading file content to {}", filePath).getMessage());
+        try {
+            blobClient.uploadWithResponse(new BlobParallelUploadOptions(data).setParallelTransferOptions(transferOptions), null, Context.NONE);
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done uploading stream to {}", filePath).getMessage());
         } catch (BlobStorageException ex) {
             statusCode = ex.getStatusCode();
             throw handleBlobStorageException(500, "Failed to upload file content.", ex);
-        } catch (IOException ex) {
+        } catch (UncheckedIOException ex) {
             statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
-            throw handleBlobStoreException(500, MessageFormatter.format("Malformed document for item with name={}", filePath).getMessage(), ex);
+            throw handleBlobStoreException(500, MessageFormatter.format("Failed to read content for item with name={}", filePath).getMessage(), ex);
         } finally {
             final long timeTaken = System.currentTimeMillis() - start;
-            final String dependencyData = MessageFormatter.format("{}/{}", new String[]{containerName, filePath}).getMessage();
-            logDependency("WRITE_TO_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+            final String dependencyData = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            logDependency("UPLOAD_TO_STORAGE_CONTAINER", dependencyData, dependencyData, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param options Caller options, may be null
+     * @param prefix  Prefix to list
+     * @return new options listing the prefix with the caller's page size and details.
+     */
+    private ListBlobsOptions withPrefix(final ListBlobsOptions options, final String prefix) {
+        ListBlobsOptions listBlobsOptions = new ListBlobsOptions().setPrefix(prefix);
+        if (options != null) {
+            listBlobsOptions.setDetails(options.getDetails()).setMaxResultsPerPage(options.getMaxResultsPerPage());
+        }
+        return listBlobsOptions;
+    }
+
+    /**
+     * Turns a listing into a stream and logs one dependency record with the number of items once the listing
+     * completes, fails or is cancelled by closing the stream.
+     *
+     * @param items          Listing
+     * @param dependencyName Name of the dependency record
+     * @param errorMessage   Error message used when the listing fails
+     * @param containerName  Name of the storage container, or the account for account-wide queries
+     * @param scope          Listed prefix or query
+     * @param <T>            type of the listed items
+     * @return stream of the listed items.
+     */
+    private <T> Stream<T> toLoggedStream(final Flux<T> items, final String dependencyName, final String errorMessage,
+                                         final String containerName, final String scope) {
+        return LoggedListing.toStream(items, BlobStorageException.class,
+                ex -> handleBlobStoreException(ex.getStatusCode(), errorMessage, ex),
+                (count, timeTaken, statusCode) -> {
+                    final String dependencyData = MessageFormatter.arrayFormat("{}/{} count={}", new Object[]{containerName, scope, count}).getMessage();
+                    logDependency(dependencyName, dependencyData, containerName, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+                });
+    }
+
+    /**
+     * @param filePath            Path of file to be written at.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @param source              Local file to upload
+     * @param transferOptions     Block size, number of concurrent requests and maximum single upload size
+     */
+    private void uploadFileInternal(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient,
+            final Path source,
+            final ParallelTransferOptions transferOptions) {
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        long size = 0;
+        BlobBlockUploader.Result result = null;
+        try (FileChannel fileChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            size = fileChannel.size();
+            if (size <= BlobBlockUploader.getMaxSingleUploadSize(transferOptions)) {
+                // A file-backed body can be replayed, so the request is retried like the staged blocks are.
+                blockBlobClient.uploadWithResponse(new BlockBlobSimpleUploadOptions(BinaryData.fromFile(source)), null, Context.NONE);
+            } else {
+                result = BlobBlockUploader.upload(blockBlobClient, fileChannel, size, transferOptions);
+            }
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done uploading file to {}", filePath).getMessage());
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(500, "Failed to upload file content.", ex);
+        } catch (IOException | UncheckedIOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, MessageFormatter.format("Failed to read content for item with name={}", filePath).getMessage(), ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String target = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+            final String dependencyData = result == null
+                    ? MessageFormatter.arrayFormat("{} bytes={}", new Object[]{target, size}).getMessage()
+                    : MessageFormatter.arrayFormat("{} bytes={} stagedBlocks={} reusedBlocks={}",
+                            new Object[]{target, size, result.getStagedBlocks(), result.getReusedBlocks()}).getMessage();
+            logDependency("UPLOAD_FILE_TO_STORAGE_CONTAINER", dependencyData, target, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * @param filePath            Path of file to be read.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @param target              Local file receiving the content
+     * @param transferOptions     Range size and number of concurrent requests
+     * @return number of bytes downloaded.
+     */
+    private long downloadToFileInternal(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient,
+            final Path target,
+            final ParallelTransferOptions transferOptions) {
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        long bytesDownloaded = 0;
+        try (FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            BlobProperties properties = blockBlobClient.getProperties();
+            bytesDownloaded = BlobRangeDownloader.download(blockBlobClient, properties.getBlobSize(), properties.getETag(), transferOptions,
+                    offset -> new BlobRangeDownloader.FileChannelRangeOutputStream(fileChannel, offset));
+            verifyDownload(filePath, properties, bytesDownloaded,
+                    properties.getContentMd5() == null ? null : BlobRangeDownloader.md5(fileChannel, bytesDownloaded));
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done downloading {}", filePath).getMessage());
+            return bytesDownloaded;
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to read specified blob", ex);
+        } catch (AppException ex) {
+            statusCode = ex.getError().getCode();
+            throw ex;
+        } catch (IOException | UncheckedIOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, MessageFormatter.format("Failed to write content of item with name={}", filePath).getMessage(), ex);
+        } finally {
+            logParallelDownloadDependency("DOWNLOAD_TO_FILE", containerName, filePath, start, bytesDownloaded, statusCode);
+        }
+    }
+
+    /**
+     * @param filePath            Path of file to be read.
+     * @param containerName       Name of the storage container
+     * @param blobContainerClient Blob container client
+     * @param target              Local file backing the mapping
+     * @param transferOptions     Range size and number of concurrent requests
+     * @return buffer mapping the downloaded content.
+     */
+    private MappedByteBuffer downloadToMappedBufferInternal(
+            final String filePath,
+            final String containerName,
+            final BlobContainerClient blobContainerClient,
+            final Path target,
+            final ParallelTransferOptions transferOptions) {
+        BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        long bytesDownloaded = 0;
+        try (FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            BlobProperties properties = blockBlobClient.getProperties();
+            if (properties.getBlobSize() > Integer.MAX_VALUE) {
+                throw new AppException(HttpStatus.SC_BAD_REQUEST, "Blob too large",
+                        MessageFormatter.format("Blob {} is too large to be memory-mapped", filePath).getMessage());
+            }
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, properties.getBlobSize());
+            bytesDownloaded = BlobRangeDownloader.download(blockBlobClient, properties.getBlobSize(), properties.getETag(), transferOptions,
+                    offset -> new BlobRangeDownloader.ByteBufferRangeOutputStream(buffer, offset));
+            verifyDownload(filePath, properties, bytesDownloaded,
+                    properties.getContentMd5() == null ? null : BlobRangeDownloader.md5(buffer));
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("{}", MessageFormatter.format("Done downloading {}", filePath).getMessage());
+            return buffer;
+        } catch (BlobStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleBlobStorageException(statusCode, "Failed to read specified blob", ex);
+        } catch (AppException ex) {
+            statusCode = ex.getError().getCode();
+            throw ex;
+        } catch (IOException | UncheckedIOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, MessageFormatter.format("Failed to write content of item with name={}", filePath).getMessage(), ex);
+        } finally {
+            logParallelDownloadDependency("DOWNLOAD_TO_MAPPED_BUFFER", containerName, filePath, start, bytesDownloaded, statusCode);
+        }
+    }
+
+    /**
+     * Checks the downloaded length against the blob size and, when the blob carries a Content-MD5, the content hash.
+     *
+     * @param filePath        Path of the downloaded file
+     * @param properties      Properties of the downloaded blob version
+     * @param bytesDownloaded Number of bytes received
+     * @param contentMd5      MD5 of the received content, null when the blob has no Content-MD5
+     */
+    private void verifyDownload(final String filePath, final BlobProperties properties, final long bytesDownloaded, final byte[] contentMd5) {
+        if (bytesDownloaded != properties.getBlobSize()) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Download verification failed",
+                    MessageFormatter.arrayFormat("Downloaded {} bytes of blob {} but expected {}",
+                            new Object[]{bytesDownloaded, filePath, properties.getBlobSize()}).getMessage());
+        }
+        if (contentMd5 != null && !Arrays.equals(contentMd5, properties.getContentMd5())) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Download verification failed",
+                    MessageFormatter.format("Content MD5 of downloaded blob {} does not match", filePath).getMessage());
+        }
+    }
+
+    /**
+     * Logs a parallel download, adding the transferred bytes and throughput to the dependency data.
+     *
+     * @param name            Dependency name
+     * @param containerName   Name of the storage container
+     * @param filePath        Path of the downloaded file
+     * @param start           Start time in milliseconds
+     * @param bytesDownloaded Number of bytes received
+     * @param statusCode      Result code
+     */
+    private void logParallelDownloadDependency(final String name, final String containerName, final String filePath, final long start,
+                                               final long bytesDownloaded, final int statusCode) {
+        final long timeTaken = System.currentTimeMillis() - start;
+        final double throughputMBps = timeTaken == 0 ? 0 : (bytesDownloaded / (1024.0 * 1024.0)) / (timeTaken / 1000.0);
+        final String target = MessageFormatter.arrayFormat("{}/{}", new String[]{containerName, filePath}).getMessage();
+        final String dependencyData = MessageFormatter.arrayFormat("{} bytes={} throughputMBps={}",
+                new Object[]{target, bytesDownloaded, String.format("%.2f", throughputMBps)}).getMessage();
+        logDependency(name, dependencyData, target, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+    }
+
+    /**
+     * @param dependencyName      Name of the aggregated dependency record
+     * @param blobContainerClient Blob container client
+     * @param filePaths           Paths of the blobs
+     * @param signer              Generates the SAS token of a blob
+     * @return Pre-signed URL per blob path, in the order of the given paths.
+     */
+    private Map<String, String> generatePreSignedURLsInternal(final String dependencyName, final BlobContainerClient blobContainerClient,
+                                                              final List<String> filePaths, final Function<BlockBlobClient, String> signer) {
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            final List<String> distinctPaths = new ArrayList<>(new LinkedHashSet<>(filePaths));
+            final Function<String, String> sign = filePath -> {
+                BlockBlobClient blockBlobClient = blobContainerClient.getBlobClient(filePath).getBlockBlobClient();
+                return blockBlobClient.getBlobUrl() + "?" + signer.apply(blockBlobClient);
+            };
+            final Map<String, String> urls = new LinkedHashMap<>();
+            if (distinctPaths.size() <= PARALLEL_SIGNING_THRESHOLD) {
+                distinctPaths.forEach(filePath -> urls.put(filePath, sign.apply(filePath)));
+                return urls;
+            }
+            List<String> signed = Flux.fromIterable(distinctPaths)
+                    .flatMapSequential(filePath -> Mono.fromCallable(() -> sign.apply(filePath))
+                            .subscribeOn(Schedulers.boundedElastic()), DEFAULT_MULTI_BLOB_CONCURRENCY)
+                    .collectList()
+                    .block();
+            for (int i = 0; i < distinctPaths.size(); i++) {
+                urls.put(distinctPaths.get(i), signed.get(i));
+            }
+            return urls;
+        } catch (RuntimeException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleBlobStoreException(500, "Failed to generate pre-signed URLs.", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            final String dependencyData = MessageFormatter.format("{} count={}", blobContainerClient.getBlobContainerName(), filePaths.size()).getMessage();
+            logDependency(dependencyName, dependencyData, blobContainerClient.getBlobContainerUrl(), timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
         }
     }
 
@@ -1,6 +1,9 @@
 package org.opengroup.osdu.azure.blobstorage;
 
 import com.azure.identity.DefaultAzureCredential;
+import org.opengroup.osdu.azure.di.BlobCompressionConfiguration;
+import org.opengroup.osdu.azure.di.BlobContainerCacheConfiguration;
+import org.opengroup.osdu.azure.di.BlobDiskCacheConfiguration;
 import org.opengroup.osdu.azure.logging.DependencyLogger;
 import org.opengroup.osdu.azure.partition.PartitionServiceClient;
 import org.opengroup.osdu.core.common.logging.ILogger;
@@ -8,6 +11,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+
 /**
  * This is configuration bean to provide BlobStore component.
  */
@@ -31,10 +37,35 @@ public class BlobStoreProvider {
      * @param blobServiceClientFactory Factory which provides a BlobClient.
      * @param logger logger to use for logging.
      * @param depLogger dependency logger to use for dependency logging.
+     * @param diskCacheConfiguration settings of the disk cache for system storage blobs.
+     * @param compressionConfiguration settings of the compression of written content.
+     * @param containerCacheConfiguration settings of the container existence cache.
      * @return instance of {@link BlobStore}
      */
     @Bean
-    public BlobStore buildBlobStore(final IBlobServiceClientFactory blobServiceClientFactory, final ILogger logger, final DependencyLogger depLogger) {
-        return new BlobStore(blobServiceClientFactory, logger, depLogger);
+    public BlobStore buildBlobStore(final IBlobServiceClientFactory blobServiceClientFactory, final ILogger logger, final DependencyLogger depLogger,
+                                    final BlobDiskCacheConfiguration diskCacheConfiguration,
+                                    final BlobCompressionConfiguration compressionConfiguration,
+                                    final BlobContainerCacheConfiguration containerCacheConfiguration) {
+        BlobStore blobStore = new BlobStore(blobServiceClientFactory, logger, depLogger);
+        if (diskCacheConfiguration.isEnabled()) {
+            blobStore.setDiskCache(new BlobDiskCache(Paths.get(diskCacheConfiguration.getDirectory()), diskCacheConfiguration.getMaxSizeBytes()));
+        }
+        if (compressionConfiguration.isEnabled()) {
+            blobStore.setCompression(compressionConfiguration);
+        }
+        blobStore.setContainerExistenceTtl(Duration.ofSeconds(containerCacheConfiguration.getTtlSeconds()));
+        return blobStore;
+    }
+
+    /**
+     * Create instance of {@link BlobAsyncStore}.
+     * @param blobServiceClientFactory Factory which provides blob clients.
+     * @param depLogger dependency logger to use for dependency logging.
+     * @return instance of {@link BlobAsyncStore}
+     */
+    @Bean
+    public BlobAsyncStore buildBlobAsyncStore(final IBlobServiceClientFactory blobServiceClientFactory, final DependencyLogger depLogger) {
+        return new BlobAsyncStore(blobServiceClientFactory, depLogger);
     }
 }
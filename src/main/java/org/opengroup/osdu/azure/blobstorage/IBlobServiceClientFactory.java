@@ -14,7 +14,11 @@
 
 package org.opengroup.osdu.azure.blobstorage;
 
+import com.azure.storage.blob.BlobServiceAsyncClient;
 import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
 
 /**
  *  Interface for Blob service client factory to return appropriate
@@ -33,4 +37,43 @@ public interface IBlobServiceClientFactory {
      * @return      BlobServiceClient for system resources.
      */
     BlobServiceClient getSystemBlobServiceClient();
+
+    /**
+     *
+     * @param dataPartitionId       data partition id.
+     * @return      BlobBatchClient sharing the pipeline of the partition's BlobServiceClient.
+     */
+    default BlobBatchClient getBlobBatchClient(final String dataPartitionId) {
+        return new BlobBatchClientBuilder(getBlobServiceClient(dataPartitionId)).buildClient();
+    }
+
+    /**
+     *
+     * @param dataPartitionId       data partition id.
+     * @return      BlobServiceAsyncClient sharing the pipeline of the partition's BlobServiceClient.
+     */
+    default BlobServiceAsyncClient getBlobServiceAsyncClient(final String dataPartitionId) {
+        return buildAsyncClient(getBlobServiceClient(dataPartitionId));
+    }
+
+    /**
+     *
+     * @return      BlobServiceAsyncClient for system resources, sharing the pipeline of the system BlobServiceClient.
+     */
+    default BlobServiceAsyncClient getSystemBlobServiceAsyncClient() {
+        return buildAsyncClient(getSystemBlobServiceClient());
+    }
+
+    /**
+     *
+     * @param blobServiceClient     synchronous client to derive the async client from.
+     * @return      BlobServiceAsyncClient using the same endpoint, pipeline and service version.
+     */
+    private static BlobServiceAsyncClient buildAsyncClient(final BlobServiceClient blobServiceClient) {
+        return new BlobServiceClientBuilder()
+                .endpoint(blobServiceClient.getAccountUrl())
+                .pipeline(blobServiceClient.getHttpPipeline())
+                .serviceVersion(blobServiceClient.getServiceVersion())
+                .buildAsyncClient();
+    }
 }
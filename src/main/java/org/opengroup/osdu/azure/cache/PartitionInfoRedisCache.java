@@ -0,0 +1,254 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.azure.di.PartitionRedisCacheConfiguration;
+import org.opengroup.osdu.azure.di.RedisAzureConfiguration;
+import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.partition.PartitionInfo;
+import org.opengroup.osdu.core.common.partition.Property;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Redis cache of partition properties shared by all pods, in front of the partition service.
+ * <p>
+ * Only the properties returned by the partition service are stored. Sensitive properties hold the name of their
+ * Key Vault secret there, so no secret value is ever written to Redis. An entry older than the refresh age is
+ * reloaded by the one pod that gets the load lock while the other pods keep using it. When a reload or an explicit
+ * invalidation changes a partition, the partition id is published on an invalidation channel so that every pod drops
+ * its local copy and reads the new properties from Redis.
+ */
+@Component
+@Lazy
+@ConditionalOnProperty(value = "azure.partition.redis-cache.enabled", havingValue = "true")
+public class PartitionInfoRedisCache {
+
+    private static final String LOGGER_NAME = PartitionInfoRedisCache.class.getName();
+    private static final String KEY_PREFIX = "osdu:partition-info:";
+    private static final String LOCK_PREFIX = "osdu:partition-info-lock:";
+    private static final String INVALIDATION_CHANNEL = "osdu:partition-info-invalidation";
+    private static final Type PROPERTIES_TYPE = new TypeToken<Map<String, Property>>() { }.getType();
+
+    @Autowired
+    private PartitionRedisCacheConfiguration configuration;
+
+    @Autowired
+    private IRedisClientFactory redisClientFactory;
+
+    @Value("${spring.application.name:corelibazure}")
+    private String applicationName;
+
+    private final Gson gson = new Gson();
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean subscribed = false;
+
+    /**
+     * Returns the shared properties of a partition, loading them from the partition service when they are missing
+     * or due for refresh. Falls back to the loader when Redis is not available.
+     *
+     * @param partitionId Partition Id
+     * @param loader      Reads the partition from the partition service
+     * @return Partition info
+     */
+    public PartitionInfo get(final String partitionId, final Supplier<PartitionInfo> loader) {
+        RedissonClient redissonClient = getRedissonClient();
+        if (redissonClient == null) {
+            return loader.get();
+        }
+
+        RLock lock = null;
+        boolean locked = false;
+        try {
+            RBucket<String> bucket = redissonClient.getBucket(KEY_PREFIX + partitionId, StringCodec.INSTANCE);
+            CachedPartition cached = parse(bucket.get());
+            if (cached != null && isFresh(cached)) {
+                return toPartitionInfo(cached);
+            }
+
+            // Only one pod reloads a partition. With a stale entry the others keep using it instead of waiting.
+            lock = redissonClient.getLock(LOCK_PREFIX + partitionId);
+            locked = lock.tryLock(cached == null ? configuration.getLockWaitMillis() : 0, configuration.getLockLeaseMillis(), TimeUnit.MILLISECONDS);
+            CachedPartition current = parse(bucket.get());
+            if (current != null && (isFresh(current) || !locked)) {
+                return toPartitionInfo(current);
+            }
+
+            PartitionInfo partitionInfo;
+            try {
+                partitionInfo = loader.get();
+            } catch (AppException e) {
+                if (current == null) {
+                    throw e;
+                }
+                CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Failed to reload partition {}, serving the shared entry.", partitionId);
+                return toPartitionInfo(current);
+            }
+            String properties = gson.toJson(new TreeMap<>(partitionInfo.getProperties()));
+            bucket.set(gson.toJson(new CachedPartition(System.currentTimeMillis(), properties)), configuration.getExpirationSeconds(), TimeUnit.SECONDS);
+            if (current != null && !current.getProperties().equals(properties)) {
+                publishInvalidation(redissonClient, partitionId);
+            }
+            return partitionInfo;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        } catch (RedisException e) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Redis is not available, reading partition {} from the partition service.", partitionId);
+            return loader.get();
+        } finally {
+            if (locked && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drops the shared entry of a partition and tells every pod to drop its local copy.
+     *
+     * @param partitionId Partition Id
+     */
+    public void invalidate(final String partitionId) {
+        RedissonClient redissonClient = getRedissonClient();
+        if (redissonClient == null) {
+            return;
+        }
+        try {
+            redissonClient.getBucket(KEY_PREFIX + partitionId, StringCodec.INSTANCE).delete();
+            publishInvalidation(redissonClient, partitionId);
+        } catch (RedisException e) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Failed to invalidate partition {} in Redis.", partitionId);
+        }
+    }
+
+    /**
+     * Registers a listener called with the id of every partition invalidated by any pod, including this one.
+     *
+     * @param listener Listener receiving partition ids
+     */
+    public void addInvalidationListener(final Consumer<String> listener) {
+        invalidationListeners.add(listener);
+        getRedissonClient();
+    }
+
+    /**
+     * @return Redisson client, subscribed to the invalidation channel, or null when Redis is not configured or can
+     * not be connected to
+     */
+    private RedissonClient getRedissonClient() {
+        RedisAzureConfiguration redisConfiguration = new RedisAzureConfiguration(configuration.getDatabase(),
+                (int) configuration.getExpirationSeconds(), configuration.getPort(), 10, 5,
+                configuration.getHostKey(), configuration.getPasswordKey());
+        RedissonClient redissonClient;
+        try {
+            redissonClient = redisClientFactory.getRedissonClient(applicationName, redisConfiguration);
+        } catch (RedisException e) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Failed to connect to Redis for the partition cache.");
+            return null;
+        }
+        if (redissonClient != null && !subscribed) {
+            subscribe(redissonClient);
+        }
+        return redissonClient;
+    }
+
+    /**
+     * Subscribes to the invalidation channel once.
+     *
+     * @param redissonClient Redisson client
+     */
+    private synchronized void subscribe(final RedissonClient redissonClient) {
+        if (subscribed) {
+            return;
+        }
+        try {
+            RTopic topic = redissonClient.getTopic(INVALIDATION_CHANNEL, StringCodec.INSTANCE);
+            topic.addListener(String.class, (channel, partitionId) -> invalidationListeners.forEach(listener -> listener.accept(partitionId)));
+            subscribed = true;
+        } catch (RedisException e) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Failed to subscribe to partition invalidations.");
+        }
+    }
+
+    /**
+     * @param redissonClient Redisson client
+     * @param partitionId    Partition Id
+     */
+    private static void publishInvalidation(final RedissonClient redissonClient, final String partitionId) {
+        redissonClient.getTopic(INVALIDATION_CHANNEL, StringCodec.INSTANCE).publish(partitionId);
+    }
+
+    /**
+     * @param cached Shared entry
+     * @return true if the entry is younger than the refresh age
+     */
+    private boolean isFresh(final CachedPartition cached) {
+        return System.currentTimeMillis() - cached.getLoadedAt() < Duration.ofSeconds(configuration.getRefreshSeconds()).toMillis();
+    }
+
+    /**
+     * @param cached Shared entry
+     * @return Partition info holding the cached properties
+     */
+    private PartitionInfo toPartitionInfo(final CachedPartition cached) {
+        Map<String, Property> properties = gson.fromJson(cached.getProperties(), PROPERTIES_TYPE);
+        return PartitionInfo.builder().properties(properties).build();
+    }
+
+    /**
+     * @param json Serialized shared entry, may be null
+     * @return Shared entry, null when json is null
+     */
+    private CachedPartition parse(final String json) {
+        return json == null ? null : gson.fromJson(json, CachedPartition.class);
+    }
+
+    /**
+     * Shared entry of a partition: the time it was loaded and its serialized properties.
+     */
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    private static class CachedPartition {
+        private long loadedAt;
+        private String properties;
+    }
+}
@@ -0,0 +1,261 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.cache;
+
+import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Caches user delegation keys per storage account so that SAS generation is a local signing operation.
+ * Each account holds one key covering a rolling validity window. A cached key is handed to every SAS request whose
+ * start and expiry fall inside that window, and is replaced in the background once its remaining validity drops
+ * below the refresh-ahead threshold. Callers should key the cache by account URL and use {@link #shared(Class)}, so
+ * that partitions and stores backed by the same account share one key.
+ *
+ * @param <K> user delegation key type of the storage SDK in use
+ */
+public class UserDelegationKeyCache<K> {
+    /**
+     * The storage service rejects keys expiring more than seven days from now.
+     */
+    public static final Duration MAX_KEY_VALIDITY = Duration.ofDays(7).minusMinutes(5);
+    /**
+     * Remaining validity below which the default cache refreshes a key in the background.
+     */
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofDays(1);
+    private static final String LOGGER_NAME = UserDelegationKeyCache.class.getName();
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+    private static final Map<Class<?>, UserDelegationKeyCache<?>> SHARED = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedKey<K>> keys = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+    private final Map<String, Mono<CachedKey<K>>> pendingLoads = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Duration keyValidity;
+    private final Duration refreshAhead;
+    private final Clock clock;
+
+    /**
+     * Cache with the longest key validity the service allows.
+     */
+    public UserDelegationKeyCache() {
+        this(MAX_KEY_VALIDITY, DEFAULT_REFRESH_AHEAD, Clock.systemUTC());
+    }
+
+    /**
+     * @param validity         Validity window requested for each key, capped at {@link #MAX_KEY_VALIDITY}
+     * @param refreshThreshold Remaining validity below which a key is refreshed in the background
+     * @param timeSource       Clock used to compute validity windows
+     */
+    public UserDelegationKeyCache(final Duration validity, final Duration refreshThreshold, final Clock timeSource) {
+        this.keyValidity = validity.compareTo(MAX_KEY_VALIDITY) > 0 ? MAX_KEY_VALIDITY : validity;
+        this.refreshAhead = refreshThreshold;
+        this.clock = timeSource;
+    }
+
+    /**
+     * Returns the process-wide cache for a key type.
+     *
+     * @param keyType user delegation key type of the storage SDK in use
+     * @param <T>     key type
+     * @return cache shared by every store using that key type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> UserDelegationKeyCache<T> shared(final Class<T> keyType) {
+        return (UserDelegationKeyCache<T>) SHARED.computeIfAbsent(keyType, type -> new UserDelegationKeyCache<>());
+    }
+
+    /**
+     * Returns a key valid from {@code startTime} to {@code expiryTime}, reusing the cached key of the account when
+     * it covers that range. Concurrent misses for the same account result in a single key request.
+     *
+     * @param account    Storage account identifier, e.g. the account URL
+     * @param startTime  Start of the SAS validity, null for now
+     * @param expiryTime Expiry of the SAS
+     * @param keyLoader  Requests a key for the given start and expiry from the storage service
+     * @return user delegation key, or whatever the loader returned when it did not return a key
+     */
+    public K get(final String account, final OffsetDateTime startTime, final OffsetDateTime expiryTime,
+                 final BiFunction<OffsetDateTime, OffsetDateTime, K> keyLoader) {
+        final OffsetDateTime start = startTime == null ? OffsetDateTime.now(clock) : startTime;
+
+        CachedKey<K> cached = keys.get(account);
+        if (cached != null && cached.covers(start, expiryTime)) {
+            refreshIfExpiring(account, cached, (keyStart, keyExpiry) -> Mono.fromCallable(() -> keyLoader.apply(keyStart, keyExpiry))
+                    .subscribeOn(Schedulers.boundedElastic()));
+            return cached.key;
+        }
+
+        synchronized (loadLocks.computeIfAbsent(account, a -> new Object())) {
+            cached = keys.get(account);
+            if (cached != null && cached.covers(start, expiryTime)) {
+                return cached.key;
+            }
+            CachedKey<K> loaded = load(start, expiryTime, keyLoader);
+            if (loaded.key == null) {
+                return null;
+            }
+            if (loaded.covers(start, expiryTime) && (cached == null || loaded.expiry.isAfter(cached.expiry))) {
+                keys.put(account, loaded);
+            }
+            return loaded.key;
+        }
+    }
+
+    /**
+     * Reactive variant of {@link #get}: returns a key valid from {@code startTime} to {@code expiryTime} without
+     * blocking, reusing the cached key of the account when it covers that range. Concurrent misses for the same
+     * account subscribe to a single key request; a failed request is not remembered.
+     *
+     * @param account    Storage account identifier, e.g. the account URL
+     * @param startTime  Start of the SAS validity, null for now
+     * @param expiryTime Expiry of the SAS
+     * @param keyLoader  Requests a key for the given start and expiry from the storage service
+     * @return user delegation key, empty when the loader completed without a key
+     */
+    public Mono<K> getAsync(final String account, final OffsetDateTime startTime, final OffsetDateTime expiryTime,
+                            final BiFunction<OffsetDateTime, OffsetDateTime, Mono<K>> keyLoader) {
+        return Mono.defer(() -> {
+            final OffsetDateTime start = startTime == null ? OffsetDateTime.now(clock) : startTime;
+
+            CachedKey<K> cached = keys.get(account);
+            if (cached != null && cached.covers(start, expiryTime)) {
+                refreshIfExpiring(account, cached, keyLoader);
+                return Mono.just(cached.key);
+            }
+
+            return pendingLoads.computeIfAbsent(account, a -> loadAsync(start, expiryTime, keyLoader)
+                            .doOnNext(loaded -> keys.merge(account, loaded, (current, fresh) -> fresh.expiry.isAfter(current.expiry) ? fresh : current))
+                            .doFinally(signal -> pendingLoads.remove(account))
+                            .cache())
+                    // A load started for a narrower range is not reused, the key is requested for this range instead.
+                    .flatMap(loaded -> loaded.covers(start, expiryTime) ? Mono.just(loaded) : loadAsync(start, expiryTime, keyLoader))
+                    .map(loaded -> loaded.key);
+        });
+    }
+
+    /**
+     * Drops the cached key of an account.
+     *
+     * @param account Storage account identifier
+     */
+    public void invalidate(final String account) {
+        keys.remove(account);
+    }
+
+    /**
+     * Requests a key covering the wider of the requested range and the rolling validity window.
+     *
+     * @param start      Requested start
+     * @param expiryTime Requested expiry
+     * @param keyLoader  Key loader
+     * @return loaded key with its validity window
+     */
+    private CachedKey<K> load(final OffsetDateTime start, final OffsetDateTime expiryTime,
+                              final BiFunction<OffsetDateTime, OffsetDateTime, K> keyLoader) {
+        final CachedKey<K> window = window(start, expiryTime);
+        return new CachedKey<>(keyLoader.apply(window.start, window.expiry), window.start, window.expiry);
+    }
+
+    /**
+     * Reactive variant of {@link #load}.
+     *
+     * @param start      Requested start
+     * @param expiryTime Requested expiry
+     * @param keyLoader  Key loader
+     * @return loaded key with its validity window, empty when the loader completed without a key
+     */
+    private Mono<CachedKey<K>> loadAsync(final OffsetDateTime start, final OffsetDateTime expiryTime,
+                                         final BiFunction<OffsetDateTime, OffsetDateTime, Mono<K>> keyLoader) {
+        return Mono.defer(() -> {
+            final CachedKey<K> window = window(start, expiryTime);
+            return keyLoader.apply(window.start, window.expiry).map(key -> new CachedKey<>(key, window.start, window.expiry));
+        });
+    }
+
+    /**
+     * @param start      Requested start
+     * @param expiryTime Requested expiry
+     * @return the wider of the requested range and the rolling validity window, without a key
+     */
+    private CachedKey<K> window(final OffsetDateTime start, final OffsetDateTime expiryTime) {
+        final OffsetDateTime now = OffsetDateTime.now(clock);
+        final OffsetDateTime windowStart = now.minus(CLOCK_SKEW);
+        final OffsetDateTime windowExpiry = now.plus(keyValidity);
+        return new CachedKey<>(null, start.isBefore(windowStart) ? start : windowStart,
+                expiryTime.isAfter(windowExpiry) ? expiryTime : windowExpiry);
+    }
+
+    /**
+     * Starts a background refresh when the cached key is close to expiry, at most one per account at a time.
+     *
+     * @param account   Storage account identifier
+     * @param cached    Cached key
+     * @param keyLoader Key loader, not blocking the caller
+     */
+    private void refreshIfExpiring(final String account, final CachedKey<K> cached,
+                                   final BiFunction<OffsetDateTime, OffsetDateTime, Mono<K>> keyLoader) {
+        if (cached.expiry.minus(refreshAhead).isAfter(OffsetDateTime.now(clock)) || !refreshing.add(account)) {
+            return;
+        }
+        Mono.defer(() -> {
+            OffsetDateTime now = OffsetDateTime.now(clock);
+            return loadAsync(now, now, keyLoader);
+        }).doFinally(signal -> refreshing.remove(account))
+                .subscribe(refreshed -> keys.put(account, refreshed), e -> CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME)
+                        .warn("Background refresh of user delegation key failed for {}", account, e));
+    }
+
+    /**
+     * Key with the validity window it was requested for.
+     *
+     * @param <T> key type
+     */
+    private static final class CachedKey<T> {
+        private final T key;
+        private final OffsetDateTime start;
+        private final OffsetDateTime expiry;
+
+        /**
+         * @param delegationKey user delegation key
+         * @param validFrom     start of validity
+         * @param validUntil    end of validity
+         */
+        CachedKey(final T delegationKey, final OffsetDateTime validFrom, final OffsetDateTime validUntil) {
+            this.key = delegationKey;
+            this.start = validFrom;
+            this.expiry = validUntil;
+        }
+
+        /**
+         * @param requestedStart  SAS start
+         * @param requestedExpiry SAS expiry
+         * @return whether a SAS with this range can be signed with the key
+         */
+        boolean covers(final OffsetDateTime requestedStart, final OffsetDateTime requestedExpiry) {
+            return !requestedStart.isBefore(start) && !requestedExpiry.isAfter(expiry);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.cosmosdb;
+
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.Value;
+import org.opengroup.osdu.azure.di.CosmosQueryCacheConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded, time-limited cache of Cosmos query results, used for reference-data queries whose results rarely change.
+ * Writes made through {@link CosmosStore} and {@link CosmosStoreBulkOperations} invalidate every cached query of
+ * the written collection. A query that was already running when a write happened is not cached, so a stale result
+ * can not be stored after the invalidation.
+ */
+@Component
+@Lazy
+public class CosmosQueryCache {
+
+    private static final String SYSTEM_PARTITION = "system";
+    private static final String CACHE_NAME = "cosmos.query.cache";
+
+    @Autowired
+    private CosmosQueryCacheConfiguration configuration;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Cache<CacheKey, List<?>> cache;
+    private final Map<String, AtomicLong> collectionGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the cache from the configured bounds and publishes its statistics.
+     */
+    @PostConstruct
+    public void initialize() {
+        cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(configuration.getExpirationSeconds(), TimeUnit.SECONDS)
+                .maximumSize(configuration.getMaxEntries())
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            GuavaCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        }
+    }
+
+    /**
+     * Returns the cached result of a query or runs the loader and caches what it returns.
+     *
+     * @param dataPartitionId Data partition id, null for the system database
+     * @param cosmosDBName    Database name
+     * @param collection      Collection name
+     * @param query           {@link SqlQuerySpec} to execute
+     * @param partitionKey    Partition key the query is scoped to, null for cross-partition queries
+     * @param clazz           Class type of response
+     * @param loader          Runs the query when it is not cached
+     * @param <T>             Type
+     * @return Query results
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getOrLoad(
+            final String dataPartitionId,
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final Object partitionKey,
+            final Class<T> clazz,
+            final Supplier<List<T>> loader) {
+        if (!configuration.isEnabled()) {
+            return loader.get();
+        }
+        final String collectionKey = getCollectionKey(dataPartitionId, cosmosDBName, collection);
+        final CacheKey key = new CacheKey(collectionKey, normalize(query.getQueryText()), getParameters(query),
+                String.valueOf(partitionKey), clazz.getName());
+
+        List<?> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return new ArrayList<>((List<T>) cached);
+        }
+
+        final AtomicLong collectionGeneration = getGeneration(collectionKey);
+        final long generation = collectionGeneration.get();
+        List<T> results = loader.get();
+        // Checked and stored under the lock invalidate holds, so an invalidation can not slip in between.
+        synchronized (collectionGeneration) {
+            if (collectionGeneration.get() == generation) {
+                cache.put(key, Collections.unmodifiableList(new ArrayList<>(results)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Drops every cached query of a collection.
+     *
+     * @param dataPartitionId Data partition id, null for the system database
+     * @param cosmosDBName    Database name
+     * @param collection      Collection name
+     */
+    public void invalidate(final String dataPartitionId, final String cosmosDBName, final String collection) {
+        if (cache == null) {
+            return;
+        }
+        final String collectionKey = getCollectionKey(dataPartitionId, cosmosDBName, collection);
+        final AtomicLong collectionGeneration = getGeneration(collectionKey);
+        synchronized (collectionGeneration) {
+            collectionGeneration.incrementAndGet();
+            cache.asMap().keySet().removeIf(key -> key.getCollection().equals(collectionKey));
+        }
+    }
+
+    /**
+     * @return Hit, miss and eviction counts of the cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @param collectionKey Collection key
+     * @return Write generation of the collection
+     */
+    private AtomicLong getGeneration(final String collectionKey) {
+        return collectionGenerations.computeIfAbsent(collectionKey, k -> new AtomicLong());
+    }
+
+    /**
+     * @param dataPartitionId Data partition id, null for the system database
+     * @param cosmosDBName    Database name
+     * @param collection      Collection name
+     * @return Key identifying the collection
+     */
+    private static String getCollectionKey(final String dataPartitionId, final String cosmosDBName, final String collection) {
+        return String.format("%s:%s/%s", dataPartitionId == null ? SYSTEM_PARTITION : dataPartitionId, cosmosDBName, collection);
+    }
+
+    /**
+     * @param queryText Query text
+     * @return Query text with insignificant whitespace collapsed
+     */
+    private static String normalize(final String queryText) {
+        return queryText == null ? "" : queryText.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * @param query {@link SqlQuerySpec}
+     * @return Query parameters in a stable, name-ordered form
+     */
+    private static String getParameters(final SqlQuerySpec query) {
+        List<SqlParameter> parameters = query.getParameters();
+        if (parameters == null || parameters.isEmpty()) {
+            return "";
+        }
+        return parameters.stream()
+                .sorted(Comparator.comparing(SqlParameter::getName))
+                .map(parameter -> parameter.getName() + "=" + parameter.getValue(Object.class))
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * Identity of a cached query result.
+     */
+    @Value
+    private static class CacheKey {
+        private String collection;
+        private String queryText;
+        private String parameters;
+        private String partitionKey;
+        private String resultType;
+    }
+}
@@ -19,6 +19,11 @@ import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.implementation.ConflictException;
 import com.azure.cosmos.implementation.NotFoundException;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkItemResponse;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
 import com.azure.cosmos.models.CosmosItemRequestOptions;
 import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.CosmosQueryRequestOptions;
@@ -27,23 +32,35 @@ import com.azure.cosmos.models.PartitionKey;
 import com.azure.cosmos.models.SqlQuerySpec;
 import com.azure.cosmos.util.CosmosPagedFlux;
 import com.azure.cosmos.util.CosmosPagedIterable;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Strings;
 import org.apache.http.HttpStatus;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.azure.logging.DependencyLogger;
 import org.opengroup.osdu.azure.logging.DependencyLoggingOptions;
+import org.opengroup.osdu.azure.partition.PartitionServiceClient;
 import org.opengroup.osdu.azure.query.CosmosStorePageRequest;
+import org.opengroup.osdu.azure.query.CrossPartitionQueryOptions;
+import org.opengroup.osdu.azure.query.DeleteByQueryOptions;
+import org.opengroup.osdu.azure.query.DeleteByQueryResult;
+import org.opengroup.osdu.azure.query.PartitionQueryResult;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 import static org.opengroup.osdu.azure.cosmosdb.CosmosStoreBulkOperations.REQUEST_TOO_LONG_ERROR_MESSAGE;
 import static org.opengroup.osdu.azure.cosmosdb.CosmosStoreBulkOperations.REQUEST_TOO_LONG_ERROR_REASON;
@@ -83,6 +100,23 @@ import static org.opengroup.osdu.azure.logging.DependencyType.COSMOS_STORE;
  *      void createItemExample() {
  *          cosmosStore.createItem("dataPartitionId", "cosmosDb", "collection", "some-data");
  *      }
+ *
+ *      void queryItemsCachedExample() {
+ *          // served from the query cache when azure.cosmos.query-cache.enabled=true
+ *          List<MySchema> schemas = cosmosStore.queryItemsCached("dataPartitionId", "cosmosDb", "schemas", query, options, MySchema.class);
+ *      }
+ *
+ *      void deleteByQueryExample() {
+ *          SqlQuerySpec query = new SqlQuerySpec("SELECT c.id, c.kind FROM c WHERE c.kind = 'obsolete'");
+ *          DeleteByQueryOptions purge = DeleteByQueryOptions.builder().partitionKeyPath("/kind").requestChargeBudget(10000).build();
+ *          DeleteByQueryResult result = cosmosStore.deleteByQuery("dataPartitionId", "cosmosDb", "collection", query, purge);
+ *          // resume later with purge.setContinuationToken(result.getContinuationToken()) while !result.isCompleted()
+ *      }
+ *
+ *      void queryAcrossPartitionsExample() {
+ *          CrossPartitionQueryOptions fanOut = CrossPartitionQueryOptions.builder().maxParallelism(8).build();
+ *          Stream<PartitionQueryResult<MyObject>> results = cosmosStore.queryAcrossPartitions("cosmosDb", "collection", query, options, MyObject.class, fanOut);
+ *      }
  * }
  * </pre>
  */
@@ -98,6 +132,11 @@ public class CosmosStore {
     private ICosmosClientFactory cosmosClientFactory;
     @Autowired
     private DependencyLogger dependencyLogger;
+    @Lazy
+    @Autowired
+    private PartitionServiceClient partitionService;
+    @Autowired
+    private CosmosQueryCache queryCache;
 
     /**
      * @param dataPartitionId Data partition id
@@ -154,7 +193,11 @@ public class CosmosStore {
             final String id,
             final String partitionKey) {
         CosmosContainer container = getCosmosContainer(dataPartitionId, cosmosDBName, collection);
-        deleteItemInternal(cosmosDBName, collection, container, id, partitionKey);
+        try {
+            deleteItemInternal(cosmosDBName, collection, container, id, partitionKey);
+        } finally {
+            queryCache.invalidate(dataPartitionId, cosmosDBName, collection);
+        }
     }
 
     /**
@@ -170,7 +213,11 @@ public class CosmosStore {
             final String id,
             final String partitionKey) {
         CosmosContainer container = getSystemCosmosContainer(cosmosDBName, collection);
-        deleteItemInternal(cosmosDBName, collection, container, id, partitionKey);
+        try {
+            deleteItemInternal(cosmosDBName, collection, container, id, partitionKey);
+        } finally {
+            queryCache.invalidate(null, cosmosDBName, collection);
+        }
     }
 
     /**
@@ -188,7 +235,11 @@ public class CosmosStore {
             final String partitionKey,
             final T item) {
         CosmosContainer cosmosContainer = getCosmosContainer(dataPartitionId, cosmosDBName, collection);
-        upsertItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        try {
+            upsertItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        } finally {
+            queryCache.invalidate(dataPartitionId, cosmosDBName, collection);
+        }
     }
 
     /**
@@ -204,7 +255,11 @@ public class CosmosStore {
             final String partitionKey,
             final T item) {
         CosmosContainer cosmosContainer = getSystemCosmosContainer(cosmosDBName, collection);
-        upsertItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        try {
+            upsertItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        } finally {
+            queryCache.invalidate(null, cosmosDBName, collection);
+        }
     }
 
     /**
@@ -258,6 +313,7 @@ public class CosmosStore {
                     .success(statusCode == HttpStatus.SC_OK)
                     .build();
             dependencyLogger.logDependency(options);
+            queryCache.invalidate(dataPartitionId, cosmosDBName, collection);
         }
     }
 
@@ -276,7 +332,11 @@ public class CosmosStore {
             final String partitionKey,
             final T item) {
         CosmosContainer cosmosContainer = getCosmosContainer(dataPartitionId, cosmosDBName, collection);
-        createItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        try {
+            createItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        } finally {
+            queryCache.invalidate(dataPartitionId, cosmosDBName, collection);
+        }
     }
 
     /**
@@ -292,7 +352,11 @@ public class CosmosStore {
             final String partitionKey,
             final T item) {
         CosmosContainer cosmosContainer = getSystemCosmosContainer(cosmosDBName, collection);
-        createItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        try {
+            createItemInternal(cosmosDBName, collection, cosmosContainer, partitionKey, item);
+        } finally {
+            queryCache.invalidate(null, cosmosDBName, collection);
+        }
     }
 
     // Find All and Queries
@@ -354,6 +418,53 @@ public class CosmosStore {
         return queryItemsInternal(cosmosDBName, collection, cosmosContainer, query, options, clazz);
     }
 
+    /**
+     * Same as {@link #queryItems(String, String, String, SqlQuerySpec, CosmosQueryRequestOptions, Class)}, but the
+     * results are served from the query cache when it is enabled. Meant for reference data that rarely changes;
+     * the cache is invalidated by writes to the collection made through this class.
+     *
+     * @param dataPartitionId Data partition id
+     * @param cosmosDBName    Database name
+     * @param collection      Collection name
+     * @param query           {@link SqlQuerySpec} to execute
+     * @param options         Options
+     * @param clazz           Class type of response
+     * @param <T>             Type
+     * @return List<T> List of items found
+     */
+    public <T> List<T> queryItemsCached(
+            final String dataPartitionId,
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final CosmosQueryRequestOptions options,
+            final Class<T> clazz) {
+        return queryCache.getOrLoad(dataPartitionId, cosmosDBName, collection, query, getQueryPartitionKey(options), clazz,
+                () -> queryItems(dataPartitionId, cosmosDBName, collection, query, options, clazz));
+    }
+
+    /**
+     * Same as {@link #queryItems(String, String, SqlQuerySpec, CosmosQueryRequestOptions, Class)}, but the results
+     * are served from the query cache when it is enabled.
+     *
+     * @param cosmosDBName Database name
+     * @param collection   Collection name
+     * @param query        {@link SqlQuerySpec} to execute
+     * @param options      Options
+     * @param clazz        Class type of response
+     * @param <T>          Type
+     * @return List<T> List of items found
+     */
+    public <T> List<T> queryItemsCached(
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final CosmosQueryRequestOptions options,
+            final Class<T> clazz) {
+        return queryCache.getOrLoad(null, cosmosDBName, collection, query, getQueryPartitionKey(options), clazz,
+                () -> queryItems(cosmosDBName, collection, query, options, clazz));
+    }
+
     /**
      * @param dataPartitionId   Data partition id
      * @param cosmosDBName      Database
@@ -625,6 +736,183 @@ public class CosmosStore {
         return new PageImpl(results, pageRequest, documentNumber);
     }
 
+    /**
+     * Runs the same query against every data partition known to the partition service.
+     *
+     * @param cosmosDBName Database name
+     * @param collection   Collection name
+     * @param query        {@link SqlQuerySpec} to execute
+     * @param options      Query options, shared by all partition queries
+     * @param clazz        Class type of response
+     * @param <T>          Type
+     * @return Stream of per-partition results, in the order the partitions complete
+     */
+    public <T> Stream<PartitionQueryResult<T>> queryAcrossPartitions(
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final CosmosQueryRequestOptions options,
+            final Class<T> clazz) {
+        return queryAcrossPartitions(cosmosDBName, collection, query, options, clazz, CrossPartitionQueryOptions.builder().build());
+    }
+
+    /**
+     * Runs the same query against several data partitions concurrently. At most
+     * {@link CrossPartitionQueryOptions#getMaxParallelism()} partitions are queried at a time and a partition
+     * that does not finish within {@link CrossPartitionQueryOptions#getPartitionTimeout()} is reported as failed.
+     * A failing partition does not fail the whole fan-out; its result carries the error instead.
+     *
+     * @param cosmosDBName          Database name
+     * @param collection            Collection name
+     * @param query                 {@link SqlQuerySpec} to execute
+     * @param options               Query options, shared by all partition queries
+     * @param clazz                 Class type of response
+     * @param crossPartitionOptions Partitions to query, parallelism and per-partition timeout
+     * @param <T>                   Type
+     * @return Stream of per-partition results, in the order the partitions complete
+     */
+    public <T> Stream<PartitionQueryResult<T>> queryAcrossPartitions(
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final CosmosQueryRequestOptions options,
+            final Class<T> clazz,
+            final CrossPartitionQueryOptions crossPartitionOptions) {
+        List<String> dataPartitionIds = crossPartitionOptions.getDataPartitionIds();
+        if (dataPartitionIds == null || dataPartitionIds.isEmpty()) {
+            dataPartitionIds = partitionService.listPartitions();
+        }
+        final int maxParallelism = Math.max(1, crossPartitionOptions.getMaxParallelism());
+        final Duration partitionTimeout = crossPartitionOptions.getPartitionTimeout();
+        CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("Querying {} partitions with parallelism {}",
+                dataPartitionIds.size(), maxParallelism);
+
+        return Flux.fromIterable(dataPartitionIds)
+                .flatMap(dataPartitionId -> queryPartitionAsync(dataPartitionId, cosmosDBName, collection, query, options,
+                        clazz, partitionTimeout), maxParallelism)
+                .toStream();
+    }
+
+    /**
+     * Deletes every document matched by a projection query. The query is read page by page and each page is deleted
+     * through the bulk executor, so the matching documents are never held in memory all at once. The query only
+     * needs to project the document id and the partition key, e.g. {@code SELECT c.id, c.kind FROM c WHERE ...}.
+     * <p>
+     * The purge stops early, returning a continuation token, when the request charge budget is used up or when a
+     * Cosmos error interrupts it. Passing that token back through {@link DeleteByQueryOptions#setContinuationToken}
+     * resumes after the last page that was fully processed. Documents that failed to delete in a processed page are
+     * not revisited by the continuation; re-running the query without a token picks them up.
+     *
+     * @param dataPartitionId Data partition id
+     * @param cosmosDBName    Database name
+     * @param collection      Collection name
+     * @param query           Projection query selecting the documents to delete
+     * @param deleteOptions   Partition key path, page size, concurrency, request charge budget and continuation
+     * @return Counts, consumed request units and the continuation token
+     */
+    public DeleteByQueryResult deleteByQuery(
+            final String dataPartitionId,
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final DeleteByQueryOptions deleteOptions) {
+        CosmosContainer container = getCosmosContainer(dataPartitionId, cosmosDBName, collection);
+        CosmosBulkExecutionOptions bulkExecutionOptions = new CosmosBulkExecutionOptions();
+        bulkExecutionOptions.setMaxMicroBatchConcurrency(deleteOptions.getMaxConcurrencyPerPartitionRange());
+
+        final long start = System.currentTimeMillis();
+        long deletedCount = 0;
+        long notFoundCount = 0;
+        long failedCount = 0;
+        double requestCharge = 0.0;
+        String continuationToken = deleteOptions.getContinuationToken();
+        AppException error = null;
+        int statusCode = HttpStatus.SC_OK;
+        boolean stoppedEarly = false;
+
+        try {
+            Iterator<FeedResponse<JsonNode>> pages = container.queryItems(query, new CosmosQueryRequestOptions(), JsonNode.class)
+                    .iterableByPage(continuationToken, deleteOptions.getPageSize())
+                    .iterator();
+            while (pages.hasNext()) {
+                FeedResponse<JsonNode> page = pages.next();
+                requestCharge += page.getRequestCharge();
+
+                List<CosmosItemOperation> deleteOperations = new ArrayList<>();
+                for (JsonNode document : page.getResults()) {
+                    deleteOperations.add(CosmosBulkOperations.getDeleteItemOperation(
+                            document.path("id").asText(), getPartitionKey(document, deleteOptions.getPartitionKeyPath())));
+                }
+                if (!deleteOperations.isEmpty()) {
+                    for (CosmosBulkOperationResponse<Object> response : container.executeBulkOperations(deleteOperations, bulkExecutionOptions)) {
+                        CosmosBulkItemResponse itemResponse = response == null ? null : response.getResponse();
+                        if (itemResponse == null) {
+                            failedCount++;
+                            continue;
+                        }
+                        requestCharge += itemResponse.getRequestCharge();
+                        if (itemResponse.isSuccessStatusCode()) {
+                            deletedCount++;
+                        } else if (itemResponse.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+                            notFoundCount++;
+                        } else {
+                            failedCount++;
+                        }
+                    }
+                }
+                continuationToken = page.getContinuationToken();
+                CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).debug("Deleted {} documents so far, request charge {}",
+                        deletedCount, requestCharge);
+
+                if (Strings.isNullOrEmpty(continuationToken)) {
+                    break;
+                }
+                if (deleteOptions.getRequestChargeBudget() > 0 && requestCharge >= deleteOptions.getRequestChargeBudget()) {
+                    CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).info("Request charge budget of {} reached, stopping purge",
+                            deleteOptions.getRequestChargeBudget());
+                    stoppedEarly = true;
+                    break;
+                }
+                if (!paceRequestCharge(requestCharge, start, deleteOptions.getMaxRequestChargePerSecond())) {
+                    stoppedEarly = true;
+                    break;
+                }
+            }
+            if (!stoppedEarly) {
+                continuationToken = null;
+            }
+        } catch (CosmosException e) {
+            statusCode = e.getStatusCode();
+            error = handleCosmosStoreException(statusCode, "Delete by query was interrupted", e);
+        } finally {
+            if (failedCount > 0 && statusCode == HttpStatus.SC_OK) {
+                statusCode = HttpStatus.SC_MULTI_STATUS;
+            }
+            final DependencyLoggingOptions loggingOptions = DependencyLoggingOptions.builder()
+                    .type(COSMOS_STORE)
+                    .name("DELETE_BY_QUERY")
+                    .data(String.format("query=%s deleted=%d failed=%d", query.getQueryText(), deletedCount, failedCount))
+                    .target(getDependencyTarget(dataPartitionId, cosmosDBName, collection))
+                    .timeTakenInMs(System.currentTimeMillis() - start)
+                    .requestCharge(requestCharge)
+                    .resultCode(statusCode)
+                    .success(error == null && failedCount == 0)
+                    .build();
+            dependencyLogger.logDependency(loggingOptions);
+            queryCache.invalidate(dataPartitionId, cosmosDBName, collection);
+        }
+
+        return DeleteByQueryResult.builder()
+                .deletedCount(deletedCount)
+                .notFoundCount(notFoundCount)
+                .failedCount(failedCount)
+                .requestCharge(requestCharge)
+                .continuationToken(continuationToken)
+                .completed(error == null && continuationToken == null)
+                .error(error)
+                .build();
+    }
+
     /**
      * @param cosmosDBName Database name
      * @param collection   Collection name
@@ -880,6 +1168,174 @@ public class CosmosStore {
         return results;
     }
 
+    /**
+     * Queries a single partition as part of a cross-partition fan-out. Errors are turned into a failed result
+     * so that one partition cannot cancel the others.
+     *
+     * @param dataPartitionId  Data partition id
+     * @param cosmosDBName     Database name
+     * @param collection       Collection name
+     * @param query            {@link SqlQuerySpec} to execute
+     * @param options          Query options
+     * @param clazz            Class type of response
+     * @param partitionTimeout Time allowed for the partition
+     * @param <T>              Type
+     * @return Mono emitting the partition result
+     */
+    private <T> Mono<PartitionQueryResult<T>> queryPartitionAsync(
+            final String dataPartitionId,
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final CosmosQueryRequestOptions options,
+            final Class<T> clazz,
+            final Duration partitionTimeout) {
+        return Mono.defer(() -> {
+            final long start = System.currentTimeMillis();
+            final double[] requestCharge = {0.0};
+            return Mono.defer(() -> {
+                CosmosAsyncContainer container = cosmosClientFactory.getAsyncClient(dataPartitionId)
+                        .getDatabase(cosmosDBName)
+                        .getContainer(collection);
+                return container.queryItems(query, options, clazz)
+                        .byPage(PREFERRED_PAGE_SIZE)
+                        .doOnNext(page -> requestCharge[0] += page.getRequestCharge())
+                        .concatMapIterable(FeedResponse::getResults)
+                        .collectList();
+            })
+                    .timeout(partitionTimeout)
+                    .map(results -> {
+                        final long timeTaken = System.currentTimeMillis() - start;
+                        logPartitionQueryDependency(dataPartitionId, cosmosDBName, collection, query, timeTaken, requestCharge[0], HttpStatus.SC_OK);
+                        return PartitionQueryResult.<T>builder()
+                                .dataPartitionId(dataPartitionId)
+                                .results(results)
+                                .requestCharge(requestCharge[0])
+                                .timeTakenInMs(timeTaken)
+                                .resultCode(HttpStatus.SC_OK)
+                                .success(true)
+                                .build();
+                    })
+                    .onErrorResume(Exception.class, e -> {
+                        final long timeTaken = System.currentTimeMillis() - start;
+                        final int statusCode = getPartitionQueryStatusCode(e);
+                        final AppException error = handleCosmosStoreException(statusCode,
+                                String.format("Failed to query data partition %s", dataPartitionId), e);
+                        logPartitionQueryDependency(dataPartitionId, cosmosDBName, collection, query, timeTaken, requestCharge[0], statusCode);
+                        return Mono.just(PartitionQueryResult.<T>builder()
+                                .dataPartitionId(dataPartitionId)
+                                .results(Collections.emptyList())
+                                .requestCharge(requestCharge[0])
+                                .timeTakenInMs(timeTaken)
+                                .resultCode(statusCode)
+                                .success(false)
+                                .error(error)
+                                .build());
+                    });
+        });
+    }
+
+    /**
+     * @param e Error raised by a partition query
+     * @return Status code reported for the failed partition
+     */
+    private int getPartitionQueryStatusCode(final Exception e) {
+        if (e instanceof TimeoutException) {
+            return HttpStatus.SC_GATEWAY_TIMEOUT;
+        }
+        if (e instanceof CosmosException) {
+            return ((CosmosException) e).getStatusCode();
+        }
+        if (e instanceof AppException) {
+            return ((AppException) e).getError().getCode();
+        }
+        return HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * @param dataPartitionId Data partition id
+     * @param cosmosDBName    Database name
+     * @param collection      Collection name
+     * @param query           {@link SqlQuerySpec} executed
+     * @param timeTaken       Time taken in milliseconds
+     * @param requestCharge   Request units consumed
+     * @param statusCode      Result code
+     */
+    private void logPartitionQueryDependency(
+            final String dataPartitionId,
+            final String cosmosDBName,
+            final String collection,
+            final SqlQuerySpec query,
+            final long timeTaken,
+            final double requestCharge,
+            final int statusCode) {
+        final DependencyLoggingOptions loggingOptions = DependencyLoggingOptions.builder()
+                .type(COSMOS_STORE)
+                .name("QUERY_ITEMS_ACROSS_PARTITIONS")
+                .data(String.format("query=%s", query.getQueryText()))
+                .target(getDependencyTarget(dataPartitionId, cosmosDBName, collection))
+                .timeTakenInMs(timeTaken)
+                .requestCharge(requestCharge)
+                .resultCode(statusCode)
+                .success(statusCode == HttpStatus.SC_OK)
+                .build();
+        dependencyLogger.logDependency(loggingOptions);
+    }
+
+    /**
+     * @param options Query options
+     * @return Partition key the query is scoped to, null when it is not scoped
+     */
+    private PartitionKey getQueryPartitionKey(final CosmosQueryRequestOptions options) {
+        return options == null ? null : options.getPartitionKey();
+    }
+
+    /**
+     * @param document         Projected document
+     * @param partitionKeyPath Path of the partition key property, e.g. "/partitionKey"
+     * @return Partition key of the document, {@link PartitionKey#NONE} when the property is absent
+     */
+    private PartitionKey getPartitionKey(final JsonNode document, final String partitionKeyPath) {
+        JsonNode value = document.at(partitionKeyPath.startsWith("/") ? partitionKeyPath : "/" + partitionKeyPath);
+        if (value.isMissingNode()) {
+            return PartitionKey.NONE;
+        }
+        if (value.isNumber()) {
+            return new PartitionKey(value.numberValue());
+        }
+        if (value.isBoolean()) {
+            return new PartitionKey(value.booleanValue());
+        }
+        return new PartitionKey(value.asText());
+    }
+
+    /**
+     * Sleeps long enough to keep the consumed request units under the given rate.
+     *
+     * @param requestCharge             Request units consumed so far
+     * @param start                     Start of the operation in epoch milliseconds
+     * @param maxRequestChargePerSecond Allowed request units per second, unlimited when not positive
+     * @return false when the thread was interrupted while waiting
+     */
+    private boolean paceRequestCharge(final double requestCharge, final long start, final double maxRequestChargePerSecond) {
+        if (maxRequestChargePerSecond <= 0) {
+            return true;
+        }
+        final long expectedElapsed = (long) (requestCharge / maxRequestChargePerSecond * 1000);
+        final long wait = expectedElapsed - (System.currentTimeMillis() - start);
+        if (wait <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(wait);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Delete by query interrupted while pacing request charge", e);
+            return false;
+        }
+    }
+
     /**
      * @param dataPartitionId Data partition id
      * @param cosmosDBName    Database name
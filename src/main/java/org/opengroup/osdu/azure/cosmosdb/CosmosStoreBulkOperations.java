@@ -47,6 +47,9 @@ public class CosmosStoreBulkOperations {
     @Autowired
     private ICosmosClientFactory cosmosClientFactory;
 
+    @Autowired
+    private CosmosQueryCache queryCache;
+
     /**
      * Bulk upserts item into cosmos collection using CosmosClient.
      * Partition Keys must be provided in the same order as records.
@@ -237,6 +240,7 @@ public class CosmosStoreBulkOperations {
                     .success(status == HttpStatus.SC_OK)
                     .build();
             dependencyLogger.logDependency(loggingOptions);
+            queryCache.invalidate(dataPartitionId, cosmosDBName, collectionName);
         }
     }
 }
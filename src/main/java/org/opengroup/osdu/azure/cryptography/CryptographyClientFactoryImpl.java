@@ -1,6 +1,7 @@
 package org.opengroup.osdu.azure.cryptography;
 
 import org.opengroup.osdu.azure.cache.CryptographyClientCache;
+import org.opengroup.osdu.azure.httpconfig.HttpClientProvider;
 import org.opengroup.osdu.azure.partition.PartitionInfoAzure;
 import org.opengroup.osdu.azure.partition.PartitionServiceClient;
 import org.opengroup.osdu.common.Validators;
@@ -23,6 +24,8 @@ public class CryptographyClientFactoryImpl implements CryptographyClientFactory
   private PartitionServiceClient partitionService;
   @Autowired
   private CryptographyClientCache clientCache;
+  @Autowired(required = false)
+  private HttpClientProvider httpClientProvider;
 
   /**
    * @param partitionId partition id
@@ -39,10 +42,13 @@ public class CryptographyClientFactoryImpl implements CryptographyClientFactory
 
     PartitionInfoAzure pi = partitionService.getPartition(partitionId);
 
-    CryptographyClient cryptographyClient = new CryptographyClientBuilder()
+    CryptographyClientBuilder cryptographyClientBuilder = new CryptographyClientBuilder()
         .keyIdentifier(pi.getCryptographyEncryptionKeyIdentifier())
-        .credential(new DefaultAzureCredentialBuilder().build())
-        .buildClient();
+        .credential(new DefaultAzureCredentialBuilder().build());
+    if (httpClientProvider != null) {
+      cryptographyClientBuilder.httpClient(httpClientProvider.getHttpClient());
+    }
+    CryptographyClient cryptographyClient = cryptographyClientBuilder.buildClient();
     clientCache.put(cacheKey, cryptographyClient);
     return cryptographyClient;
   }
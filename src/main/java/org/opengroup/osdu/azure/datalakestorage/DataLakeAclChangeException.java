@@ -0,0 +1,45 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.datalakestorage;
+
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+/**
+ * Thrown when a recursive access control change stops at a failed batch. Pass the continuation token to the same
+ * change again to resume it from that batch.
+ */
+public class DataLakeAclChangeException extends AppException {
+    private final String continuationToken;
+
+    /**
+     * @param status  Status code
+     * @param reason  Reason of the failure
+     * @param message Message of the failure
+     * @param token   Continuation token to resume the change from
+     * @param ex      Original exception
+     */
+    public DataLakeAclChangeException(final int status, final String reason, final String message, final String token,
+                                      final Exception ex) {
+        super(status, reason, message, ex);
+        this.continuationToken = token;
+    }
+
+    /**
+     * @return continuation token to resume the change from
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+}
@@ -21,13 +21,16 @@ import com.azure.storage.file.datalake.DataLakeDirectoryClient;
 import com.azure.storage.file.datalake.DataLakeFileSystemClient;
 import com.azure.storage.file.datalake.DataLakeServiceClient;
 import com.azure.storage.file.datalake.DataLakeServiceClientBuilder;
+import com.google.common.hash.Hashing;
 import org.opengroup.osdu.azure.di.BlobStoreRetryConfiguration;
 import org.opengroup.osdu.azure.di.MSIConfiguration;
+import org.opengroup.osdu.azure.httpconfig.HttpClientProvider;
 import org.opengroup.osdu.azure.partition.PartitionInfoAzure;
 import org.opengroup.osdu.azure.partition.PartitionServiceClient;
 import org.opengroup.osdu.common.Validators;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -37,7 +40,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public final class DataLakeClientFactoryImpl implements IDataLakeClientFactory {
 
-    private Map<String, DataLakeServiceClient> dataLakeContainerClientMap;
+    private final Map<String, DataLakeServiceClient> dataLakePartitionClientMap = new ConcurrentHashMap<>();
+    private final Map<String, DataLakeServiceClient> dataLakeAccountClientMap = new ConcurrentHashMap<>();
 
     @Autowired
     private DefaultAzureCredential defaultAzureCredential;
@@ -51,6 +55,9 @@ public final class DataLakeClientFactoryImpl implements IDataLakeClientFactory {
     @Autowired
     private MSIConfiguration msiConfiguration;
 
+    @Autowired(required = false)
+    private HttpClientProvider httpClientProvider;
+
     /**
      * Constructor to initialize instance of {@link DataLakeClientFactoryImpl}.
      * @param credentials Azure Credentials to use
@@ -60,7 +67,6 @@ public final class DataLakeClientFactoryImpl implements IDataLakeClientFactory {
                                      final PartitionServiceClient partitionServiceClient) {
         this.defaultAzureCredential = credentials;
         this.partitionService = partitionServiceClient;
-        dataLakeContainerClientMap = new ConcurrentHashMap<>();
     }
     /**
      * create DataLakeDirectoryClient.
@@ -90,18 +96,13 @@ public final class DataLakeClientFactoryImpl implements IDataLakeClientFactory {
         Validators.checkNotNullAndNotEmpty(dataPartitionId, "dataPartitionId");
         Validators.checkNotNullAndNotEmpty(fileSystemName, "fileSystemName");
 
-        String cacheKey = String.format("%s-%s", dataPartitionId, fileSystemName);
-        DataLakeServiceClient dataLakeServiceClient;
-        if (this.dataLakeContainerClientMap.containsKey(cacheKey)) {
-            dataLakeServiceClient = this.dataLakeContainerClientMap.get(cacheKey);
-        } else {
-            dataLakeServiceClient = getDataLakeServiceClient(dataPartitionId);
-            this.dataLakeContainerClientMap.put(cacheKey, dataLakeServiceClient);
-        }
-        return dataLakeServiceClient.getFileSystemClient(fileSystemName);
+        return getDataLakeServiceClient(dataPartitionId).getFileSystemClient(fileSystemName);
     }
 
     /**
+     * Returns the client of the partition's hierarchical storage account. Clients are cached per partition, and
+     * partitions sharing a storage account share one client. Shared key clients are also keyed by a fingerprint of
+     * the account key, so a partition invalidated after a key rotation gets a client with the new key.
      *
      * @param dataPartitionId dataPartitionId
      * @return DataLakeServiceClient
@@ -109,8 +110,50 @@ public final class DataLakeClientFactoryImpl implements IDataLakeClientFactory {
     @Override
     public DataLakeServiceClient getDataLakeServiceClient(
             final String dataPartitionId) {
+        Validators.checkNotNullAndNotEmpty(dataPartitionId, "dataPartitionId");
+        DataLakeServiceClient cached = this.dataLakePartitionClientMap.get(dataPartitionId);
+        if (cached != null) {
+            return cached;
+        }
         PartitionInfoAzure pi = this.partitionService.getPartition(dataPartitionId);
+        DataLakeServiceClient client = this.dataLakeAccountClientMap.computeIfAbsent(getAccountCacheKey(pi), key -> createDataLakeServiceClient(pi));
+        DataLakeServiceClient existing = this.dataLakePartitionClientMap.putIfAbsent(dataPartitionId, client);
+        return existing == null ? client : existing;
+    }
+
+    /**
+     * Drops the cached client of a partition together with its cached partition info, e.g. after the account key
+     * was rotated. The next call for the partition reads the partition info again.
+     *
+     * @param dataPartitionId dataPartitionId
+     */
+    @Override
+    public void invalidate(final String dataPartitionId) {
+        DataLakeServiceClient removed = this.dataLakePartitionClientMap.remove(dataPartitionId);
+        if (removed != null && !this.dataLakePartitionClientMap.containsValue(removed)) {
+            this.dataLakeAccountClientMap.values().remove(removed);
+        }
+        this.partitionService.invalidatePartition(dataPartitionId);
+    }
 
+    /**
+     * @param pi partition info
+     * @return key of the account client cache
+     */
+    private String getAccountCacheKey(final PartitionInfoAzure pi) {
+        String accountKey = String.format("%s-%s", pi.getHierarchicalStorageAccountBlobEndpoint(), pi.getHierarchicalStorageAccountName());
+        if (msiConfiguration.getIsEnabled() || pi.getHierarchicalStorageAccountKey() == null) {
+            return accountKey;
+        }
+        return accountKey + "-" + Hashing.sha256().hashString(pi.getHierarchicalStorageAccountKey(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     *
+     * @param pi partition info
+     * @return DataLakeServiceClient
+     */
+    private DataLakeServiceClient createDataLakeServiceClient(final PartitionInfoAzure pi) {
         String endpoint = pi.getHierarchicalStorageAccountBlobEndpoint();
 
         DataLakeServiceClientBuilder dataLakeServiceClientBuilder = getDataLakeServiceClientBuilder(endpoint);
@@ -139,15 +182,7 @@ public final class DataLakeClientFactoryImpl implements IDataLakeClientFactory {
     public DataLakeServiceClient getDataLakeServiceClient(
             final String dataPartitionId,
             final String fileSystemName) {
-        String cacheKey = String.format("%s-%s", dataPartitionId, fileSystemName);
-        DataLakeServiceClient dataLakeServiceClient;
-        if (this.dataLakeContainerClientMap.containsKey(cacheKey)) {
-            dataLakeServiceClient = this.dataLakeContainerClientMap.get(cacheKey);
-        } else {
-            dataLakeServiceClient = getDataLakeServiceClient(dataPartitionId);
-            this.dataLakeContainerClientMap.put(cacheKey, dataLakeServiceClient);
-        }
-        return dataLakeServiceClient;
+        return getDataLakeServiceClient(dataPartitionId);
     }
 
     /**
@@ -157,8 +192,12 @@ public final class DataLakeClientFactoryImpl implements IDataLakeClientFactory {
      */
     private DataLakeServiceClientBuilder getDataLakeServiceClientBuilder(final String endpoint) {
         RequestRetryOptions requestRetryOptions = blobStoreRetryConfiguration.getRequestRetryOptions();
-        return new DataLakeServiceClientBuilder()
+        DataLakeServiceClientBuilder dataLakeServiceClientBuilder = new DataLakeServiceClientBuilder()
                 .endpoint(endpoint)
                 .retryOptions(requestRetryOptions);
+        if (httpClientProvider != null) {
+            dataLakeServiceClientBuilder.httpClient(httpClientProvider.getHttpClient());
+        }
+        return dataLakeServiceClientBuilder;
     }
 }
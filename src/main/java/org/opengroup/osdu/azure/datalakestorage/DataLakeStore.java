@@ -15,24 +15,59 @@
 package org.opengroup.osdu.azure.datalakestorage;
 
 import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.Context;
+import com.azure.storage.common.ParallelTransferOptions;
 import com.azure.storage.common.sas.SasProtocol;
 import com.azure.storage.file.datalake.DataLakeDirectoryClient;
+import com.azure.storage.file.datalake.DataLakeFileClient;
+import com.azure.storage.file.datalake.DataLakeFileSystemClient;
 import com.azure.storage.file.datalake.DataLakeServiceClient;
+import com.azure.storage.file.datalake.models.AccessControlChangeResult;
+import com.azure.storage.file.datalake.models.AccessControlChanges;
+import com.azure.storage.file.datalake.models.DataLakeAclChangeFailedException;
+import com.azure.storage.file.datalake.models.DataLakeStorageException;
+import com.azure.storage.file.datalake.models.ListPathsOptions;
+import com.azure.storage.file.datalake.models.PathInfo;
+import com.azure.storage.file.datalake.models.PathAccessControlEntry;
 import com.azure.storage.file.datalake.models.PathItem;
 import com.azure.storage.file.datalake.models.UserDelegationKey;
 import com.azure.storage.file.datalake.sas.DataLakeServiceSasSignatureValues;
+import com.azure.storage.file.datalake.options.DataLakeFileOutputStreamOptions;
+import com.azure.storage.file.datalake.options.PathSetAccessControlRecursiveOptions;
+import com.azure.storage.file.datalake.options.PathUpdateAccessControlRecursiveOptions;
 import com.azure.storage.file.datalake.sas.FileSystemSasPermission;
 import org.apache.http.HttpStatus;
+import org.opengroup.osdu.azure.cache.UserDelegationKeyCache;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.azure.logging.DependencyPayload;
+import org.opengroup.osdu.azure.logging.LoggedListing;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * A simpler interface to interact with Azure DataLake storage Gen2.
@@ -40,7 +75,9 @@ import java.util.List;
 public class DataLakeStore {
 
     private IDataLakeClientFactory dataLakeClientFactory;
+    private final UserDelegationKeyCache<UserDelegationKey> userDelegationKeyCache = UserDelegationKeyCache.shared(UserDelegationKey.class);
     private static final Logger LOGGER = LoggerFactory.getLogger(DataLakeStore.class);
+    private static final int LIST_PATHS_TIMEOUT_IN_SECONDS = 60;
 
 
     /**
@@ -138,7 +175,7 @@ public class DataLakeStore {
         OffsetDateTime startTime = OffsetDateTime.now();
         DataLakeServiceClient dataLakeServiceClient = dataLakeClientFactory.getDataLakeServiceClient(dataPartitionId, fileSystemName);
 
-        UserDelegationKey userDelegationKey = dataLakeServiceClient.getUserDelegationKey(startTime, expiryTime);
+        UserDelegationKey userDelegationKey = userDelegationKeyCache.get(dataLakeServiceClient.getAccountUrl(), startTime, expiryTime, dataLakeServiceClient::getUserDelegationKey);
         final long start = System.currentTimeMillis();
         String sasToken = client.generateUserDelegationSas(sign, userDelegationKey);
 
@@ -198,6 +235,245 @@ public class DataLakeStore {
         return extractFileNameFromPath(pathItems);
     }
 
+    /**
+     * Lists the paths below a directory recursively as a lazily paged stream; pages are fetched while the stream
+     * is consumed. Close the stream when it is not consumed to the end.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param directoryName directory to list, null for the whole file system
+     * @param maxResultsPerPage page size, null for the service default
+     * @return stream of files and directories below the directory
+     */
+    public Stream<PathItem> listPaths(final String dataPartitionId, final String containerName, final String directoryName,
+                                      final Integer maxResultsPerPage) {
+        DataLakeFileSystemClient fileSystemClient = getFileSystemClient(dataPartitionId, containerName);
+        ListPathsOptions options = new ListPathsOptions().setPath(directoryName).setRecursive(true).setMaxResults(maxResultsPerPage);
+        Flux<PathItem> pathItems = Flux.defer(() -> Flux.fromIterable(
+                fileSystemClient.listPaths(options, Duration.ofSeconds(LIST_PATHS_TIMEOUT_IN_SECONDS))));
+        return toLoggedStream(pathItems, containerName, directoryName);
+    }
+
+    /**
+     * Lists one page of the paths below a directory, resuming from a continuation token.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param directoryName directory to list, null for the whole file system
+     * @param recursive whether to include the contents of subdirectories
+     * @param maxResultsPerPage page size, null for the service default
+     * @param continuationToken token returned with the previous page, null for the first page
+     * @return page of paths; its continuation token is null on the last page
+     */
+    public PagedResponse<PathItem> listPathsPage(final String dataPartitionId, final String containerName, final String directoryName,
+                                                 final boolean recursive, final Integer maxResultsPerPage, final String continuationToken) {
+        DataLakeFileSystemClient fileSystemClient = getFileSystemClient(dataPartitionId, containerName);
+        ListPathsOptions options = new ListPathsOptions().setPath(directoryName).setRecursive(recursive).setMaxResults(maxResultsPerPage);
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            return fileSystemClient.listPaths(options, Duration.ofSeconds(LIST_PATHS_TIMEOUT_IN_SECONDS))
+                    .iterableByPage(continuationToken)
+                    .iterator()
+                    .next();
+        } catch (DataLakeStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleDataLakeStoreException(statusCode, "Failed to list paths", ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            logDependency("LIST_PATHS_PAGE", containerName + "/" + directoryName, containerName, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * Lists the paths below a directory by listing each subdirectory separately, with up to maxConcurrency
+     * directories listed at the same time. Paths are emitted as they arrive, so the stream is not in name order.
+     * Close the stream when it is not consumed to the end.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param directoryName directory to list, null for the whole file system
+     * @param maxConcurrency maximum number of directories listed at the same time
+     * @return stream of files and directories below the directory
+     */
+    public Stream<PathItem> listPathsParallel(final String dataPartitionId, final String containerName, final String directoryName,
+                                              final int maxConcurrency) {
+        DataLakeFileSystemClient fileSystemClient = getFileSystemClient(dataPartitionId, containerName);
+        Flux<PathItem> pathItems = Flux.using(
+                () -> Schedulers.newBoundedElastic(maxConcurrency, Integer.MAX_VALUE, "datalake-list"),
+                scheduler -> walk(fileSystemClient, directoryName, scheduler),
+                Scheduler::dispose);
+        return toLoggedStream(pathItems, containerName, directoryName);
+    }
+
+    /**
+     * Uploads a local file, appending chunks concurrently and flushing once all chunks are written. An existing
+     * file is replaced.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param filePath path of the file in the file system
+     * @param source local file to upload
+     * @param transferOptions chunk size and concurrency, null for the SDK defaults
+     */
+    public void uploadFile(final String dataPartitionId, final String containerName, final String filePath,
+                           final Path source, final ParallelTransferOptions transferOptions) {
+        DataLakeFileClient fileClient = getFileSystemClient(dataPartitionId, containerName).getFileClient(filePath);
+        logged("UPLOAD_FILE_DATALAKE", containerName, filePath, () -> {
+            fileClient.uploadFromFile(source.toString(), transferOptions, null, null, null, null);
+            return null;
+        });
+    }
+
+    /**
+     * Downloads a file to a local file with concurrent ranged reads. An existing local file is overwritten.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param filePath path of the file in the file system
+     * @param target local file to write
+     * @param transferOptions range size and concurrency, null for the SDK defaults
+     * @return number of bytes downloaded
+     */
+    public long downloadToFile(final String dataPartitionId, final String containerName, final String filePath,
+                               final Path target, final ParallelTransferOptions transferOptions) {
+        DataLakeFileClient fileClient = getFileSystemClient(dataPartitionId, containerName).getFileClient(filePath);
+        Set<OpenOption> openOptions = new HashSet<>(Arrays.asList(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        return logged("DOWNLOAD_TO_FILE_DATALAKE", containerName, filePath, () -> fileClient.readToFileWithResponse(target.toString(), null,
+                transferOptions, null, null, false, openOptions, null, Context.NONE).getValue().getFileSize());
+    }
+
+    /**
+     * Opens a stream that writes a file in chunks, uploading up to the configured number of chunks concurrently.
+     * The file is flushed when the stream is closed. An existing file is replaced.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param filePath path of the file in the file system
+     * @param transferOptions chunk size and concurrency, null for the SDK defaults
+     * @return stream writing the file
+     */
+    public OutputStream openOutputStream(final String dataPartitionId, final String containerName, final String filePath,
+                                         final ParallelTransferOptions transferOptions) {
+        DataLakeFileClient fileClient = getFileSystemClient(dataPartitionId, containerName).getFileClient(filePath);
+        return logged("OPEN_OUTPUT_STREAM_DATALAKE", containerName, filePath, () -> fileClient.getOutputStream(
+                new DataLakeFileOutputStreamOptions().setParallelTransferOptions(transferOptions)));
+    }
+
+    /**
+     * Appends data to a file without committing it; appended data becomes readable once flushFile is called.
+     * Appending at offset 0 creates the file, replacing an existing one.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param filePath path of the file in the file system
+     * @param data data to append
+     * @param length number of bytes to append
+     * @param fileOffset position of the data in the file, the sum of the lengths appended before
+     * @return offset of the next append
+     */
+    public long appendToFile(final String dataPartitionId, final String containerName, final String filePath,
+                             final InputStream data, final long length, final long fileOffset) {
+        DataLakeFileClient fileClient = getFileSystemClient(dataPartitionId, containerName).getFileClient(filePath);
+        return logged("APPEND_DATALAKE", containerName, filePath, () -> {
+            if (fileOffset == 0) {
+                fileClient.create(true);
+            }
+            fileClient.append(data, fileOffset, length);
+            return fileOffset + length;
+        });
+    }
+
+    /**
+     * Commits the data appended to a file.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param filePath path of the file in the file system
+     * @param position total length of the file, the offset returned by the last append
+     * @return properties of the committed file
+     */
+    public PathInfo flushFile(final String dataPartitionId, final String containerName, final String filePath, final long position) {
+        DataLakeFileClient fileClient = getFileSystemClient(dataPartitionId, containerName).getFileClient(filePath);
+        return logged("FLUSH_DATALAKE", containerName, filePath, () -> fileClient.flush(position, true));
+    }
+
+    /**
+     * Creates directories in a fileSystem, with up to maxConcurrency directories created at the same time.
+     * Missing parent directories are created by the service and existing directories are left unchanged.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param directoryNames directories to create
+     * @param maxConcurrency maximum number of directories created at the same time
+     */
+    public void createDirectories(final String dataPartitionId, final String containerName, final Collection<String> directoryNames,
+                                  final int maxConcurrency) {
+        DataLakeFileSystemClient fileSystemClient = getFileSystemClient(dataPartitionId, containerName);
+        logged("CREATE_DIRECTORIES_DATALAKE", containerName, directoryNames.size() + " directories", () -> Flux.fromIterable(directoryNames)
+                .flatMap(directoryName -> Mono.fromCallable(() -> fileSystemClient.getDirectoryClient(directoryName).createIfNotExists())
+                        .subscribeOn(Schedulers.boundedElastic()), maxConcurrency)
+                .then()
+                .block());
+    }
+
+    /**
+     * Sets the access control list of a directory and of every path below it, replacing their existing entries.
+     * Paths are changed in batches. When a batch fails, the change stops and throws a
+     * {@link DataLakeAclChangeException} carrying the continuation token to resume from.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param directoryName directory at the root of the change
+     * @param accessControlList access control entries to set
+     * @param batchSize number of paths changed per request, null for the service default
+     * @param continuationToken token returned by an earlier incomplete change, null to start from the beginning
+     * @param progressHandler called with the changes of each batch, may be null
+     * @return counters, failed paths and continuation token of the change
+     * @throws DataLakeAclChangeException when a batch fails
+     */
+    public AccessControlChangeResult setAccessControlRecursive(final String dataPartitionId, final String containerName,
+                                                               final String directoryName, final List<PathAccessControlEntry> accessControlList,
+                                                               final Integer batchSize, final String continuationToken,
+                                                               final Consumer<AccessControlChanges> progressHandler) {
+        DataLakeDirectoryClient directoryClient = getFileSystemClient(dataPartitionId, containerName).getDirectoryClient(directoryName);
+        PathSetAccessControlRecursiveOptions options = new PathSetAccessControlRecursiveOptions(accessControlList)
+                .setBatchSize(batchSize)
+                .setContinuationToken(continuationToken)
+                .setProgressHandler(toProgressHandler(progressHandler));
+        return logged("SET_ACL_RECURSIVE_DATALAKE", containerName, directoryName,
+                () -> directoryClient.setAccessControlRecursiveWithResponse(options, null, Context.NONE).getValue());
+    }
+
+    /**
+     * Adds or updates access control entries on a directory and on every path below it, keeping the other
+     * existing entries. Paths are changed in batches. When a batch fails, the change stops and throws a
+     * {@link DataLakeAclChangeException} carrying the continuation token to resume from.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @param directoryName directory at the root of the change
+     * @param accessControlList access control entries to add or update
+     * @param batchSize number of paths changed per request, null for the service default
+     * @param continuationToken token returned by an earlier incomplete change, null to start from the beginning
+     * @param progressHandler called with the changes of each batch, may be null
+     * @return counters, failed paths and continuation token of the change
+     * @throws DataLakeAclChangeException when a batch fails
+     */
+    public AccessControlChangeResult updateAccessControlRecursive(final String dataPartitionId, final String containerName,
+                                                                  final String directoryName, final List<PathAccessControlEntry> accessControlList,
+                                                                  final Integer batchSize, final String continuationToken,
+                                                                  final Consumer<AccessControlChanges> progressHandler) {
+        DataLakeDirectoryClient directoryClient = getFileSystemClient(dataPartitionId, containerName).getDirectoryClient(directoryName);
+        PathUpdateAccessControlRecursiveOptions options = new PathUpdateAccessControlRecursiveOptions(accessControlList)
+                .setBatchSize(batchSize)
+                .setContinuationToken(continuationToken)
+                .setProgressHandler(toProgressHandler(progressHandler));
+        return logged("UPDATE_ACL_RECURSIVE_DATALAKE", containerName, directoryName,
+                () -> directoryClient.updateAccessControlRecursiveWithResponse(options, null, Context.NONE).getValue());
+    }
+
     /**
      * Extract the file name alone from the full path of PathItem.
      * @param pathItems PathItems
@@ -214,6 +490,98 @@ public class DataLakeStore {
         return fileNames;
     }
 
+    /**
+     * Lists a directory and, concurrently, each of its subdirectories.
+     *
+     * @param fileSystemClient file system client
+     * @param directoryName directory to list
+     * @param scheduler scheduler whose thread limit bounds the number of concurrent listings
+     * @return paths below the directory
+     */
+    private Flux<PathItem> walk(final DataLakeFileSystemClient fileSystemClient, final String directoryName, final Scheduler scheduler) {
+        ListPathsOptions options = new ListPathsOptions().setPath(directoryName).setRecursive(false);
+        return Flux.defer(() -> Flux.fromIterable(fileSystemClient.listPaths(options, Duration.ofSeconds(LIST_PATHS_TIMEOUT_IN_SECONDS))))
+                .subscribeOn(scheduler)
+                .flatMap(pathItem -> pathItem.isDirectory()
+                        ? Flux.just(pathItem).concatWith(walk(fileSystemClient, pathItem.getName(), scheduler))
+                        : Flux.just(pathItem), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Turns a listing into a stream and logs one dependency record with the number of paths once the listing
+     * completes, fails or is cancelled by closing the stream.
+     *
+     * @param pathItems listing
+     * @param containerName containerName
+     * @param directoryName listed directory
+     * @return stream of the listed paths
+     */
+    private Stream<PathItem> toLoggedStream(final Flux<PathItem> pathItems, final String containerName, final String directoryName) {
+        return LoggedListing.toStream(pathItems, DataLakeStorageException.class,
+                ex -> handleDataLakeStoreException(ex.getStatusCode(), "Failed to list paths", ex),
+                (count, timeTaken, statusCode) -> logDependency("LIST_PATHS", containerName + "/" + directoryName + " count=" + count, containerName,
+                        timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK));
+    }
+
+    /**
+     * Create DataLakeFileSystemClient.
+     *
+     * @param dataPartitionId dataPartitionId
+     * @param containerName containerName
+     * @return file system client
+     */
+    private DataLakeFileSystemClient getFileSystemClient(final String dataPartitionId, final String containerName) {
+        try {
+            return dataLakeClientFactory.getDataLakeServiceClient(dataPartitionId, containerName).getFileSystemClient(containerName);
+        } catch (AppException ex) {
+            throw handleDataLakeStoreException(ex.getError().getCode(), "Error creating Hierarchical dataLake container client.", ex);
+        } catch (Exception ex) {
+            throw handleDataLakeStoreException(500, "Error creating Hierarchical dataLake container client.", ex);
+        }
+    }
+
+    /**
+     * Adapts a progress handler to the response based handler of the SDK.
+     *
+     * @param progressHandler handler of the changes of each batch, may be null
+     * @return SDK progress handler, null when progressHandler is null
+     */
+    private static Consumer<Response<AccessControlChanges>> toProgressHandler(final Consumer<AccessControlChanges> progressHandler) {
+        return progressHandler == null ? null : response -> progressHandler.accept(response.getValue());
+    }
+
+    /**
+     * Runs a file or directory operation, maps storage failures to AppException and logs its dependency.
+     *
+     * @param name dependency name
+     * @param containerName containerName
+     * @param filePath path the operation applies to
+     * @param operation operation to run
+     * @param <T> result type
+     * @return result of the operation
+     */
+    private <T> T logged(final String name, final String containerName, final String filePath, final Supplier<T> operation) {
+        final long start = System.currentTimeMillis();
+        int statusCode = HttpStatus.SC_OK;
+        try {
+            return operation.get();
+        } catch (DataLakeStorageException ex) {
+            statusCode = ex.getStatusCode();
+            throw handleDataLakeStoreException(statusCode, "Failed to access DataLake file " + filePath, ex);
+        } catch (DataLakeAclChangeFailedException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            final String errorMessage = "Failed to change access control below " + filePath;
+            LOGGER.error(errorMessage + ", resume with continuation token " + ex.getContinuationToken(), ex);
+            throw new DataLakeAclChangeException(statusCode, errorMessage, ex.getMessage(), ex.getContinuationToken(), ex);
+        } catch (UncheckedIOException ex) {
+            statusCode = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            throw handleDataLakeStoreException(statusCode, "Failed to transfer DataLake file " + filePath, ex);
+        } finally {
+            final long timeTaken = System.currentTimeMillis() - start;
+            logDependency(name, containerName + "/" + filePath, containerName, timeTaken, String.valueOf(statusCode), statusCode == HttpStatus.SC_OK);
+        }
+    }
+
     /**
      * Log dependency.
      *
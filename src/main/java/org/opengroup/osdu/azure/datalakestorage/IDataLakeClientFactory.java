@@ -50,4 +50,12 @@ public interface IDataLakeClientFactory {
     DataLakeServiceClient getDataLakeServiceClient(
             String dataPartitionId,
             String fileSystemName);
+
+    /**
+     * Drops any client cached for the partition, e.g. after its account key was rotated.
+     *
+     * @param dataPartitionId dataPartitionId
+     */
+    default void invalidate(final String dataPartitionId) {
+    }
 }
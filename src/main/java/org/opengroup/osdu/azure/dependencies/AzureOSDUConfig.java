@@ -16,10 +16,12 @@ package org.opengroup.osdu.azure.dependencies;
 
 import com.azure.identity.DefaultAzureCredential;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.azure.security.keyvault.secrets.SecretAsyncClient;
 import com.azure.security.keyvault.secrets.SecretClient;
 import com.azure.security.keyvault.secrets.SecretClientBuilder;
 import org.opengroup.osdu.azure.KeyVaultFacade;
 import org.opengroup.osdu.azure.di.AzureActiveDirectoryConfiguration;
+import org.opengroup.osdu.azure.httpconfig.HttpClientProvider;
 import org.opengroup.osdu.common.Validators;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -38,6 +40,9 @@ public class AzureOSDUConfig {
     @Autowired
     private AzureActiveDirectoryConfiguration aadConfiguration;
 
+    @Autowired(required = false)
+    private HttpClientProvider httpClientProvider;
+
     /**
      * Azure Services that require a credential for access can leverage this
      * {@link DefaultAzureCredential}. This specific implementation will first attempt
@@ -73,10 +78,35 @@ public class AzureOSDUConfig {
             final @Named("KEY_VAULT_URL") String keyVaultURL) {
         Validators.checkNotNull(credential, "Credential cannot be null");
         Validators.checkNotNullAndNotEmpty(keyVaultURL, "KV URL");
-        return new SecretClientBuilder()
+        SecretClientBuilder secretClientBuilder = new SecretClientBuilder()
                 .credential(credential)
-                .vaultUrl(keyVaultURL)
-                .buildClient();
+                .vaultUrl(keyVaultURL);
+        if (httpClientProvider != null) {
+            secretClientBuilder.httpClient(httpClientProvider.getHttpClient());
+        }
+        return secretClientBuilder.buildClient();
+    }
+
+    /**
+     * @param credential  A credential that can be used to authenticate with
+     *                    KeyVault
+     * @param keyVaultURL The URL of the KeyVault to configure
+     * @return A configured KeyVault async secret client
+     */
+    @Bean
+    @Lazy
+    public SecretAsyncClient keyVaultSecretsAsyncClient(
+            final DefaultAzureCredential credential,
+            final @Named("KEY_VAULT_URL") String keyVaultURL) {
+        Validators.checkNotNull(credential, "Credential cannot be null");
+        Validators.checkNotNullAndNotEmpty(keyVaultURL, "KV URL");
+        SecretClientBuilder secretClientBuilder = new SecretClientBuilder()
+                .credential(credential)
+                .vaultUrl(keyVaultURL);
+        if (httpClientProvider != null) {
+            secretClientBuilder.httpClient(httpClientProvider.getHttpClient());
+        }
+        return secretClientBuilder.buildAsyncClient();
     }
 
     /**
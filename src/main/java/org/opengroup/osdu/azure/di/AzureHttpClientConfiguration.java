@@ -0,0 +1,63 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the HTTP transport shared by the Azure SDK clients.
+ */
+@Configuration
+@ConfigurationProperties("azure.http-client")
+@Getter
+@Setter
+public class AzureHttpClientConfiguration {
+
+    /**
+     * Maximum number of open connections across all Azure SDK clients.
+     */
+    private int maxConnections = 500;
+    /**
+     * Maximum number of requests waiting for a connection, -1 for no limit.
+     */
+    private int pendingAcquireMaxCount = 1000;
+    /**
+     * Time a request waits for a connection before failing (Value in seconds).
+     */
+    private long pendingAcquireTimeoutSeconds = 45;
+    /**
+     * Time after which an idle connection is closed (Value in seconds).
+     */
+    private long maxIdleTimeSeconds = 60;
+    /**
+     * Maximum lifetime of a pooled connection, after which it is closed and replaced (Value in seconds).
+     */
+    private long maxLifeTimeSeconds = 300;
+    /**
+     * Number of event loop threads, 0 for the reactor-netty default of one per core.
+     */
+    private int eventLoopThreads = 0;
+    /**
+     * Offers HTTP/2 through ALPN; endpoints that do not support it keep using HTTP/1.1.
+     */
+    private boolean http2Enabled = false;
+    /**
+     * Publishes connection pool metrics (reactor.netty.connection.provider.*) to the global Micrometer registry.
+     */
+    private boolean metricsEnabled = true;
+}
@@ -0,0 +1,46 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the opt-in gzip compression of content written through BlobStore.writeToStorageContainer.
+ */
+@Configuration
+@ConfigurationProperties("azure.blobstore.compression")
+@Getter
+@Setter
+public class BlobCompressionConfiguration {
+
+    /**
+     * Enables compression for the configured containers.
+     */
+    private boolean enabled = false;
+    /**
+     * Names of the containers whose content is compressed on write.
+     */
+    private List<String> containers = new ArrayList<>();
+    /**
+     * Content smaller than this is stored uncompressed (Value in bytes).
+     */
+    private long minSizeBytes = 1024;
+}
@@ -0,0 +1,36 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the cache of container existence checks made through BlobStore.checkIfBlobContainerExists.
+ */
+@Configuration
+@ConfigurationProperties("azure.blobstore.container-cache")
+@Getter
+@Setter
+public class BlobContainerCacheConfiguration {
+
+    /**
+     * Time an existing container is remembered (Value in seconds). Missing containers are never cached. 0 disables the cache.
+     * While a container is cached, a deletion made by another pod is only noticed once the entry expires.
+     */
+    private long ttlSeconds = 0;
+}
@@ -0,0 +1,43 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the opt-in local disk cache of blobs read from system storage.
+ */
+@Configuration
+@ConfigurationProperties("azure.blobstore.disk-cache")
+@Getter
+@Setter
+public class BlobDiskCacheConfiguration {
+
+    /**
+     * Enables caching of blobs read through BlobStore.readFromStorageContainer(filePath, containerName).
+     */
+    private boolean enabled = false;
+    /**
+     * Directory owned by the cache; files found there at startup are removed.
+     */
+    private String directory = System.getProperty("java.io.tmpdir") + "/osdu-blob-cache";
+    /**
+     * Maximum total size of the cached blobs (Value in bytes).
+     */
+    private long maxSizeBytes = 256L * 1024 * 1024;
+}
@@ -0,0 +1,75 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings for the opt-in startup prewarm of per-partition Azure clients.
+ */
+@Configuration
+@ConfigurationProperties("azure.prewarm")
+@Getter
+@Setter
+public class ClientPrewarmConfiguration {
+
+    /**
+     * Client types that can be prewarmed.
+     */
+    public enum ClientType {
+        COSMOS,
+        BLOB,
+        DATALAKE,
+        CRYPTOGRAPHY,
+        SERVICE_BUS
+    }
+
+    /**
+     * Enables building the clients of every partition at startup.
+     */
+    private boolean enabled = false;
+    /**
+     * Client types built for every partition.
+     */
+    private List<ClientType> clients = new ArrayList<>(Arrays.asList(ClientType.COSMOS, ClientType.BLOB));
+    /**
+     * Service Bus topics whose clients are built when SERVICE_BUS is prewarmed.
+     */
+    private List<String> serviceBusTopics = new ArrayList<>();
+    /**
+     * Maximum number of clients built at the same time.
+     */
+    private int parallelism = 8;
+    /**
+     * Time the application is reported not ready while clients are built (Value in seconds).
+     */
+    private long timeBudgetSeconds = 60;
+    /**
+     * Time between background retries of clients that failed to build (Value in seconds).
+     */
+    private long retryIntervalSeconds = 60;
+    /**
+     * Maximum number of background retries of a client that failed to build.
+     */
+    private int maxRetries = 5;
+}
@@ -0,0 +1,43 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the opt-in Cosmos query result cache.
+ */
+@Configuration
+@ConfigurationProperties("azure.cosmos.query-cache")
+@Getter
+@Setter
+public class CosmosQueryCacheConfiguration {
+
+    /**
+     * Enables caching of results returned by CosmosStore.queryItemsCached.
+     */
+    private boolean enabled = false;
+    /**
+     * Time after which a cached query result expires (Value in seconds).
+     */
+    private long expirationSeconds = 300;
+    /**
+     * Maximum number of query results kept in the cache.
+     */
+    private long maxEntries = 1000;
+}
@@ -0,0 +1,83 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.di;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import org.opengroup.osdu.azure.KeyVaultFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the opt-in secret cache of {@link KeyVaultFacade}.
+ */
+@Configuration
+@ConfigurationProperties("azure.keyvault.secret-cache")
+@Getter
+@Setter
+public class KeyVaultSecretCacheConfiguration {
+
+    /**
+     * Enables caching of secrets read through KeyVaultFacade.
+     */
+    private boolean enabled = false;
+    /**
+     * Time after which a cached secret expires (Value in seconds).
+     */
+    private long ttlSeconds = 3600;
+    /**
+     * Age after which a cached secret is reloaded in the background, 0 disables refresh (Value in seconds).
+     */
+    private long refreshSeconds = 300;
+    /**
+     * Time a missing or empty secret is remembered (Value in seconds).
+     */
+    private long notFoundTtlSeconds = 60;
+    /**
+     * Maximum number of cached secrets.
+     */
+    private long maxEntries = 1000;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Enables the secret cache when it is configured.
+     */
+    @PostConstruct
+    public void configureSecretCache() {
+        if (enabled) {
+            KeyVaultFacade.enableSecretCache(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(refreshSeconds),
+                    Duration.ofSeconds(notFoundTtlSeconds), maxEntries, meterRegistry);
+        }
+    }
+
+    /**
+     * Disables the secret cache on shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        if (enabled) {
+            KeyVaultFacade.disableSecretCache();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the cache of partitions loaded by PartitionServiceClient.
+ */
+@Configuration
+@ConfigurationProperties("azure.partition.cache")
+@Getter
+@Setter
+public class PartitionCacheConfiguration {
+
+    /**
+     * Enables caching of partitions returned by PartitionServiceClient.getPartition.
+     */
+    private boolean enabled = true;
+    /**
+     * Age after which a cached partition is reloaded in the background, 0 or a value not below maxStaleSeconds
+     * disables refresh (Value in seconds).
+     */
+    private long refreshSeconds = 300;
+    /**
+     * Time after which a cached partition expires, also when it could not be reloaded (Value in seconds).
+     */
+    private long maxStaleSeconds = 3600;
+    /**
+     * Maximum number of cached partitions.
+     */
+    private long maxEntries = 1000;
+}
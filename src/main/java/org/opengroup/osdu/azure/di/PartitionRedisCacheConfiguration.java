@@ -0,0 +1,72 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the opt-in Redis cache of partition properties shared by all pods.
+ * <p>
+ * The cache uses the Redisson client the application shares through RedisClientFactory. The database, port, hostKey
+ * and passwordKey settings only apply when this cache is the first to create that client; otherwise the settings of
+ * the existing client are used.
+ */
+@Configuration
+@ConfigurationProperties("azure.partition.redis-cache")
+@Getter
+@Setter
+public class PartitionRedisCacheConfiguration {
+
+    /**
+     * Enables the shared Redis cache of partition properties.
+     */
+    private boolean enabled = false;
+    /**
+     * Age after which a shared entry is reloaded from the partition service by one pod (Value in seconds).
+     */
+    private long refreshSeconds = 300;
+    /**
+     * Time after which Redis drops an entry that was not reloaded (Value in seconds).
+     */
+    private long expirationSeconds = 86400;
+    /**
+     * Maximum time a pod without any shared entry waits for another pod loading the partition (Value in milliseconds).
+     */
+    private long lockWaitMillis = 5000;
+    /**
+     * Time after which the load lock of a pod that stopped responding is released (Value in milliseconds).
+     */
+    private long lockLeaseMillis = 30000;
+    /**
+     * Redis database number, used only if this cache creates the shared Redisson client.
+     */
+    private int database = 0;
+    /**
+     * Redis port, used only if this cache creates the shared Redisson client.
+     */
+    private int port = 6380;
+    /**
+     * Name of the Key Vault secret holding the Redis host name.
+     */
+    private String hostKey = "redis-hostname";
+    /**
+     * Name of the Key Vault secret holding the Redis password.
+     */
+    private String passwordKey = "redis-password";
+}
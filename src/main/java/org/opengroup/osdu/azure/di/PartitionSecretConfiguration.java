@@ -0,0 +1,41 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.di;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for resolving the Key Vault secrets of partition properties.
+ */
+@Configuration
+@ConfigurationProperties("azure.partition.secrets")
+@Getter
+@Setter
+public class PartitionSecretConfiguration {
+
+    /**
+     * Resolves all sensitive properties concurrently when a partition is loaded instead of on first use. Requires a
+     * SecretAsyncClient bean; without one, secrets are resolved on first use.
+     */
+    private boolean eagerResolution = false;
+    /**
+     * Maximum time a partition load waits for its secrets to be resolved eagerly (Value in seconds).
+     */
+    private long eagerResolutionTimeoutSeconds = 10;
+}
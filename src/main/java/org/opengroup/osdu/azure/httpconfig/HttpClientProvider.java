@@ -0,0 +1,105 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.httpconfig;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
+import jakarta.annotation.PreDestroy;
+import org.opengroup.osdu.azure.di.AzureHttpClientConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Provides the HTTP transport shared by the Azure SDK clients built in this library, so all storage, key vault and
+ * cryptography clients use one connection pool and one set of event loop threads instead of one per client.
+ */
+@Component
+@ConditionalOnProperty(value = "azure.http-client.shared", havingValue = "true", matchIfMissing = true)
+public class HttpClientProvider {
+    private static final String POOL_NAME = "osdu-azure-sdk";
+
+    private final AzureHttpClientConfiguration configuration;
+    private ConnectionProvider connectionProvider;
+    private LoopResources loopResources;
+    private volatile HttpClient httpClient;
+
+    /**
+     * @param httpClientConfiguration transport settings
+     */
+    @Autowired
+    public HttpClientProvider(final AzureHttpClientConfiguration httpClientConfiguration) {
+        this.configuration = httpClientConfiguration;
+    }
+
+    /**
+     * @return the shared HTTP client, created on first use
+     */
+    public HttpClient getHttpClient() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                if (httpClient == null) {
+                    httpClient = createHttpClient();
+                }
+                client = httpClient;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Closes the pooled connections and stops the event loop threads.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        if (loopResources != null) {
+            loopResources.dispose();
+        }
+        httpClient = null;
+    }
+
+    /**
+     * @return HTTP client backed by a bounded connection pool
+     */
+    private HttpClient createHttpClient() {
+        connectionProvider = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(configuration.getMaxConnections())
+                .pendingAcquireMaxCount(configuration.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofSeconds(configuration.getPendingAcquireTimeoutSeconds()))
+                .maxIdleTime(Duration.ofSeconds(configuration.getMaxIdleTimeSeconds()))
+                .maxLifeTime(Duration.ofSeconds(configuration.getMaxLifeTimeSeconds()))
+                .evictInBackground(Duration.ofSeconds(configuration.getMaxIdleTimeSeconds()))
+                .metrics(configuration.isMetricsEnabled())
+                .build();
+        reactor.netty.http.client.HttpClient nettyClient = reactor.netty.http.client.HttpClient.create(connectionProvider);
+        if (configuration.getEventLoopThreads() > 0) {
+            loopResources = LoopResources.create(POOL_NAME, configuration.getEventLoopThreads(), true);
+            nettyClient = nettyClient.runOn(loopResources);
+        }
+        if (configuration.isHttp2Enabled()) {
+            nettyClient = nettyClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return new NettyAsyncHttpClientBuilder(nettyClient).build();
+    }
+}
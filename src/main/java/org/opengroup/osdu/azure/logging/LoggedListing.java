@@ -0,0 +1,78 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.logging;
+
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Turns storage listings into streams that log one dependency record with the number of listed items once the
+ * listing completes, fails or is cancelled by closing the stream.
+ */
+public final class LoggedListing {
+
+    /**
+     * Private constructor -- this class should never be instantiated.
+     */
+    private LoggedListing() {
+    }
+
+    /**
+     * Receives the outcome of a listing.
+     */
+    @FunctionalInterface
+    public interface Recorder {
+        /**
+         * @param count         Number of items listed
+         * @param timeTakenInMs Time from subscription to completion, failure or cancellation
+         * @param statusCode    200, the status of the mapped storage failure, or 500 for any other failure
+         */
+        void record(long count, long timeTakenInMs, int statusCode);
+    }
+
+    /**
+     * @param items           Listing
+     * @param failureType     Storage exception type of the listing
+     * @param exceptionMapper Maps a storage failure to the exception thrown to the consumer of the stream
+     * @param recorder        Logs the dependency record
+     * @param <T>             type of the listed items
+     * @param <E>             storage exception type
+     * @return stream of the listed items.
+     */
+    public static <T, E extends Throwable> Stream<T> toStream(final Flux<T> items, final Class<E> failureType,
+                                                              final Function<E, AppException> exceptionMapper, final Recorder recorder) {
+        final AtomicLong count = new AtomicLong();
+        final AtomicInteger statusCode = new AtomicInteger(HttpStatus.SC_OK);
+        return Flux.defer(() -> {
+            final long start = System.currentTimeMillis();
+            return items
+                    .doOnNext(item -> count.incrementAndGet())
+                    .onErrorMap(failureType, ex -> {
+                        AppException appException = exceptionMapper.apply(ex);
+                        statusCode.set(appException.getError().getCode());
+                        return appException;
+                    })
+                    .doOnError(ex -> statusCode.compareAndSet(HttpStatus.SC_OK, HttpStatus.SC_INTERNAL_SERVER_ERROR))
+                    .doFinally(signal -> recorder.record(count.get(), System.currentTimeMillis() - start, statusCode.get()));
+        }).toStream();
+    }
+}
@@ -1,17 +1,37 @@
 package org.opengroup.osdu.azure.partition;
 
+import com.azure.core.exception.ResourceNotFoundException;
+import com.azure.security.keyvault.secrets.SecretAsyncClient;
 import com.azure.security.keyvault.secrets.SecretClient;
 import com.google.gson.annotations.SerializedName;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.opengroup.osdu.azure.KeyVaultFacade;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.core.common.partition.Property;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Azure data partition variables.
+ * Azure data partition variables. Sensitive properties are resolved from Key Vault at most once per instance.
  */
 @Data
 @Builder
@@ -115,6 +135,13 @@ public class PartitionInfoAzure {
 
     private SecretClient secretClient;
 
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient Map<String, CompletableFuture<String>> resolvedSecrets = new ConcurrentHashMap<>();
+
     /**
      * @return partition id
      */
@@ -425,6 +452,54 @@ public class PartitionInfoAzure {
      */
     public void configureSecretClient(final SecretClient client) {
         this.secretClient = client;
+        this.resolvedSecrets.clear();
+    }
+
+    /**
+     * Resolves all sensitive properties concurrently, so that later getter calls do not wait for Key Vault.
+     * Secrets that can not be read within the timeout, or fail to load, are left to be resolved by their getter.
+     *
+     * @param client  KV async secret client configured to the same vault as the secret client
+     * @param timeout maximum time to wait for the secrets
+     */
+    public void resolveSecrets(final SecretAsyncClient client, final Duration timeout) {
+        try {
+            Flux.fromIterable(getSensitiveSecretNames())
+                    .filter(secretName -> !this.resolvedSecrets.containsKey(secretName))
+                    .flatMap(secretName -> client.getSecret(secretName)
+                            .filter(secret -> secret.getValue() != null && !secret.getValue().isEmpty())
+                            .doOnNext(secret -> this.resolvedSecrets.putIfAbsent(secretName, CompletableFuture.completedFuture(secret.getValue())))
+                            .onErrorResume(ResourceNotFoundException.class, e -> Mono.empty())
+                            .onErrorResume(e -> {
+                                CoreLoggerFactory.getInstance().getLogger(PartitionInfoAzure.class)
+                                        .warn("Failed to resolve {} eagerly.", secretName);
+                                return Mono.empty();
+                            }))
+                    .then()
+                    .block(timeout);
+        } catch (IllegalStateException e) {
+            CoreLoggerFactory.getInstance().getLogger(PartitionInfoAzure.class)
+                    .warn("Timed out resolving partition secrets eagerly, remaining secrets are resolved on first use.");
+        }
+    }
+
+    /**
+     * @return names of the secrets of all sensitive properties
+     */
+    private Set<String> getSensitiveSecretNames() {
+        return Stream.of(idConfig, nameConfig, complianceRulesetConfig, elasticEndpointConfig, elasticUsernameConfig,
+                        elasticPasswordConfig, elasticSslEnabledConfig, cosmosConnectionConfig, cosmosEndpointConfig,
+                        cosmosPrimaryKeyConfig, sbConnectionConfig, storageAccountKeyConfig, storageAccountNameConfig,
+                        storageAccountBlobEndpointConfig, hierarchicalStorageAccountKeyConfig, hierarchicalStorageAccountNameConfig,
+                        hierarchicalStorageAccountBlobEndpointConfig, sbNamespaceConfig, eventGridRecordsTopicEndpointConfig,
+                        eventGridRecordsTopicAccessKeyConfig, eventGridResourceGroupConfig, cryptographyEncryptionKeyIdentifierConfig,
+                        policyServiceConfig, airflowEnabledConfig, airflowEndpointConfig, airflowUsernameConfig, airflowPasswordConfig,
+                        ingestStorageAccountKeyConfig, ingestStorageAccountNameConfig, azureSubscriptionIdConfig, servicePrincipalAppIdConfig)
+                .filter(Objects::nonNull)
+                .filter(Property::isSensitive)
+                .filter(p -> p.getValue() != null)
+                .map(p -> String.valueOf(p.getValue()))
+                .collect(Collectors.toSet());
     }
 
     /**
@@ -432,7 +507,8 @@ public class PartitionInfoAzure {
      * @return secret value
      */
     private String getSecret(final Property p) {
-        return KeyVaultFacade.getSecretWithValidation(this.secretClient, String.valueOf(p.getValue()));
+        return resolveSecret(String.valueOf(p.getValue()),
+                secretName -> KeyVaultFacade.getSecretWithValidation(this.secretClient, secretName));
     }
 
     /**
@@ -443,7 +519,43 @@ public class PartitionInfoAzure {
      * @return Secret Value
      */
     private String getSecretWithDefault(final Property p, final String defaultValue) {
-        return KeyVaultFacade.getSecretWithDefault(this.secretClient, String.valueOf(p.getValue()), defaultValue);
+        String secretValue = resolveSecret(String.valueOf(p.getValue()),
+                secretName -> KeyVaultFacade.getSecretWithDefault(this.secretClient, secretName, null));
+        return secretValue == null ? defaultValue : secretValue;
+    }
+
+    /**
+     * Returns the memoized secret, loading it on the calling thread if no other caller is already loading it.
+     * Concurrent callers wait for the same load. Failed and missing secrets are not remembered.
+     *
+     * @param secretName name of the secret
+     * @param loader     reads the secret from Key Vault, may return null for a missing secret
+     * @return secret value, or null when the loader found none
+     */
+    private String resolveSecret(final String secretName, final Function<String, String> loader) {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> secret = this.resolvedSecrets.computeIfAbsent(secretName, name -> load);
+        if (secret == load) {
+            try {
+                String secretValue = loader.apply(secretName);
+                if (secretValue == null) {
+                    this.resolvedSecrets.remove(secretName, load);
+                }
+                load.complete(secretValue);
+            } catch (RuntimeException e) {
+                this.resolvedSecrets.remove(secretName, load);
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return secret.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     /**
@@ -1,9 +1,23 @@
 package org.opengroup.osdu.azure.partition;
 
+import com.azure.security.keyvault.secrets.SecretAsyncClient;
 import com.azure.security.keyvault.secrets.SecretClient;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.http.HttpStatus;
+import org.opengroup.osdu.azure.cache.PartitionInfoRedisCache;
+import org.opengroup.osdu.azure.di.PartitionCacheConfiguration;
+import org.opengroup.osdu.azure.di.PartitionSecretConfiguration;
 import org.opengroup.osdu.azure.util.AzureServicePrincipleTokenService;
 import org.opengroup.osdu.common.Validators;
 import org.opengroup.osdu.core.common.model.http.AppException;
@@ -12,14 +26,24 @@ import org.opengroup.osdu.core.common.partition.IPartitionFactory;
 import org.opengroup.osdu.core.common.partition.IPartitionProvider;
 import org.opengroup.osdu.core.common.partition.PartitionException;
 import org.opengroup.osdu.core.common.partition.PartitionInfo;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Partition service client implementation.
+ * Partition service client implementation. Partitions are cached when the partition cache is enabled: concurrent
+ * lookups of an uncached partition share one partition service call, cached partitions are reloaded in the
+ * background once they reach the refresh age, and a partition that can not be reloaded keeps being served until
+ * it expires. Cached partitions are shared between callers and must not be modified.
  */
 @Service
 @Lazy
@@ -33,23 +57,141 @@ public class PartitionServiceClient {
     private AzureServicePrincipleTokenService tokenService;
     @Autowired
     private DpsHeaders headers;
+    @Autowired(required = false)
+    private PartitionSecretConfiguration partitionSecretConfiguration;
+    @Autowired
+    private ObjectProvider<SecretAsyncClient> secretAsyncClientProvider;
+    @Autowired(required = false)
+    private PartitionCacheConfiguration partitionCacheConfiguration;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    @Autowired(required = false)
+    private PartitionInfoRedisCache partitionInfoRedisCache;
+
+    private static final String CACHE_NAME = "partition.cache";
+    private static final int REFRESH_THREADS = 2;
 
     private final Gson gson = new Gson();
+    private LoadingCache<String, PartitionInfoAzure> partitionCache;
+    private ExecutorService refreshExecutor;
+
+    /**
+     * Builds the partition cache when it is enabled and publishes its statistics.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (partitionCacheConfiguration == null || !partitionCacheConfiguration.isEnabled()) {
+            return;
+        }
+        refreshExecutor = Executors.newFixedThreadPool(REFRESH_THREADS,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("partition-refresh-%d").build());
+        long refreshSeconds = partitionCacheConfiguration.getRefreshSeconds();
+        long maxStaleSeconds = partitionCacheConfiguration.getMaxStaleSeconds();
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .expireAfterWrite(maxStaleSeconds, TimeUnit.SECONDS)
+                .maximumSize(partitionCacheConfiguration.getMaxEntries())
+                .recordStats();
+        if (refreshSeconds > 0 && refreshSeconds < maxStaleSeconds) {
+            builder.refreshAfterWrite(refreshSeconds, TimeUnit.SECONDS);
+        }
+        partitionCache = builder.build(CacheLoader.asyncReloading(CacheLoader.from(this::loadPartition), refreshExecutor));
+        if (meterRegistry != null) {
+            GuavaCacheMetrics.monitor(meterRegistry, partitionCache, CACHE_NAME);
+        }
+        if (partitionInfoRedisCache != null) {
+            partitionInfoRedisCache.addInvalidationListener(partitionCache::invalidate);
+        }
+    }
+
+    /**
+     * Stops the background reload threads.
+     */
+    @PreDestroy
+    public void close() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
 
     /**
      * Get partition info.
      *
      * @param partitionId Partition Id
-     * @return Partition info
+     * @return Partition info, shared with other callers while it is cached, so it must be treated as read-only
      * @throws AppException Exception thrown by {@link IPartitionFactory}
      */
     public PartitionInfoAzure getPartition(final String partitionId) throws AppException {
         Validators.checkNotNullAndNotEmpty(partitionId, "partitionId");
         Validators.checkValidDataPartition(partitionId);
+        if (partitionCache == null) {
+            return loadPartition(partitionId);
+        }
+        try {
+            return partitionCache.get(partitionId);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Service unavailable", String.format("Error getting partition info for data-partition: %s", partitionId), e);
+        }
+    }
+
+    /**
+     * Drops a cached partition, so that the next lookup reads it from the partition service. With the shared
+     * Redis cache enabled, the partition is dropped on every pod.
+     *
+     * @param partitionId Partition Id
+     */
+    public void invalidatePartition(final String partitionId) {
+        if (partitionCache != null) {
+            partitionCache.invalidate(partitionId);
+        }
+        if (partitionInfoRedisCache != null) {
+            partitionInfoRedisCache.invalidate(partitionId);
+        }
+    }
+
+    /**
+     * Drops all cached partitions.
+     */
+    public void invalidateAll() {
+        if (partitionCache != null) {
+            partitionCache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return Hit, miss and load counts of the partition cache, null when the cache is disabled
+     */
+    public CacheStats getCacheStats() {
+        return partitionCache == null ? null : partitionCache.stats();
+    }
+
+    /**
+     * Read partition info from the shared Redis cache when it is enabled, or else from the partition service.
+     *
+     * @param partitionId Partition Id
+     * @return Partition info
+     * @throws AppException Exception thrown by {@link IPartitionFactory}
+     */
+    private PartitionInfoAzure loadPartition(final String partitionId) throws AppException {
+        PartitionInfo partitionInfo = partitionInfoRedisCache == null
+                ? fetchPartition(partitionId)
+                : partitionInfoRedisCache.get(partitionId, () -> fetchPartition(partitionId));
+        return convert(partitionInfo);
+    }
+
+    /**
+     * Read partition info from the partition service.
+     *
+     * @param partitionId Partition Id
+     * @return Partition info
+     * @throws AppException Exception thrown by {@link IPartitionFactory}
+     */
+    private PartitionInfo fetchPartition(final String partitionId) throws AppException {
         try {
             IPartitionProvider serviceClient = getServiceClient();
-            PartitionInfo partitionInfo = serviceClient.get(partitionId);
-            return convert(partitionInfo);
+            return serviceClient.get(partitionId);
         } catch (PartitionException e) {
             throw new AppException(HttpStatus.SC_FORBIDDEN, "Service unavailable", String.format("Error getting partition info for data-partition: %s", partitionId), e);
         }
@@ -63,6 +205,12 @@ public class PartitionServiceClient {
         JsonElement jsonElement = gson.toJsonTree(partitionInfo.getProperties());
         PartitionInfoAzure infoAzure = gson.fromJson(jsonElement, PartitionInfoAzure.class);
         infoAzure.configureSecretClient(secretClient);
+        if (partitionSecretConfiguration != null && partitionSecretConfiguration.isEagerResolution()) {
+            SecretAsyncClient secretAsyncClient = secretAsyncClientProvider.getIfAvailable();
+            if (secretAsyncClient != null) {
+                infoAzure.resolveSecrets(secretAsyncClient, Duration.ofSeconds(partitionSecretConfiguration.getEagerResolutionTimeoutSeconds()));
+            }
+        }
         return infoAzure;
     }
 
@@ -87,7 +235,13 @@ public class PartitionServiceClient {
      * @return PartitionServiceClient
      */
     private IPartitionProvider getServiceClient() {
-        DpsHeaders newHeaders = DpsHeaders.createFromMap(headers.getHeaders());
+        DpsHeaders newHeaders;
+        try {
+            newHeaders = DpsHeaders.createFromMap(headers.getHeaders());
+        } catch (BeanCreationException e) {
+            // Background reloads run outside of a request, where the request scoped headers are not available.
+            newHeaders = new DpsHeaders();
+        }
         newHeaders.put(DpsHeaders.AUTHORIZATION, "Bearer " + tokenService.getAuthorizationToken());
         return partitionFactory.create(newHeaders);
     }
@@ -0,0 +1,335 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.opengroup.osdu.azure.prewarm;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.microsoft.azure.servicebus.primitives.ServiceBusException;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import org.opengroup.osdu.azure.blobstorage.IBlobServiceClientFactory;
+import org.opengroup.osdu.azure.cosmosdb.ICosmosClientFactory;
+import org.opengroup.osdu.azure.cryptography.CryptographyClientFactory;
+import org.opengroup.osdu.azure.datalakestorage.IDataLakeClientFactory;
+import org.opengroup.osdu.azure.di.ClientPrewarmConfiguration;
+import org.opengroup.osdu.azure.di.ClientPrewarmConfiguration.ClientType;
+import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
+import org.opengroup.osdu.azure.partition.PartitionServiceClient;
+import org.opengroup.osdu.azure.servicebus.ITopicClientFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the configured Azure clients of every partition once the application has started, so that the first
+ * request of a partition does not pay for building them. Clients are built in parallel; the application is reported
+ * not ready through the {@code clientPrewarm} health indicator until all clients are built or the time budget is
+ * spent. Clients that fail to build are retried in the background.
+ * <p>
+ * Add {@code clientPrewarm} to the readiness group to hold back traffic while clients are built:
+ * {@code management.endpoint.health.group.readiness.include=readinessState,clientPrewarm}
+ */
+@Component("clientPrewarmHealthIndicator")
+@ConditionalOnProperty(value = "azure.prewarm.enabled", havingValue = "true")
+public class ClientPrewarmer implements HealthIndicator {
+
+    private static final String LOGGER_NAME = ClientPrewarmer.class.getName();
+
+    @Autowired
+    private ClientPrewarmConfiguration configuration;
+    @Autowired
+    private PartitionServiceClient partitionServiceClient;
+    @Autowired(required = false)
+    private ICosmosClientFactory cosmosClientFactory;
+    @Autowired(required = false)
+    private IBlobServiceClientFactory blobServiceClientFactory;
+    @Autowired(required = false)
+    private IDataLakeClientFactory dataLakeClientFactory;
+    @Autowired(required = false)
+    private CryptographyClientFactory cryptographyClientFactory;
+    @Autowired(required = false)
+    private ITopicClientFactory topicClientFactory;
+
+    private final Set<ClientKey> builtClients = ConcurrentHashMap.newKeySet();
+    private final Map<ClientKey, Integer> failedClients = new ConcurrentHashMap<>();
+    private final Set<ClientKey> inFlightClients = ConcurrentHashMap.newKeySet();
+    private volatile List<String> partitions;
+    private volatile int listAttempts = 0;
+    private volatile int totalClients = 0;
+    private volatile boolean finished = false;
+    private ExecutorService executor;
+    private ScheduledExecutorService retryScheduler;
+    private ScheduledFuture<?> retryTask;
+
+    /**
+     * Starts building the clients in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        start();
+    }
+
+    /**
+     * Starts building the clients in the background.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(configuration.getParallelism(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("client-prewarm-%d").build());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("client-prewarm-retry-%d").build());
+        retryScheduler.execute(this::prewarm);
+    }
+
+    /**
+     * Reports the application not ready while clients are built within the time budget.
+     *
+     * @return Health with the build progress
+     */
+    @Override
+    public Health health() {
+        Health.Builder builder = finished ? Health.up() : Health.outOfService();
+        List<String> currentPartitions = partitions;
+        return builder
+                .withDetail("partitions", currentPartitions == null ? 0 : currentPartitions.size())
+                .withDetail("clients", totalClients)
+                .withDetail("built", builtClients.size())
+                .withDetail("failed", failedClients.keySet().stream().map(ClientKey::toString).sorted().collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Stops building clients.
+     */
+    @PreDestroy
+    public void close() {
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the clients of every partition, waits for them up to the time budget and schedules the retries.
+     */
+    private void prewarm() {
+        final long start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> builds = submitAll();
+        try {
+            CompletableFuture.allOf(builds.toArray(new CompletableFuture[0])).get(configuration.getTimeBudgetSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Client prewarm did not finish within {} seconds, continuing in the background.",
+                    configuration.getTimeBudgetSeconds());
+        } catch (ExecutionException e) {
+            // Failed builds are recorded by each build and retried.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        finished = true;
+        CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).info("Client prewarm built {} of {} clients in {} ms.",
+                builtClients.size(), totalClients, System.currentTimeMillis() - start);
+        retryTask = retryScheduler.scheduleWithFixedDelay(this::retry, configuration.getRetryIntervalSeconds(),
+                configuration.getRetryIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Lists the partitions and starts building their clients.
+     *
+     * @return Builds of all clients, empty if the partitions could not be listed
+     */
+    private List<CompletableFuture<Void>> submitAll() {
+        listAttempts++;
+        try {
+            partitions = partitionServiceClient.listPartitions();
+        } catch (RuntimeException e) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Client prewarm failed to list partitions.", e);
+            return new ArrayList<>();
+        }
+        List<ClientType> clientTypes = configuration.getClients().stream().filter(this::isAvailable).collect(Collectors.toList());
+        List<CompletableFuture<Void>> builds = new ArrayList<>();
+        for (String partitionId : partitions) {
+            for (ClientType clientType : clientTypes) {
+                builds.add(submit(new ClientKey(partitionId, clientType)));
+            }
+        }
+        totalClients = builds.size();
+        return builds;
+    }
+
+    /**
+     * Retries the clients that failed to build, and the partition listing if it failed. Stops retrying once no
+     * client is being built and every failed client has used up its retries.
+     */
+    private void retry() {
+        if (partitions == null) {
+            if (listAttempts <= configuration.getMaxRetries()) {
+                submitAll();
+            } else {
+                stopRetries();
+            }
+            return;
+        }
+        boolean retryable = !inFlightClients.isEmpty();
+        for (Map.Entry<ClientKey, Integer> failed : failedClients.entrySet()) {
+            if (failed.getValue() <= configuration.getMaxRetries()) {
+                retryable = true;
+                submit(failed.getKey());
+            }
+        }
+        if (!retryable) {
+            stopRetries();
+        }
+    }
+
+    /**
+     * Cancels the scheduled retries.
+     */
+    private void stopRetries() {
+        retryTask.cancel(false);
+        CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).info("Client prewarm stopped retrying, built {} of {} clients.",
+                builtClients.size(), totalClients);
+    }
+
+    /**
+     * Starts building a client and records the outcome. A client that is still being built is not submitted again.
+     *
+     * @param key Partition and client type
+     * @return Build of the client, already complete if the client is still being built
+     */
+    private CompletableFuture<Void> submit(final ClientKey key) {
+        if (!inFlightClients.add(key)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> build(key), executor).whenComplete((result, error) -> {
+            if (error == null) {
+                builtClients.add(key);
+                failedClients.remove(key);
+            } else {
+                CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Client prewarm failed to build {}.", key, error);
+                failedClients.merge(key, 1, Integer::sum);
+            }
+            inFlightClients.remove(key);
+        });
+    }
+
+    /**
+     * Builds a client through its factory, which caches it.
+     *
+     * @param key Partition and client type
+     */
+    private void build(final ClientKey key) {
+        String partitionId = key.getPartitionId();
+        switch (key.getClientType()) {
+            case COSMOS:
+                cosmosClientFactory.getClient(partitionId);
+                break;
+            case BLOB:
+                blobServiceClientFactory.getBlobServiceClient(partitionId);
+                break;
+            case DATALAKE:
+                dataLakeClientFactory.getDataLakeServiceClient(partitionId);
+                break;
+            case CRYPTOGRAPHY:
+                cryptographyClientFactory.getClient(partitionId);
+                break;
+            case SERVICE_BUS:
+                for (String topic : configuration.getServiceBusTopics()) {
+                    try {
+                        topicClientFactory.getClient(partitionId, topic);
+                    } catch (ServiceBusException e) {
+                        throw new IllegalStateException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @param clientType Client type
+     * @return true if the factory of the client type is available
+     */
+    private boolean isAvailable(final ClientType clientType) {
+        boolean available;
+        switch (clientType) {
+            case COSMOS:
+                available = cosmosClientFactory != null;
+                break;
+            case BLOB:
+                available = blobServiceClientFactory != null;
+                break;
+            case DATALAKE:
+                available = dataLakeClientFactory != null;
+                break;
+            case CRYPTOGRAPHY:
+                available = cryptographyClientFactory != null;
+                break;
+            case SERVICE_BUS:
+                available = topicClientFactory != null;
+                break;
+            default:
+                available = false;
+        }
+        if (!available) {
+            CoreLoggerFactory.getInstance().getLogger(LOGGER_NAME).warn("Client prewarm skips {}, no client factory is configured.", clientType);
+        }
+        return available;
+    }
+
+    /**
+     * Client of a partition.
+     */
+    @Value
+    private static class ClientKey {
+        private String partitionId;
+        private ClientType clientType;
+
+        /**
+         * @return Partition id and client type
+         */
+        @Override
+        public String toString() {
+            return partitionId + "/" + clientType;
+        }
+    }
+}
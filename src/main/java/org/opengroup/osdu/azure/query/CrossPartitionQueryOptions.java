@@ -0,0 +1,47 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Options controlling a query fanned out over several data partitions.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CrossPartitionQueryOptions {
+    /**
+     * the data partitions to query, all partitions known to the partition service when empty.
+     */
+    private List<String> dataPartitionIds;
+    /**
+     * the maximum number of partitions queried at the same time.
+     */
+    @Builder.Default
+    private int maxParallelism = 4;
+    /**
+     * the time allowed for a single partition to return all of its results.
+     */
+    @Builder.Default
+    private Duration partitionTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,57 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Options controlling a delete-by-query purge.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeleteByQueryOptions {
+    /**
+     * the path of the partition key property in the projected documents, e.g. "/partitionKey".
+     */
+    @Builder.Default
+    private String partitionKeyPath = "/id";
+    /**
+     * the number of documents read and deleted per page.
+     */
+    @Builder.Default
+    private int pageSize = 1000;
+    /**
+     * the bulk executor concurrency per partition key range (1-5).
+     */
+    @Builder.Default
+    private int maxConcurrencyPerPartitionRange = 1;
+    /**
+     * the request units after which the purge stops and returns a continuation token, unlimited when not positive.
+     */
+    private double requestChargeBudget;
+    /**
+     * the request units per second the purge is paced to, unlimited when not positive.
+     */
+    private double maxRequestChargePerSecond;
+    /**
+     * the continuation token returned by a previous, unfinished purge.
+     */
+    private String continuationToken;
+}
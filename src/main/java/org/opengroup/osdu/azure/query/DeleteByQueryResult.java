@@ -0,0 +1,59 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+/**
+ * Outcome of a delete-by-query purge.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeleteByQueryResult {
+    /**
+     * the number of documents deleted.
+     */
+    private long deletedCount;
+    /**
+     * the number of documents that were already gone when the delete was issued.
+     */
+    private long notFoundCount;
+    /**
+     * the number of documents that could not be deleted.
+     */
+    private long failedCount;
+    /**
+     * the request units consumed by the query and the deletes.
+     */
+    private double requestCharge;
+    /**
+     * the token to resume the purge from, null once every matching document was processed.
+     */
+    private String continuationToken;
+    /**
+     * indication of whether every matching document was processed.
+     */
+    private boolean completed;
+    /**
+     * the error that interrupted the purge, null when it was not interrupted by an error.
+     */
+    private AppException error;
+}
@@ -0,0 +1,63 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+import java.util.List;
+
+/**
+ * Results of a cross-partition query for a single data partition.
+ *
+ * @param <T> Type of the query results
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PartitionQueryResult<T> {
+    /**
+     * the data partition the results belong to.
+     */
+    private String dataPartitionId;
+    /**
+     * the items returned by the partition, empty when the query failed.
+     */
+    private List<T> results;
+    /**
+     * the request units consumed by the partition.
+     */
+    private double requestCharge;
+    /**
+     * the time taken by the partition in milliseconds.
+     */
+    private long timeTakenInMs;
+    /**
+     * the result code of the partition query.
+     */
+    private int resultCode;
+    /**
+     * indication of successful or unsuccessful partition query.
+     */
+    private boolean success;
+    /**
+     * the error raised by the partition, null when the query succeeded.
+     */
+    private AppException error;
+}
@@ -29,6 +29,7 @@ import org.opengroup.osdu.azure.logging.CoreLogger;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -140,4 +141,54 @@ class KeyVaultFacadeTest {
 
         assertTrue(KeyVaultFacade.checkIfSecretExists(kv, "secret-name"));
     }
+
+    @Test
+    void getSecretWithDefault_withCacheEnabled_readsSecretOnce() {
+        KeyVaultSecret secret = mock(KeyVaultSecret.class);
+        doReturn("secret-value").when(secret).getValue();
+        doReturn(secret).when(kv).getSecret("cached-secret");
+        KeyVaultFacade.enableSecretCache(Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofMinutes(1), 10, null);
+        try {
+            assertEquals("secret-value", KeyVaultFacade.getSecretWithDefault(kv, "cached-secret", "default"));
+            assertEquals("secret-value", KeyVaultFacade.getSecretWithDefault(kv, "cached-secret", "default"));
+
+            verify(kv, times(1)).getSecret("cached-secret");
+            assertEquals(1, KeyVaultFacade.getSecretCacheStats().hitCount());
+        } finally {
+            KeyVaultFacade.disableSecretCache();
+        }
+    }
+
+    @Test
+    void getSecretWithDefault_withCacheEnabled_remembersMissingSecret() {
+        doThrow(ResourceNotFoundException.class).when(kv).getSecret("missing-secret");
+        KeyVaultFacade.enableSecretCache(Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofMinutes(1), 10, null);
+        try {
+            assertEquals("default", KeyVaultFacade.getSecretWithDefault(kv, "missing-secret", "default"));
+            assertEquals("default", KeyVaultFacade.getSecretWithDefault(kv, "missing-secret", "default"));
+
+            verify(kv, times(1)).getSecret("missing-secret");
+        } finally {
+            KeyVaultFacade.disableSecretCache();
+        }
+    }
+
+    @Test
+    void invalidateSecret_withCacheEnabled_reloadsSecret() {
+        KeyVaultSecret oldSecret = mock(KeyVaultSecret.class);
+        KeyVaultSecret newSecret = mock(KeyVaultSecret.class);
+        doReturn("old-value").when(oldSecret).getValue();
+        doReturn("new-value").when(newSecret).getValue();
+        doReturn(oldSecret, newSecret).when(kv).getSecret("rotated-secret");
+        KeyVaultFacade.enableSecretCache(Duration.ofMinutes(10), Duration.ZERO, Duration.ofMinutes(1), 10, null);
+        try {
+            assertEquals("old-value", KeyVaultFacade.getSecretWithDefault(kv, "rotated-secret", "default"));
+            KeyVaultFacade.invalidateSecret(kv, "rotated-secret");
+
+            assertEquals("new-value", KeyVaultFacade.getSecretWithDefault(kv, "rotated-secret", "default"));
+            verify(kv, times(2)).getSecret("rotated-secret");
+        } finally {
+            KeyVaultFacade.disableSecretCache();
+        }
+    }
 }
@@ -0,0 +1,307 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.azure.blobstorage;
+
+import com.azure.core.http.rest.PagedFlux;
+import com.azure.core.http.rest.PagedResponseBase;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.polling.AsyncPollResponse;
+import com.azure.core.util.polling.LongRunningOperationStatus;
+import com.azure.core.util.polling.PollerFlux;
+import com.azure.storage.blob.BlobAsyncClient;
+import com.azure.storage.blob.BlobContainerAsyncClient;
+import com.azure.storage.blob.BlobServiceAsyncClient;
+import com.azure.storage.blob.models.BlobCopyInfo;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.BlockBlobItem;
+import com.azure.storage.blob.models.CopyStatusType;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.models.UserDelegationKey;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+import com.azure.storage.blob.specialized.BlockBlobAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.opengroup.osdu.azure.logging.CoreLogger;
+import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
+import org.opengroup.osdu.azure.logging.DependencyLogger;
+import org.opengroup.osdu.azure.logging.DependencyPayload;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BlobAsyncStoreTest {
+    private static final String PARTITION_ID = "dataPartitionId";
+    private static final String FILE_PATH = "filePath";
+    private static final String CONTENT = "hello world";
+    private static final String STORAGE_CONTAINER_NAME = "containerName";
+
+    @Mock
+    private CoreLoggerFactory coreLoggerFactory;
+    @Mock
+    private CoreLogger coreLogger;
+    @Mock
+    private IBlobServiceClientFactory blobServiceClientFactory;
+    @Mock
+    private BlobServiceAsyncClient blobServiceAsyncClient;
+    @Mock
+    private BlobContainerAsyncClient blobContainerAsyncClient;
+    @Mock
+    private BlobAsyncClient blobAsyncClient;
+    @Mock
+    private BlockBlobAsyncClient blockBlobAsyncClient;
+    @Mock
+    private DependencyLogger dependencyLogger;
+    @InjectMocks
+    private BlobAsyncStore blobAsyncStore;
+
+    @BeforeEach
+    void init() throws Exception {
+        Field instance = CoreLoggerFactory.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, coreLoggerFactory);
+        lenient().when(coreLoggerFactory.getLogger(anyString())).thenReturn(coreLogger);
+
+        lenient().when(blobServiceClientFactory.getBlobServiceAsyncClient(PARTITION_ID)).thenReturn(blobServiceAsyncClient);
+        lenient().when(blobServiceClientFactory.getSystemBlobServiceAsyncClient()).thenReturn(blobServiceAsyncClient);
+        lenient().when(blobServiceAsyncClient.getBlobContainerAsyncClient(STORAGE_CONTAINER_NAME)).thenReturn(blobContainerAsyncClient);
+        lenient().when(blobContainerAsyncClient.getBlobAsyncClient(FILE_PATH)).thenReturn(blobAsyncClient);
+        lenient().when(blobAsyncClient.getBlockBlobAsyncClient()).thenReturn(blockBlobAsyncClient);
+    }
+
+    @AfterEach
+    public void takeDown() throws Exception {
+        Field instance = CoreLoggerFactory.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    @Test
+    public void generatePreSignedUrlWithUserDelegationSas_SignsWithKeyLoadedReactively() {
+        UserDelegationKey userDelegationKey = new UserDelegationKey();
+        when(blobServiceAsyncClient.getAccountUrl()).thenReturn("https://" + UUID.randomUUID() + ".blob.core.windows.net");
+        when(blobServiceAsyncClient.getUserDelegationKey(any(), any())).thenReturn(Mono.just(userDelegationKey));
+        when(blobAsyncClient.generateUserDelegationSas(any(BlobServiceSasSignatureValues.class), eq(userDelegationKey))).thenReturn("sas");
+        when(blobAsyncClient.getBlobUrl()).thenReturn("url");
+
+        String url = blobAsyncStore.generatePreSignedUrlWithUserDelegationSas(PARTITION_ID, STORAGE_CONTAINER_NAME, FILE_PATH,
+                OffsetDateTime.now().plusHours(1), new BlobSasPermission().setReadPermission(true)).block();
+
+        assertEquals("url?sas", url);
+        verify(blobServiceAsyncClient).getUserDelegationKey(any(), any());
+    }
+
+    @Test
+    public void readFromStorageContainer_ReturnsContentAndLogsDependency() {
+        when(blobAsyncClient.downloadContent()).thenReturn(Mono.just(BinaryData.fromString(CONTENT)));
+
+        String content = blobAsyncStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME).block();
+
+        assertEquals(CONTENT, content);
+        ArgumentCaptor<DependencyPayload> payload = ArgumentCaptor.forClass(DependencyPayload.class);
+        verify(dependencyLogger).logDependencyWithPayload(payload.capture());
+        assertEquals("READ_FROM_STORAGE_CONTAINER", payload.getValue().getName());
+        assertTrue(payload.getValue().isSuccess());
+    }
+
+    @Test
+    public void readFromStorageContainer_DecompressesGzipContentEncoding() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        BlobProperties properties = mock(BlobProperties.class);
+        when(properties.getContentEncoding()).thenReturn("gzip");
+        when(blobAsyncClient.downloadContent()).thenReturn(Mono.just(BinaryData.fromBytes(compressed.toByteArray())));
+        when(blobAsyncClient.getProperties()).thenReturn(Mono.just(properties));
+
+        assertEquals(CONTENT, blobAsyncStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME).block());
+    }
+
+    @Test
+    public void readFromStorageContainer_IsLazy() {
+        blobAsyncStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
+
+        verify(blobAsyncClient, never()).downloadContent();
+    }
+
+    @Test
+    public void readFromStorageContainer_BlobNotFound() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND, 404);
+        when(blobAsyncClient.downloadContent()).thenReturn(Mono.error(exception));
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobAsyncStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME).block());
+
+        assertEquals(404, ex.getError().getCode());
+        ArgumentCaptor<DependencyPayload> payload = ArgumentCaptor.forClass(DependencyPayload.class);
+        verify(dependencyLogger).logDependencyWithPayload(payload.capture());
+        assertFalse(payload.getValue().isSuccess());
+    }
+
+    @Test
+    public void writeToStorageContainer_UploadsContent() {
+        when(blockBlobAsyncClient.upload(any(Flux.class), anyLong(), eq(true))).thenReturn(Mono.just(mock(BlockBlobItem.class)));
+
+        blobAsyncStore.writeToStorageContainer(PARTITION_ID, FILE_PATH, CONTENT, STORAGE_CONTAINER_NAME).block();
+
+        verify(blockBlobAsyncClient).upload(any(Flux.class), eq((long) CONTENT.getBytes(StandardCharsets.UTF_8).length), eq(true));
+    }
+
+    @Test
+    public void writeToStorageContainer_ServerBusy() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.SERVER_BUSY, 503);
+        when(blockBlobAsyncClient.upload(any(Flux.class), anyLong(), eq(true))).thenReturn(Mono.error(exception));
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobAsyncStore.writeToStorageContainer(FILE_PATH, CONTENT, STORAGE_CONTAINER_NAME).block());
+
+        assertEquals(503, ex.getError().getCode());
+    }
+
+    @Test
+    public void deleteFromStorageContainer_Success() {
+        when(blobAsyncClient.delete()).thenReturn(Mono.empty());
+
+        assertTrue(blobAsyncStore.deleteFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME).block());
+    }
+
+    @Test
+    public void undeleteFromStorageContainer_RestoresLatestVersion() {
+        BlobItem older = new BlobItem().setName(FILE_PATH).setVersionId("2024-01-01T00:00:00.0000000Z");
+        BlobItem latest = new BlobItem().setName(FILE_PATH).setVersionId("2024-02-01T00:00:00.0000000Z");
+        when(blobContainerAsyncClient.listBlobs(any(ListBlobsOptions.class))).thenReturn(mockPagedFlux(older, latest));
+        BlobAsyncClient versionClient = mock(BlobAsyncClient.class);
+        when(versionClient.getBlobUrl()).thenReturn("versionUrl");
+        when(blobContainerAsyncClient.getBlobVersionClient(FILE_PATH, "2024-02-01T00:00:00.0000000Z")).thenReturn(versionClient);
+        when(blobAsyncClient.beginCopy(eq("versionUrl"), any(Duration.class)))
+                .thenReturn(mockPoller(LongRunningOperationStatus.SUCCESSFULLY_COMPLETED, null));
+
+        assertTrue(blobAsyncStore.undeleteFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME).block());
+    }
+
+    @Test
+    public void undeleteFromStorageContainer_NoVersions() {
+        when(blobContainerAsyncClient.listBlobs(any(ListBlobsOptions.class))).thenReturn(mockPagedFlux());
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobAsyncStore.undeleteFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME).block());
+
+        assertEquals(404, ex.getError().getCode());
+    }
+
+    @Test
+    public void undeleteFromStorageContainer_LeavesLiveBlobAsIs() {
+        BlobItem current = new BlobItem().setName(FILE_PATH).setVersionId("2024-02-01T00:00:00.0000000Z").setIsCurrentVersion(true);
+        when(blobContainerAsyncClient.listBlobs(any(ListBlobsOptions.class))).thenReturn(mockPagedFlux(current));
+
+        assertTrue(blobAsyncStore.undeleteFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME).block());
+        verify(blobAsyncClient, never()).beginCopy(anyString(), any(Duration.class));
+    }
+
+    @Test
+    public void readFromStorageContainer_ResolvesClientOnSubscribe() {
+        blobAsyncStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
+
+        verify(blobServiceClientFactory, never()).getBlobServiceAsyncClient(anyString());
+    }
+
+    @Test
+    public void copyFile_ReturnsFinalCopyInfo() {
+        BlobCopyInfo copyInfo = mock(BlobCopyInfo.class);
+        when(copyInfo.getCopyStatus()).thenReturn(CopyStatusType.SUCCESS);
+        when(blobAsyncClient.beginCopy(eq("sourceUrl"), any(Duration.class)))
+                .thenReturn(mockPoller(LongRunningOperationStatus.SUCCESSFULLY_COMPLETED, copyInfo));
+
+        assertEquals(copyInfo, blobAsyncStore.copyFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, "sourceUrl").block());
+        ArgumentCaptor<DependencyPayload> payload = ArgumentCaptor.forClass(DependencyPayload.class);
+        verify(dependencyLogger).logDependencyWithPayload(payload.capture());
+        assertEquals("COPY_FILE", payload.getValue().getName());
+    }
+
+    @Test
+    public void checkIfBlobContainerExists_ReturnsServiceResult() {
+        when(blobContainerAsyncClient.exists()).thenReturn(Mono.just(true));
+
+        assertTrue(blobAsyncStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME).block());
+    }
+
+    @Test
+    public void createBlobContainer_Failure() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.CONTAINER_ALREADY_EXISTS, 409);
+        when(blobServiceAsyncClient.createBlobContainer(STORAGE_CONTAINER_NAME)).thenReturn(Mono.error(exception));
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobAsyncStore.createBlobContainer(PARTITION_ID, STORAGE_CONTAINER_NAME).block());
+
+        assertEquals(500, ex.getError().getCode());
+    }
+
+    private BlobStorageException mockStorageException(BlobErrorCode errorCode, int statusCode) {
+        BlobStorageException exception = mock(BlobStorageException.class);
+        lenient().when(exception.getErrorCode()).thenReturn(errorCode);
+        lenient().when(exception.getStatusCode()).thenReturn(statusCode);
+        return exception;
+    }
+
+    private PagedFlux<BlobItem> mockPagedFlux(BlobItem... items) {
+        return new PagedFlux<>(() -> Mono.just(new PagedResponseBase<Void, BlobItem>(null, 200, null, Arrays.asList(items), null, null)));
+    }
+
+    private PollerFlux<BlobCopyInfo, Void> mockPoller(LongRunningOperationStatus status, BlobCopyInfo copyInfo) {
+        AsyncPollResponse<BlobCopyInfo, Void> response = mock(AsyncPollResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getValue()).thenReturn(copyInfo);
+        PollerFlux<BlobCopyInfo, Void> poller = mock(PollerFlux.class);
+        when(poller.last()).thenReturn(Mono.just(response));
+        return poller;
+    }
+}
@@ -0,0 +1,109 @@
+package org.opengroup.osdu.azure.blobstorage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlobDiskCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void get_ReturnsStoredContentAndETag() {
+        BlobDiskCache cache = new BlobDiskCache(directory, 1024);
+        cache.put("container/a", "etag-a", "gzip", bytes("content-a"));
+
+        BlobDiskCache.CachedBlob cached = cache.get("container/a");
+
+        assertNotNull(cached);
+        assertEquals("etag-a", cached.getETag());
+        assertEquals("gzip", cached.getContentEncoding());
+        assertEquals("content-a", cached.asString());
+        assertEquals(9, cache.getSizeBytes());
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedWhenOverBudget() {
+        BlobDiskCache cache = new BlobDiskCache(directory, 20);
+        cache.put("a", "1", null, bytes("0123456789"));
+        cache.put("b", "1", null, bytes("0123456789"));
+        cache.get("a");
+
+        cache.put("c", "1", null, bytes("0123456789"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(20, cache.getSizeBytes());
+    }
+
+    @Test
+    void put_SkipsBlobLargerThanBudget() {
+        BlobDiskCache cache = new BlobDiskCache(directory, 4);
+
+        cache.put("a", "1", null, bytes("too large"));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    void put_ReplacesContentOfSameKey() throws IOException {
+        BlobDiskCache cache = new BlobDiskCache(directory, 1024);
+        cache.put("a", "1", null, bytes("old"));
+
+        cache.put("a", "2", null, bytes("newer"));
+
+        assertEquals("2", cache.get("a").getETag());
+        assertEquals("newer", cache.get("a").asString());
+        assertEquals(5, cache.getSizeBytes());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(file -> file.toString().endsWith(".blob")).count());
+        }
+    }
+
+    @Test
+    void put_KeepsETagWithItsOwnContent_whenPutsOfSameKeyOverlap() throws InterruptedException {
+        BlobDiskCache cache = new BlobDiskCache(directory, 1024 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 200; i++) {
+            final String version = String.valueOf(i);
+            executor.submit(() -> cache.put("a", version, null, bytes("content-" + version)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        BlobDiskCache.CachedBlob cached = cache.get("a");
+        assertEquals("content-" + cached.getETag(), cached.asString());
+    }
+
+    @Test
+    void constructor_ClearsFilesOfPreviousProcess() throws IOException {
+        new BlobDiskCache(directory, 1024).put("a", "1", null, bytes("content"));
+
+        new BlobDiskCache(directory, 1024);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertFalse(files.anyMatch(file -> file.toString().endsWith(".blob")));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -14,40 +14,77 @@
 
 package org.opengroup.osdu.azure.blobstorage;
 
+import com.azure.core.http.rest.PagedFlux;
 import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.PagedResponseBase;
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.BinaryData;
 import com.azure.core.util.polling.LongRunningOperationStatus;
 import com.azure.core.util.polling.PollResponse;
 import com.azure.core.util.polling.SyncPoller;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.batch.BlobBatch;
+import com.azure.storage.blob.batch.BlobBatchClient;
 import com.azure.storage.blob.models.*;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.azure.storage.blob.options.BlockBlobSimpleUploadOptions;
 import com.azure.storage.blob.sas.BlobContainerSasPermission;
 import com.azure.storage.blob.sas.BlobSasPermission;
 import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import com.azure.storage.blob.specialized.BlobInputStream;
+import com.azure.storage.blob.specialized.BlobOutputStream;
 import com.azure.storage.blob.specialized.BlockBlobClient;
+import com.azure.storage.common.ParallelTransferOptions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.opengroup.osdu.azure.di.BlobCompressionConfiguration;
 import org.opengroup.osdu.azure.logging.CoreLogger;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.azure.logging.DependencyLogger;
 import org.opengroup.osdu.core.common.logging.ILogger;
 import org.opengroup.osdu.core.common.model.http.AppException;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -160,6 +197,7 @@ public class BlobStoreTest {
         lenient().when(blobServiceClient.getBlobContainerClient(STORAGE_CONTAINER_NAME)).thenReturn(blobContainerClient);
         lenient().when(blobServiceClientFactory.getBlobServiceClient(PARTITION_ID)).thenReturn(blobServiceClient);
         lenient().when(blobServiceClientFactory.getSystemBlobServiceClient()).thenReturn(blobServiceClient);
+        lenient().when(blobServiceClient.getAccountUrl()).thenReturn("https://" + UUID.randomUUID() + ".blob.core.windows.net");
         lenient().doNothing().when(logger).warning(eq("azure-core-lib"), any(), anyMap());
         lenient().when(blockBlobClient.getProperties()).thenReturn(blobProperties);
         lenient().when(blockBlobClient.openInputStream()).thenReturn(blobInputStream);
@@ -224,7 +262,7 @@ public class BlobStoreTest {
         ArgumentCaptor<ByteArrayOutputStream> outputStream = ArgumentCaptor.forClass(ByteArrayOutputStream.class);
 
         // validate that the download method is being invoked appropriately.
-        verify(blockBlobClient).download(outputStream.capture());
+        verify(blockBlobClient).downloadStreamWithResponse(outputStream.capture(), isNull(), isNull(), isNull(), eq(false), isNull(), any());
     }
 
     @Test
@@ -233,13 +271,13 @@ public class BlobStoreTest {
         ArgumentCaptor<ByteArrayOutputStream> outputStream = ArgumentCaptor.forClass(ByteArrayOutputStream.class);
 
         // validate that the download method is being invoked appropriately.
-        verify(blockBlobClient).download(outputStream.capture());
+        verify(blockBlobClient).downloadStreamWithResponse(outputStream.capture(), isNull(), isNull(), isNull(), eq(false), isNull(), any());
     }
 
     @Test
     public void readFromStorageContainer_BlobNotFound() {
         BlobStorageException exception = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
-        doThrow(exception).when(blockBlobClient).download(any());
+        doThrow(exception).when(blockBlobClient).downloadStreamWithResponse(any(), any(), any(), any(), anyBoolean(), any(), any());
         try {
             String content = blobStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
         } catch (AppException ex) {
@@ -252,7 +290,7 @@ public class BlobStoreTest {
     @Test
     public void readFromStorageContainer_BlobNotFound_System() {
         BlobStorageException exception = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
-        doThrow(exception).when(blockBlobClient).download(any());
+        doThrow(exception).when(blockBlobClient).downloadStreamWithResponse(any(), any(), any(), any(), anyBoolean(), any(), any());
         try {
             String content = blobStore.readFromStorageContainer(FILE_PATH, STORAGE_CONTAINER_NAME);
         } catch (AppException ex) {
@@ -265,7 +303,7 @@ public class BlobStoreTest {
     @Test
     public void readFromStorageContainer_InternalError() {
         BlobStorageException exception = mockStorageException(BlobErrorCode.INTERNAL_ERROR);
-        doThrow(exception).when(blockBlobClient).download(any());
+        doThrow(exception).when(blockBlobClient).downloadStreamWithResponse(any(), any(), any(), any(), anyBoolean(), any(), any());
         try {
             String content = blobStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
         } catch (AppException ex) {
@@ -278,7 +316,7 @@ public class BlobStoreTest {
     @Test
     public void readFromStorageContainer_InternalError_System() {
         BlobStorageException exception = mockStorageException(BlobErrorCode.INTERNAL_ERROR);
-        doThrow(exception).when(blockBlobClient).download(any());
+        doThrow(exception).when(blockBlobClient).downloadStreamWithResponse(any(), any(), any(), any(), anyBoolean(), any(), any());
         try {
             String content = blobStore.readFromStorageContainer(FILE_PATH, STORAGE_CONTAINER_NAME);
         } catch (AppException ex) {
@@ -384,6 +422,448 @@ public class BlobStoreTest {
         }
     }
 
+    @Test
+    public void deleteBlobs_ReportsResultPerBlob() {
+        BlobBatchClient blobBatchClient = mock(BlobBatchClient.class);
+        BlobBatch blobBatch = mock(BlobBatch.class);
+        Response<Void> deleted = mock(Response.class);
+        Response<Void> missing = mock(Response.class);
+        BlobStorageException notFound = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
+        when(notFound.getStatusCode()).thenReturn(404);
+        when(deleted.getStatusCode()).thenReturn(202);
+        when(missing.getStatusCode()).thenThrow(notFound);
+        when(blobServiceClientFactory.getBlobBatchClient(PARTITION_ID)).thenReturn(blobBatchClient);
+        when(blobBatchClient.getBlobBatch()).thenReturn(blobBatch);
+        when(blobBatch.deleteBlob(STORAGE_CONTAINER_NAME, "a")).thenReturn(deleted);
+        when(blobBatch.deleteBlob(STORAGE_CONTAINER_NAME, "b")).thenReturn(missing);
+
+        List<BlobItemResult<Void>> results = blobStore.deleteBlobs(PARTITION_ID, STORAGE_CONTAINER_NAME, Arrays.asList("a", "b"));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(202, results.get(0).getStatusCode());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(404, results.get(1).getStatusCode());
+        verify(blobBatchClient).submitBatchWithResponse(eq(blobBatch), eq(false), any(), any());
+    }
+
+    @Test
+    public void deleteBlobs_SplitsIntoBatchesOf256() {
+        BlobBatchClient blobBatchClient = mock(BlobBatchClient.class);
+        BlobBatch blobBatch = mock(BlobBatch.class);
+        Response<Void> deleted = mock(Response.class);
+        when(deleted.getStatusCode()).thenReturn(202);
+        when(blobServiceClientFactory.getBlobBatchClient(PARTITION_ID)).thenReturn(blobBatchClient);
+        when(blobBatchClient.getBlobBatch()).thenReturn(blobBatch);
+        when(blobBatch.deleteBlob(eq(STORAGE_CONTAINER_NAME), anyString())).thenReturn(deleted);
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            paths.add("file-" + i);
+        }
+
+        List<BlobItemResult<Void>> results = blobStore.deleteBlobs(PARTITION_ID, STORAGE_CONTAINER_NAME, paths);
+
+        assertEquals(300, results.size());
+        verify(blobBatchClient, times(2)).submitBatchWithResponse(eq(blobBatch), eq(false), any(), any());
+    }
+
+    @Test
+    public void undeleteBlobs_RestoresLatestVersionPerPath() {
+        BlobItem older = new BlobItem().setName("a").setVersionId("2024-01-01T00:00:00.0000000Z");
+        BlobItem latest = new BlobItem().setName("a").setVersionId("2024-02-01T00:00:00.0000000Z");
+        BlobItem child = new BlobItem().setName("a/child").setVersionId("2024-03-01T00:00:00.0000000Z");
+        PagedIterable<BlobItem> versionsOfA = mock(PagedIterable.class);
+        when(versionsOfA.iterator()).thenAnswer(invocation -> Arrays.asList(older, latest, child).iterator());
+        PagedIterable<BlobItem> versionsOfB = mock(PagedIterable.class);
+        when(versionsOfB.iterator()).thenAnswer(invocation -> new ArrayList<BlobItem>().iterator());
+        when(blobContainerClient.listBlobs(argThat(options -> options != null && "a".equals(options.getPrefix())), any(Duration.class))).thenReturn(versionsOfA);
+        when(blobContainerClient.listBlobs(argThat(options -> options != null && "b".equals(options.getPrefix())), any(Duration.class))).thenReturn(versionsOfB);
+        BlobClient versionClient = mock(BlobClient.class);
+        when(versionClient.getBlobUrl()).thenReturn("versionUrl");
+        when(blobContainerClient.getBlobVersionClient("a", "2024-02-01T00:00:00.0000000Z")).thenReturn(versionClient);
+        when(blobContainerClient.getBlobClient("a")).thenReturn(blobClient);
+        SyncPoller<BlobCopyInfo, Void> poller = mock(SyncPoller.class);
+        when(blobClient.beginCopy(eq("versionUrl"), any())).thenReturn(poller);
+        when(poller.waitForCompletion(any(Duration.class))).thenReturn(new PollResponse<>(LongRunningOperationStatus.SUCCESSFULLY_COMPLETED, null, null));
+
+        List<BlobItemResult<String>> results = blobStore.undeleteBlobs(PARTITION_ID, STORAGE_CONTAINER_NAME, Arrays.asList("a", "b"));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("2024-02-01T00:00:00.0000000Z", results.get(0).getValue());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(404, results.get(1).getStatusCode());
+    }
+
+    @Test
+    public void readFromStorageContainer_DiskCache_RevalidatesWithETag(@TempDir Path tempDir) {
+        blobStore.setDiskCache(new BlobDiskCache(tempDir, 1024));
+        BlobDownloadResponse response = mock(BlobDownloadResponse.class);
+        BlobDownloadHeaders headers = mock(BlobDownloadHeaders.class);
+        BlobStorageException notModified = mockStorageException(BlobErrorCode.CONDITION_NOT_MET);
+        when(notModified.getStatusCode()).thenReturn(304);
+        when(response.getStatusCode()).thenReturn(200);
+        when(response.getDeserializedHeaders()).thenReturn(headers);
+        when(headers.getETag()).thenReturn("\"etag-1\"");
+        when(blockBlobClient.downloadStreamWithResponse(any(OutputStream.class), isNull(), isNull(), isNull(), eq(false), isNull(), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, OutputStream.class).write(CONTENT.getBytes(StandardCharsets.UTF_8));
+                    return response;
+                });
+        when(blockBlobClient.downloadStreamWithResponse(any(OutputStream.class), isNull(), isNull(), any(BlobRequestConditions.class), eq(false), isNull(), any()))
+                .thenThrow(notModified);
+
+        assertEquals(CONTENT, blobStore.readFromStorageContainer(FILE_PATH, STORAGE_CONTAINER_NAME));
+        assertEquals(CONTENT, blobStore.readFromStorageContainer(FILE_PATH, STORAGE_CONTAINER_NAME));
+
+        verify(blockBlobClient).downloadStreamWithResponse(any(OutputStream.class), isNull(), isNull(),
+                argThat(conditions -> conditions != null && "\"etag-1\"".equals(conditions.getIfNoneMatch())), eq(false), isNull(), any());
+        verify(dependencyLogger, times(2)).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void readFromStorageContainer_DiskCache_DecodesCachedGzipWithoutHeadRequest(@TempDir Path tempDir) throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        blobStore.setDiskCache(new BlobDiskCache(tempDir, 1024));
+        BlobDownloadResponse response = mock(BlobDownloadResponse.class);
+        BlobDownloadHeaders headers = mock(BlobDownloadHeaders.class);
+        BlobStorageException notModified = mockStorageException(BlobErrorCode.CONDITION_NOT_MET);
+        when(notModified.getStatusCode()).thenReturn(304);
+        when(response.getStatusCode()).thenReturn(200);
+        when(response.getDeserializedHeaders()).thenReturn(headers);
+        when(headers.getETag()).thenReturn("\"etag-1\"");
+        when(headers.getContentEncoding()).thenReturn("gzip");
+        when(blockBlobClient.downloadStreamWithResponse(any(OutputStream.class), isNull(), isNull(), isNull(), eq(false), isNull(), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, OutputStream.class).write(compressed.toByteArray());
+                    return response;
+                });
+        when(blockBlobClient.downloadStreamWithResponse(any(OutputStream.class), isNull(), isNull(), any(BlobRequestConditions.class), eq(false), isNull(), any()))
+                .thenThrow(notModified);
+
+        assertEquals(CONTENT, blobStore.readFromStorageContainer(FILE_PATH, STORAGE_CONTAINER_NAME));
+        assertEquals(CONTENT, blobStore.readFromStorageContainer(FILE_PATH, STORAGE_CONTAINER_NAME));
+
+        verify(blockBlobClient, never()).getProperties();
+    }
+
+    @Test
+    public void readFromStorageContainer_DiskCache_DropsDeletedBlob(@TempDir Path tempDir) {
+        BlobDiskCache diskCache = new BlobDiskCache(tempDir, 1024);
+        diskCache.put(STORAGE_CONTAINER_NAME + "/" + FILE_PATH, "\"etag-1\"", null, CONTENT.getBytes(StandardCharsets.UTF_8));
+        blobStore.setDiskCache(diskCache);
+        BlobStorageException notFound = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
+        when(notFound.getStatusCode()).thenReturn(404);
+        when(blockBlobClient.downloadStreamWithResponse(any(OutputStream.class), isNull(), isNull(), any(BlobRequestConditions.class), eq(false), isNull(), any()))
+                .thenThrow(notFound);
+
+        AppException appException = assertThrows(AppException.class,
+                () -> blobStore.readFromStorageContainer(FILE_PATH, STORAGE_CONTAINER_NAME));
+
+        assertEquals(404, appException.getError().getCode());
+        assertNull(diskCache.get(STORAGE_CONTAINER_NAME + "/" + FILE_PATH));
+        assertEquals(0, diskCache.getSizeBytes());
+    }
+
+    @Test
+    public void writeToStorageContainer_Compression_UploadsGzipWithContentEncoding() throws Exception {
+        BlobCompressionConfiguration compression = new BlobCompressionConfiguration();
+        compression.setEnabled(true);
+        compression.setContainers(Arrays.asList(STORAGE_CONTAINER_NAME));
+        compression.setMinSizeBytes(1);
+        blobStore.setCompression(compression);
+        ArgumentCaptor<BlockBlobSimpleUploadOptions> options = ArgumentCaptor.forClass(BlockBlobSimpleUploadOptions.class);
+        byte[][] uploaded = new byte[1][];
+        when(blockBlobClient.uploadWithResponse(options.capture(), isNull(), any())).thenAnswer(invocation -> {
+            uploaded[0] = invocation.getArgument(0, BlockBlobSimpleUploadOptions.class).getDataStream().readAllBytes();
+            return null;
+        });
+
+        blobStore.writeToStorageContainer(PARTITION_ID, FILE_PATH, CONTENT, STORAGE_CONTAINER_NAME);
+
+        assertEquals("gzip", options.getValue().getHeaders().getContentEncoding());
+        assertEquals("gzip", options.getValue().getMetadata().get("compression"));
+        assertEquals(String.valueOf(CONTENT.length()), options.getValue().getMetadata().get("uncompressedlength"));
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(uploaded[0]))) {
+            assertEquals(CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(blockBlobClient, never()).upload(any(InputStream.class), anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void writeToStorageContainer_Compression_SkipsContentBelowMinimumSize() {
+        BlobCompressionConfiguration compression = new BlobCompressionConfiguration();
+        compression.setEnabled(true);
+        compression.setContainers(Arrays.asList(STORAGE_CONTAINER_NAME));
+        compression.setMinSizeBytes(1024);
+        blobStore.setCompression(compression);
+
+        blobStore.writeToStorageContainer(PARTITION_ID, FILE_PATH, CONTENT, STORAGE_CONTAINER_NAME);
+
+        verify(blockBlobClient).upload(any(InputStream.class), eq((long) CONTENT.length()), eq(true));
+        verify(blockBlobClient, never()).uploadWithResponse(any(BlockBlobSimpleUploadOptions.class), any(), any());
+    }
+
+    @Test
+    public void readFromStorageContainer_DecompressesGzipContent() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        mockDownloadResponse(compressed.toByteArray(), "gzip");
+
+        assertEquals(CONTENT, blobStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME));
+        verify(blockBlobClient, never()).getProperties();
+    }
+
+    @Test
+    public void readFromStorageContainer_GzipContentWithoutContentEncoding_ReturnsStoredContent() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        mockDownloadResponse(compressed.toByteArray(), null);
+
+        String content = blobStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
+
+        assertEquals(new String(compressed.toByteArray(), StandardCharsets.UTF_8), content);
+    }
+
+    @Test
+    public void openInputStream_GzipContentEncoding_ReturnsDecompressingStream() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] data = compressed.toByteArray();
+        BlobInputStream gzipBlobInputStream = mock(BlobInputStream.class);
+        ByteArrayInputStream source = new ByteArrayInputStream(data);
+        when(gzipBlobInputStream.getProperties()).thenReturn(blobProperties);
+        when(blobProperties.getContentEncoding()).thenReturn("gzip");
+        when(gzipBlobInputStream.read()).thenAnswer(invocation -> source.read());
+        when(gzipBlobInputStream.read(any(byte[].class), anyInt(), anyInt()))
+                .thenAnswer(invocation -> source.read(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(blockBlobClient.openInputStream()).thenReturn(gzipBlobInputStream);
+
+        try (InputStream in = blobStore.openInputStream(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME)) {
+            assertEquals(CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void writeToStorageContainer_WithTags_UploadsTagsWithContent() {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("kind", "wks");
+        ArgumentCaptor<BlockBlobSimpleUploadOptions> options = ArgumentCaptor.forClass(BlockBlobSimpleUploadOptions.class);
+
+        blobStore.writeToStorageContainer(PARTITION_ID, FILE_PATH, CONTENT, STORAGE_CONTAINER_NAME, tags);
+
+        verify(blockBlobClient).uploadWithResponse(options.capture(), isNull(), any());
+        assertEquals(tags, options.getValue().getTags());
+        assertEquals(CONTENT.length(), options.getValue().getLength());
+        assertNull(options.getValue().getHeaders());
+    }
+
+    @Test
+    public void setBlobTags_ReplacesTags() {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("kind", "wks");
+
+        blobStore.setBlobTags(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, tags);
+
+        verify(blockBlobClient).setTags(tags);
+        verify(dependencyLogger).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void getBlobTags_BlobNotFound() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
+        when(exception.getStatusCode()).thenReturn(404);
+        when(blockBlobClient.getTags()).thenThrow(exception);
+
+        AppException ex = assertThrows(AppException.class, () -> blobStore.getBlobTags(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME));
+
+        assertEquals(404, ex.getError().getCode());
+    }
+
+    @Test
+    public void findBlobsByTags_Container_StreamsMatches() {
+        TaggedBlobItem match = new TaggedBlobItem(STORAGE_CONTAINER_NAME, FILE_PATH);
+        when(blobContainerClient.findBlobsByTags(any(FindBlobsOptions.class), any(Duration.class), any()))
+                .thenReturn(pagedIterable(null, match));
+
+        List<TaggedBlobItem> matches;
+        try (Stream<TaggedBlobItem> stream = blobStore.findBlobsByTags(PARTITION_ID, STORAGE_CONTAINER_NAME, "\"kind\" = 'wks'")) {
+            matches = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(1, matches.size());
+        assertEquals(FILE_PATH, matches.get(0).getName());
+        verify(blobContainerClient).findBlobsByTags(argThat(options -> "\"kind\" = 'wks'".equals(options.getQuery())), any(Duration.class), any());
+        verify(dependencyLogger).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void findBlobsByTagsPage_Account_ReturnsPageWithContinuationToken() {
+        TaggedBlobItem match = new TaggedBlobItem(STORAGE_CONTAINER_NAME, FILE_PATH);
+        when(blobServiceClient.findBlobsByTags(any(FindBlobsOptions.class), any(Duration.class), any()))
+                .thenReturn(pagedIterable("next", match));
+
+        PagedResponse<TaggedBlobItem> page = blobStore.findBlobsByTagsPage(PARTITION_ID, null, "\"kind\" = 'wks'", 10, null);
+
+        assertEquals(1, page.getValue().size());
+        assertEquals("next", page.getContinuationToken());
+        verify(blobServiceClient).findBlobsByTags(argThat(options -> options.getMaxResultsPerPage() == 10), any(Duration.class), any());
+    }
+
+    @Test
+    public void checkIfBlobContainerExists_CachesResult() {
+        blobStore.setContainerExistenceTtl(Duration.ofSeconds(30));
+        when(blobContainerClient.exists()).thenReturn(true);
+
+        assertTrue(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+        assertTrue(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+
+        verify(blobContainerClient, times(1)).exists();
+    }
+
+    @Test
+    public void checkIfBlobContainerExists_DoesNotCacheMissingContainer() {
+        blobStore.setContainerExistenceTtl(Duration.ofSeconds(30));
+        when(blobContainerClient.exists()).thenReturn(false, true);
+
+        assertFalse(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+        assertTrue(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+
+        verify(blobContainerClient, times(2)).exists();
+    }
+
+    @Test
+    public void checkIfBlobContainerExists_UpdatedByCreateAndDelete() {
+        blobStore.setContainerExistenceTtl(Duration.ofSeconds(30));
+        when(blobContainerClient.exists()).thenReturn(false);
+
+        assertFalse(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+        blobStore.createBlobContainer(PARTITION_ID, STORAGE_CONTAINER_NAME);
+        assertTrue(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+        blobStore.deleteBlobContainer(PARTITION_ID, STORAGE_CONTAINER_NAME);
+        assertFalse(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+
+        verify(blobContainerClient, times(2)).exists();
+    }
+
+    @Test
+    public void checkIfBlobContainerExists_NotCachedByDefault() {
+        when(blobContainerClient.exists()).thenReturn(true);
+
+        blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME);
+        blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME);
+
+        verify(blobContainerClient, times(2)).exists();
+    }
+
+    @Test
+    public void checkIfBlobContainerExists_ZeroTtlDisablesCache() {
+        blobStore.setContainerExistenceTtl(Duration.ZERO);
+        when(blobContainerClient.exists()).thenReturn(true);
+
+        blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME);
+        blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME);
+
+        verify(blobContainerClient, times(2)).exists();
+    }
+
+    @Test
+    public void writeToStorageContainer_EnsureContainer_CreatesMissingContainerAndRetries() {
+        blobStore.setContainerExistenceTtl(Duration.ofSeconds(30));
+        BlobStorageException containerNotFound = mockStorageException(BlobErrorCode.CONTAINER_NOT_FOUND);
+        when(containerNotFound.getStatusCode()).thenReturn(404);
+        when(blockBlobClient.upload(any(InputStream.class), anyLong(), eq(true)))
+                .thenThrow(containerNotFound)
+                .thenReturn(blockBlobItem);
+
+        blobStore.writeToStorageContainer(PARTITION_ID, FILE_PATH, CONTENT, STORAGE_CONTAINER_NAME, true);
+
+        verify(blobContainerClient).createIfNotExists();
+        verify(blockBlobClient, times(2)).upload(any(InputStream.class), anyLong(), eq(true));
+        assertTrue(blobStore.checkIfBlobContainerExists(PARTITION_ID, STORAGE_CONTAINER_NAME));
+        verify(blobContainerClient, never()).exists();
+    }
+
+    @Test
+    public void writeToStorageContainer_WithoutEnsureContainer_Fails() {
+        BlobStorageException containerNotFound = mockStorageException(BlobErrorCode.CONTAINER_NOT_FOUND);
+        when(containerNotFound.getStatusCode()).thenReturn(404);
+        when(blockBlobClient.upload(any(InputStream.class), anyLong(), eq(true))).thenThrow(containerNotFound);
+
+        assertThrows(AppException.class,
+                () -> blobStore.writeToStorageContainer(PARTITION_ID, FILE_PATH, CONTENT, STORAGE_CONTAINER_NAME, false));
+
+        verify(blobContainerClient, never()).createIfNotExists();
+    }
+
+    @Test
+    public void readMany_ReturnsResultPerBlobInOrder() {
+        BlobClient missingBlobClient = mock(BlobClient.class);
+        BlockBlobClient missingBlockBlobClient = mock(BlockBlobClient.class);
+        BlobStorageException notFound = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
+        BlobDownloadContentResponse response = mock(BlobDownloadContentResponse.class);
+        when(response.getValue()).thenReturn(BinaryData.fromString(CONTENT));
+        when(blockBlobClient.downloadContentWithResponse(isNull(), isNull(), isNull(), any())).thenReturn(response);
+        when(blobContainerClient.getBlobClient("missing")).thenReturn(missingBlobClient);
+        when(missingBlobClient.getBlockBlobClient()).thenReturn(missingBlockBlobClient);
+        when(missingBlockBlobClient.downloadContentWithResponse(isNull(), isNull(), isNull(), any())).thenThrow(notFound);
+
+        List<BlobItemResult<String>> results = blobStore.readMany(PARTITION_ID, STORAGE_CONTAINER_NAME, Arrays.asList(FILE_PATH, "missing"));
+
+        assertEquals(2, results.size());
+        assertEquals(FILE_PATH, results.get(0).getFilePath());
+        assertEquals(CONTENT, results.get(0).getValue());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("missing", results.get(1).getFilePath());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(404, results.get(1).getStatusCode());
+        verify(dependencyLogger, times(1)).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void writeMany_UploadsEveryBlob() {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        contents.put(FILE_PATH, CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        List<BlobItemResult<Void>> results;
+        try (Stream<BlobItemResult<Void>> stream = blobStore.writeMany(PARTITION_ID, STORAGE_CONTAINER_NAME, contents, 4, false)) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).isSuccess());
+        verify(blockBlobClient).upload(any(InputStream.class), eq((long) CONTENT.length()), eq(true));
+        verify(dependencyLogger, times(1)).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void writeMany_Compression_UploadsGzipWithContentEncoding() {
+        BlobCompressionConfiguration compression = new BlobCompressionConfiguration();
+        compression.setEnabled(true);
+        compression.setContainers(Arrays.asList(STORAGE_CONTAINER_NAME));
+        compression.setMinSizeBytes(1);
+        blobStore.setCompression(compression);
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        contents.put(FILE_PATH, CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        try (Stream<BlobItemResult<Void>> stream = blobStore.writeMany(PARTITION_ID, STORAGE_CONTAINER_NAME, contents, 4, false)) {
+            assertTrue(stream.allMatch(BlobItemResult::isSuccess));
+        }
+
+        ArgumentCaptor<BlockBlobSimpleUploadOptions> options = ArgumentCaptor.forClass(BlockBlobSimpleUploadOptions.class);
+        verify(blockBlobClient).uploadWithResponse(options.capture(), isNull(), any());
+        assertEquals("gzip", options.getValue().getHeaders().getContentEncoding());
+        verify(blockBlobClient, never()).upload(any(InputStream.class), anyLong(), anyBoolean());
+    }
+
     @Test
     public void undeleteFromStorageContainer_ErrorCreatingBlobContainerClient() {
         doThrow(BlobStorageException.class).when(blobServiceClientFactory).getBlobServiceClient(eq(PARTITION_ID));
@@ -634,7 +1114,7 @@ public class BlobStoreTest {
     @Test
     public void readFromStorageContainer_ServerBusyError() {
         BlobStorageException exception = mockStorageException(BlobErrorCode.SERVER_BUSY);
-        doThrow(exception).when(blockBlobClient).download(any());
+        doThrow(exception).when(blockBlobClient).downloadStreamWithResponse(any(), any(), any(), any(), anyBoolean(), any(), any());
         try {
             String content = blobStore.readFromStorageContainer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
         } catch (AppException ex) {
@@ -932,6 +1412,70 @@ public class BlobStoreTest {
         assertEquals(blobPreSignedUrl, obtainedPreSignedUrl);
     }
 
+    @Test
+    public void generatePreSignedURLWithUserDelegationSas_ReusesCachedUserDelegationKey() {
+        UserDelegationKey userDelegationKey = mock(UserDelegationKey.class);
+        doReturn(userDelegationKey).when(blobServiceClient).getUserDelegationKey(any(OffsetDateTime.class), any(OffsetDateTime.class));
+        doReturn("blobSasToken").when(blockBlobClient).generateUserDelegationSas(any(BlobServiceSasSignatureValues.class), any(UserDelegationKey.class));
+        BlobSasPermission blobSasPermission = (new BlobSasPermission()).setReadPermission(true);
+
+        blobStore.generatePreSignedUrlWithUserDelegationSas(PARTITION_ID, STORAGE_CONTAINER_NAME, FILE_PATH, OffsetDateTime.now().plusHours(1), blobSasPermission);
+        blobStore.generatePreSignedUrlWithUserDelegationSas(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, OffsetDateTime.now().plusDays(1), blobSasPermission, FILE_NAME, FILE_CONTENT_TYPE);
+
+        verify(blobServiceClient, times(1)).getUserDelegationKey(any(OffsetDateTime.class), any(OffsetDateTime.class));
+        verify(blockBlobClient, times(2)).generateUserDelegationSas(any(BlobServiceSasSignatureValues.class), eq(userDelegationKey));
+    }
+
+    @Test
+    public void generatePreSignedURLs_SignsAllPathsInOrder() {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            paths.add("file-" + i);
+        }
+        when(blobContainerClient.getBlobClient(anyString())).thenReturn(blobClient);
+        doReturn("blobUrl").when(blockBlobClient).getBlobUrl();
+        doReturn("sasToken").when(blockBlobClient).generateSas(any(BlobServiceSasSignatureValues.class));
+        BlobSasPermission blobSasPermission = (new BlobSasPermission()).setReadPermission(true);
+
+        Map<String, String> urls = blobStore.generatePreSignedURLs(PARTITION_ID, STORAGE_CONTAINER_NAME, paths, OffsetDateTime.now().plusHours(1), blobSasPermission);
+
+        assertEquals(paths, new ArrayList<>(urls.keySet()));
+        assertTrue(urls.values().stream().allMatch("blobUrl?sasToken"::equals));
+        verify(blobServiceClientFactory, times(1)).getBlobServiceClient(PARTITION_ID);
+        verify(dependencyLogger, times(1)).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void generatePreSignedURLs_SignsDuplicatePathsOnce() {
+        when(blobContainerClient.getBlobClient(anyString())).thenReturn(blobClient);
+        doReturn("blobUrl").when(blockBlobClient).getBlobUrl();
+        doReturn("sasToken").when(blockBlobClient).generateSas(any(BlobServiceSasSignatureValues.class));
+        BlobSasPermission blobSasPermission = (new BlobSasPermission()).setReadPermission(true);
+
+        Map<String, String> urls = blobStore.generatePreSignedURLs(PARTITION_ID, STORAGE_CONTAINER_NAME,
+                Arrays.asList("b", "a", "b"), OffsetDateTime.now().plusHours(1), blobSasPermission);
+
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<>(urls.keySet()));
+        verify(blockBlobClient, times(2)).generateSas(any(BlobServiceSasSignatureValues.class));
+    }
+
+    @Test
+    public void generatePreSignedUrlsWithUserDelegationSas_FetchesKeyOnce() {
+        UserDelegationKey userDelegationKey = mock(UserDelegationKey.class);
+        when(blobContainerClient.getBlobClient(anyString())).thenReturn(blobClient);
+        doReturn(userDelegationKey).when(blobServiceClient).getUserDelegationKey(any(OffsetDateTime.class), any(OffsetDateTime.class));
+        doReturn("blobUrl").when(blockBlobClient).getBlobUrl();
+        doReturn("sasToken").when(blockBlobClient).generateUserDelegationSas(any(BlobServiceSasSignatureValues.class), any(UserDelegationKey.class));
+        BlobSasPermission blobSasPermission = (new BlobSasPermission()).setReadPermission(true);
+
+        Map<String, String> urls = blobStore.generatePreSignedUrlsWithUserDelegationSas(PARTITION_ID, STORAGE_CONTAINER_NAME,
+                Arrays.asList("a", "b", "c"), OffsetDateTime.now().plusHours(1), blobSasPermission);
+
+        assertEquals(3, urls.size());
+        verify(blobServiceClient, times(1)).getUserDelegationKey(any(OffsetDateTime.class), any(OffsetDateTime.class));
+        verify(blockBlobClient, times(3)).generateUserDelegationSas(any(BlobServiceSasSignatureValues.class), eq(userDelegationKey));
+    }
+
     @Test
     public void generatePreSignedURLForBlob_NullPreSignedTokenObtained() {
         int expiryDays = 1;
@@ -952,6 +1496,323 @@ public class BlobStoreTest {
         assertNotNull(blobInputStream);
     }
 
+    @Test
+    public void openInputStream_Success() {
+        InputStream inputStream = blobStore.openInputStream(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
+        assertEquals(blobInputStream, inputStream);
+        verify(dependencyLogger).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void openInputStream_BlobNotFound_System() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
+        doThrow(exception).when(blockBlobClient).openInputStream();
+        AppException ex = assertThrows(AppException.class, () -> blobStore.openInputStream(FILE_PATH, STORAGE_CONTAINER_NAME));
+        assertEquals(404, ex.getError().getCode());
+    }
+
+    @Test
+    public void openOutputStream_Success() {
+        BlobOutputStream blobOutputStream = mock(BlobOutputStream.class);
+        doReturn(blobOutputStream).when(blockBlobClient).getBlobOutputStream(true);
+        OutputStream outputStream = blobStore.openOutputStream(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME);
+        assertEquals(blobOutputStream, outputStream);
+    }
+
+    @Test
+    public void download_WritesContentToChannel() {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(blockBlobClient).downloadStream(any(OutputStream.class));
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        long bytes = blobStore.download(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, Channels.newChannel(target));
+
+        assertEquals(CONTENT.length(), bytes);
+        assertEquals(CONTENT, target.toString());
+    }
+
+    @Test
+    public void download_BlobNotFound() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
+        doThrow(exception).when(blockBlobClient).downloadStream(any(OutputStream.class));
+        AppException ex = assertThrows(AppException.class,
+                () -> blobStore.download(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, Channels.newChannel(new ByteArrayOutputStream())));
+        assertEquals(404, ex.getError().getCode());
+    }
+
+    @Test
+    public void upload_StreamsContent() {
+        ByteArrayInputStream data = new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8));
+        blobStore.upload(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, data, CONTENT.length());
+
+        ArgumentCaptor<BlobParallelUploadOptions> options = ArgumentCaptor.forClass(BlobParallelUploadOptions.class);
+        verify(blobClient).uploadWithResponse(options.capture(), isNull(), any());
+        assertEquals(data, options.getValue().getDataStream());
+        assertEquals(BlobBlockUploader.DEFAULT_BLOCK_SIZE, options.getValue().getParallelTransferOptions().getBlockSizeLong());
+        verify(blockBlobClient, never()).upload(any(InputStream.class), anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void upload_FromChannel_InternalError() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.INTERNAL_ERROR);
+        doThrow(exception).when(blobClient).uploadWithResponse(any(BlobParallelUploadOptions.class), any(), any());
+        ByteArrayInputStream data = new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8));
+        AppException ex = assertThrows(AppException.class,
+                () -> blobStore.upload(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, Channels.newChannel(data), CONTENT.length()));
+        assertEquals(500, ex.getError().getCode());
+    }
+
+    @Test
+    public void downloadToFile_FetchesRangesConcurrently(@TempDir Path tempDir) throws Exception {
+        byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        mockRangedDownload(content);
+        when(blobProperties.getContentMd5()).thenReturn(MessageDigest.getInstance("MD5").digest(content));
+        Path target = tempDir.resolve("download.bin");
+        ParallelTransferOptions options = new ParallelTransferOptions().setBlockSizeLong(4L).setMaxConcurrency(2);
+
+        long bytes = blobStore.downloadToFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, target, options);
+
+        assertEquals(content.length, bytes);
+        assertEquals(CONTENT, new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        verify(blockBlobClient, times(3)).downloadStreamWithResponse(any(OutputStream.class), any(BlobRange.class), any(),
+                any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void downloadToFile_ContentMd5Mismatch() {
+        byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        mockRangedDownload(content);
+        when(blobProperties.getContentMd5()).thenReturn(new byte[16]);
+        ParallelTransferOptions options = new ParallelTransferOptions().setBlockSizeLong(4L);
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobStore.downloadToFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, tempFile(), options));
+        assertEquals(500, ex.getError().getCode());
+    }
+
+    @Test
+    public void downloadToFile_BlobNotFound() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.BLOB_NOT_FOUND);
+        doThrow(exception).when(blockBlobClient).getProperties();
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobStore.downloadToFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, tempFile(), null));
+        assertEquals(404, ex.getError().getCode());
+    }
+
+    @Test
+    public void downloadToMappedBuffer_FillsMapping(@TempDir Path tempDir) {
+        byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        mockRangedDownload(content);
+        ParallelTransferOptions options = new ParallelTransferOptions().setBlockSizeLong(5L).setMaxConcurrency(4);
+
+        MappedByteBuffer buffer = blobStore.downloadToMappedBuffer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME,
+                tempDir.resolve("mapped.bin"), options);
+
+        byte[] mapped = new byte[buffer.remaining()];
+        buffer.get(mapped);
+        assertEquals(CONTENT, new String(mapped, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void downloadToMappedBuffer_ShortRead() {
+        when(blobProperties.getBlobSize()).thenReturn((long) CONTENT.length());
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobStore.downloadToMappedBuffer(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, tempFile(), null));
+        assertEquals(500, ex.getError().getCode());
+    }
+
+    @Test
+    public void uploadFile_SmallFileUploadedInOneRequest(@TempDir Path tempDir) throws Exception {
+        Path source = Files.write(tempDir.resolve("small.bin"), CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        blobStore.uploadFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, source, null);
+
+        ArgumentCaptor<BlockBlobSimpleUploadOptions> options = ArgumentCaptor.forClass(BlockBlobSimpleUploadOptions.class);
+        verify(blockBlobClient).uploadWithResponse(options.capture(), isNull(), any());
+        assertTrue(options.getValue().getData().isReplayable());
+        assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), options.getValue().getData().toBytes());
+        verify(blockBlobClient, never()).upload(any(InputStream.class), anyLong(), anyBoolean());
+        verify(blockBlobClient, never()).commitBlockList(anyList(), anyBoolean());
+    }
+
+    @Test
+    public void uploadFile_StagesBlocksAndCommits(@TempDir Path tempDir) throws Exception {
+        Path source = Files.write(tempDir.resolve("large.bin"), CONTENT.getBytes(StandardCharsets.UTF_8));
+        mockUncommittedBlocks();
+
+        blobStore.uploadFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, source, blockTransferOptions());
+
+        ArgumentCaptor<List<String>> blockIds = ArgumentCaptor.forClass(List.class);
+        verify(blockBlobClient, times(3)).stageBlockWithResponse(anyString(), any(InputStream.class), anyLong(), any(byte[].class),
+                any(), any(), any());
+        verify(blockBlobClient).commitBlockList(blockIds.capture(), eq(true));
+        assertEquals(3, blockIds.getValue().size());
+        assertEquals(3, new HashSet<>(blockIds.getValue()).size());
+    }
+
+    @Test
+    public void uploadFile_ResumesByStagingMissingBlocksOnly(@TempDir Path tempDir) throws Exception {
+        byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        Path source = Files.write(tempDir.resolve("large.bin"), content);
+        String firstBlockId = BlobBlockUploader.blockId(0, MessageDigest.getInstance("MD5").digest(Arrays.copyOfRange(content, 0, 4)));
+        mockUncommittedBlocks(firstBlockId);
+
+        blobStore.uploadFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, source, blockTransferOptions());
+
+        verify(blockBlobClient, never()).stageBlockWithResponse(eq(firstBlockId), any(InputStream.class), anyLong(), any(byte[].class),
+                any(), any(), any());
+        verify(blockBlobClient, times(2)).stageBlockWithResponse(anyString(), any(InputStream.class), anyLong(), any(byte[].class),
+                any(), any(), any());
+        verify(blockBlobClient).commitBlockList(anyList(), eq(true));
+    }
+
+    @Test
+    public void uploadFile_RetriesTransientBlockFailure(@TempDir Path tempDir) throws Exception {
+        Path source = Files.write(tempDir.resolve("large.bin"), CONTENT.getBytes(StandardCharsets.UTF_8));
+        mockUncommittedBlocks();
+        BlobStorageException exception = mockStorageException(BlobErrorCode.SERVER_BUSY);
+        lenient().when(exception.getStatusCode()).thenReturn(503);
+        when(blockBlobClient.stageBlockWithResponse(anyString(), any(InputStream.class), anyLong(), any(byte[].class), any(), any(), any()))
+                .thenThrow(exception)
+                .thenReturn(null);
+
+        blobStore.uploadFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, source, blockTransferOptions());
+
+        verify(blockBlobClient, times(4)).stageBlockWithResponse(anyString(), any(InputStream.class), anyLong(), any(byte[].class),
+                any(), any(), any());
+        verify(blockBlobClient).commitBlockList(anyList(), eq(true));
+    }
+
+    @Test
+    public void uploadFile_PermanentBlockFailure() throws Exception {
+        Path source = tempFile();
+        Files.write(source, CONTENT.getBytes(StandardCharsets.UTF_8));
+        mockUncommittedBlocks();
+        BlobStorageException exception = mockStorageException(BlobErrorCode.INVALID_MD5);
+        lenient().when(exception.getStatusCode()).thenReturn(400);
+        when(blockBlobClient.stageBlockWithResponse(anyString(), any(InputStream.class), anyLong(), any(byte[].class), any(), any(), any()))
+                .thenThrow(exception);
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobStore.uploadFile(PARTITION_ID, FILE_PATH, STORAGE_CONTAINER_NAME, source, blockTransferOptions()));
+        assertEquals(500, ex.getError().getCode());
+        verify(blockBlobClient, never()).commitBlockList(anyList(), anyBoolean());
+    }
+
+    private void mockDownloadResponse(byte[] content, String contentEncoding) {
+        BlobDownloadResponse response = mock(BlobDownloadResponse.class);
+        BlobDownloadHeaders headers = mock(BlobDownloadHeaders.class);
+        when(response.getDeserializedHeaders()).thenReturn(headers);
+        when(headers.getContentEncoding()).thenReturn(contentEncoding);
+        when(blockBlobClient.downloadStreamWithResponse(any(OutputStream.class), isNull(), isNull(), isNull(), eq(false), isNull(), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, OutputStream.class).write(content);
+                    return response;
+                });
+    }
+
+    private ParallelTransferOptions blockTransferOptions() {
+        return new ParallelTransferOptions().setBlockSizeLong(4L).setMaxConcurrency(2).setMaxSingleUploadSizeLong(4L);
+    }
+
+    private void mockUncommittedBlocks(String... blockIds) {
+        List<Block> blocks = new ArrayList<>();
+        for (String blockId : blockIds) {
+            Block block = mock(Block.class);
+            when(block.getName()).thenReturn(blockId);
+            blocks.add(block);
+        }
+        BlockList blockList = mock(BlockList.class);
+        when(blockList.getUncommittedBlocks()).thenReturn(blocks);
+        when(blockBlobClient.listBlocks(BlockListType.UNCOMMITTED)).thenReturn(blockList);
+    }
+
+    @Test
+    public void listBlobs_StreamsItemsAndLogsOnce() {
+        PagedIterable<BlobItem> listing = pagedIterable(null, new BlobItem().setName("a"), new BlobItem().setName("b"));
+        when(blobContainerClient.listBlobs(argThat(options -> options != null && "prefix".equals(options.getPrefix())), any(Duration.class)))
+                .thenReturn(listing);
+
+        List<String> names;
+        try (Stream<BlobItem> blobItems = blobStore.listBlobs(PARTITION_ID, STORAGE_CONTAINER_NAME, "prefix", null)) {
+            names = blobItems.map(BlobItem::getName).collect(Collectors.toList());
+        }
+
+        assertEquals(Arrays.asList("a", "b"), names);
+        verify(dependencyLogger, times(1)).logDependencyWithPayload(any());
+    }
+
+    @Test
+    public void listBlobsPage_ReturnsPageWithContinuationToken() {
+        PagedIterable<BlobItem> listing = pagedIterable("next", new BlobItem().setName("a"));
+        when(blobContainerClient.listBlobs(any(ListBlobsOptions.class), eq("token"), any(Duration.class))).thenReturn(listing);
+
+        PagedResponse<BlobItem> page = blobStore.listBlobsPage(PARTITION_ID, STORAGE_CONTAINER_NAME, "prefix",
+                new ListBlobsOptions().setMaxResultsPerPage(10), "token");
+
+        assertEquals("next", page.getContinuationToken());
+        assertEquals(1, page.getValue().size());
+    }
+
+    @Test
+    public void listBlobsParallel_ListsVirtualDirectoriesConcurrently() {
+        PagedIterable<BlobItem> topLevel = pagedIterable(null,
+                new BlobItem().setName("root.json"),
+                new BlobItem().setName("dir1/").setIsPrefix(true),
+                new BlobItem().setName("dir2/").setIsPrefix(true));
+        when(blobContainerClient.listBlobsByHierarchy(eq("/"), any(ListBlobsOptions.class), any(Duration.class))).thenReturn(topLevel);
+        PagedIterable<BlobItem> dir1 = pagedIterable(null, new BlobItem().setName("dir1/a"), new BlobItem().setName("dir1/sub/b"));
+        PagedIterable<BlobItem> dir2 = pagedIterable(null, new BlobItem().setName("dir2/c"));
+        when(blobContainerClient.listBlobs(argThat(options -> options != null && "dir1/".equals(options.getPrefix())), any(Duration.class))).thenReturn(dir1);
+        when(blobContainerClient.listBlobs(argThat(options -> options != null && "dir2/".equals(options.getPrefix())), any(Duration.class))).thenReturn(dir2);
+
+        Set<String> names;
+        try (Stream<BlobItem> blobItems = blobStore.listBlobsParallel(PARTITION_ID, STORAGE_CONTAINER_NAME, null, null, "/", 4)) {
+            names = blobItems.map(BlobItem::getName).collect(Collectors.toSet());
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList("root.json", "dir1/a", "dir1/sub/b", "dir2/c")), names);
+    }
+
+    @Test
+    public void listBlobs_ContainerNotFound() {
+        BlobStorageException exception = mockStorageException(BlobErrorCode.CONTAINER_NOT_FOUND);
+        when(exception.getStatusCode()).thenReturn(404);
+        when(blobContainerClient.listBlobs(any(ListBlobsOptions.class), any(Duration.class))).thenThrow(exception);
+
+        AppException ex = assertThrows(AppException.class,
+                () -> blobStore.listBlobs(PARTITION_ID, STORAGE_CONTAINER_NAME, null, null).count());
+        assertEquals(404, ex.getError().getCode());
+    }
+
+    @SafeVarargs
+    private <T> PagedIterable<T> pagedIterable(String continuationToken, T... items) {
+        PagedResponse<T> page = new PagedResponseBase<Void, T>(null, 200, null, Arrays.asList(items), continuationToken, null);
+        return new PagedIterable<>(new PagedFlux<>(() -> Mono.just(page)));
+    }
+
+    private void mockRangedDownload(byte[] content) {
+        when(blobProperties.getBlobSize()).thenReturn((long) content.length);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            BlobRange range = invocation.getArgument(1);
+            out.write(content, (int) range.getOffset(), range.getCount().intValue());
+            return null;
+        }).when(blockBlobClient).downloadStreamWithResponse(any(OutputStream.class), any(BlobRange.class), any(),
+                any(), anyBoolean(), any(), any());
+    }
+
+    private Path tempFile() throws IOException {
+        Path file = Files.createTempFile("blobstore", ".bin");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
     private BlobStorageException mockStorageException(BlobErrorCode errorCode) {
         BlobStorageException mockException = mock(BlobStorageException.class);
         lenient().when(mockException.getErrorCode()).thenReturn(errorCode);
@@ -32,10 +32,10 @@ import org.opengroup.osdu.azure.di.MSIConfiguration;
 import org.opengroup.osdu.azure.partition.PartitionInfoAzure;
 import org.opengroup.osdu.azure.partition.PartitionServiceClient;
 
-import java.util.Map;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
@@ -67,9 +67,6 @@ public class DataLakeClientFactoryImplTest {
     @Mock
     private PartitionInfoAzure mockPartitionInfoAzure;
 
-    @Mock
-    private Map<String, DataLakeServiceClient> dataLakeContainerClientMap;
-
     @Mock
     private BlobStoreRetryConfiguration mockBlobStoreRetryConfiguration;
 
@@ -113,8 +110,6 @@ public class DataLakeClientFactoryImplTest {
                 PARTITION_ID, DIRECTORY_NAME, FILE_SYSTEM_NAME);
 
         assertNotNull(dataLakeDirectoryClient);
-        String cacheKey = String.format("%s-%s", PARTITION_ID, FILE_SYSTEM_NAME);
-        verify(dataLakeContainerClientMap, times(0)).get(cacheKey);
     }
 
     @Test
@@ -127,8 +122,6 @@ public class DataLakeClientFactoryImplTest {
                 PARTITION_ID, DIRECTORY_NAME, FILE_SYSTEM_NAME);
 
         assertNotNull(dataLakeDirectoryClient);
-        String cacheKey = String.format("%s-%s", PARTITION_ID, FILE_SYSTEM_NAME);
-        verify(dataLakeContainerClientMap, times(0)).get(cacheKey);
     }
 
     @Test
@@ -155,32 +148,30 @@ public class DataLakeClientFactoryImplTest {
 
     @Test
     public void getDataLakeDirectoryClient_should_return_cachedContainer_when_cachedEarlier() {
-        String cacheKey = String.format("%s-%s", PARTITION_ID, FILE_SYSTEM_NAME);
-
-        when(this.dataLakeContainerClientMap.containsKey(cacheKey)).thenReturn(true);
-        when(this.dataLakeContainerClientMap.get(cacheKey)).thenReturn(mockDataLakeServiceClient);
+        when(mockBlobStoreRetryConfiguration.getRequestRetryOptions())
+                .thenReturn(mockRequestRetryOptions);
 
-        DataLakeDirectoryClient dataLakeDirectoryClient = dataLakeClientFactoryImpl.getDataLakeDirectoryClient(
+        DataLakeDirectoryClient first = dataLakeClientFactoryImpl.getDataLakeDirectoryClient(
+                PARTITION_ID, DIRECTORY_NAME, FILE_SYSTEM_NAME);
+        DataLakeDirectoryClient second = dataLakeClientFactoryImpl.getDataLakeDirectoryClient(
                 PARTITION_ID, DIRECTORY_NAME, FILE_SYSTEM_NAME);
 
-        assertNotNull(dataLakeDirectoryClient);
-       verify(this.dataLakeContainerClientMap).containsKey(cacheKey);
-       verify(this.dataLakeContainerClientMap).get(cacheKey);
+        assertNotNull(first);
+        assertNotNull(second);
+        verify(mockPartitionServiceClient, times(1)).getPartition(PARTITION_ID);
     }
 
     @Test
     public void getDataLakeServiceClient_should_return_cachedContainer_when_cachedEarlier() {
-        String cacheKey = String.format("%s-%s", PARTITION_ID, FILE_SYSTEM_NAME);
-
-        when(this.dataLakeContainerClientMap.containsKey(cacheKey)).thenReturn(true);
-        when(this.dataLakeContainerClientMap.get(cacheKey)).thenReturn(mockDataLakeServiceClient);
+        when(mockBlobStoreRetryConfiguration.getRequestRetryOptions())
+                .thenReturn(mockRequestRetryOptions);
 
-        DataLakeServiceClient dataLakeServiceClient = dataLakeClientFactoryImpl.getDataLakeServiceClient(
-                PARTITION_ID, FILE_SYSTEM_NAME);
+        DataLakeServiceClient first = dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID, FILE_SYSTEM_NAME);
+        DataLakeServiceClient second = dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID, FILE_SYSTEM_NAME);
 
-        assertNotNull(dataLakeServiceClient);
-        verify(this.dataLakeContainerClientMap).containsKey(cacheKey);
-        verify(this.dataLakeContainerClientMap).get(cacheKey);
+        assertSame(first, second);
+        assertSame(first, dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID));
+        verify(mockPartitionServiceClient, times(1)).getPartition(PARTITION_ID);
     }
 
     @Test
@@ -193,8 +184,6 @@ public class DataLakeClientFactoryImplTest {
                 PARTITION_ID, FILE_SYSTEM_NAME);
 
         assertNotNull(dataLakeServiceClient);
-        String cacheKey = String.format("%s-%s", PARTITION_ID, FILE_SYSTEM_NAME);
-        verify(dataLakeContainerClientMap, times(0)).get(cacheKey);
     }
 
     @Test
@@ -206,7 +195,46 @@ public class DataLakeClientFactoryImplTest {
                 PARTITION_ID, FILE_SYSTEM_NAME);
 
         assertNotNull(dataLakeServiceClient);
-        String cacheKey = String.format("%s-%s", PARTITION_ID, FILE_SYSTEM_NAME);
-        verify(dataLakeContainerClientMap, times(0)).get(cacheKey);
+    }
+
+    @Test
+    public void getDataLakeServiceClient_CachesClientPerPartition() {
+        when(mockBlobStoreRetryConfiguration.getRequestRetryOptions())
+                .thenReturn(mockRequestRetryOptions);
+
+        DataLakeServiceClient first = dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID);
+        DataLakeServiceClient second = dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID);
+
+        assertSame(first, second);
+        verify(mockPartitionServiceClient, times(1)).getPartition(PARTITION_ID);
+    }
+
+    @Test
+    public void getDataLakeServiceClient_SharesClientBetweenPartitionsOfSameAccount() {
+        when(mockBlobStoreRetryConfiguration.getRequestRetryOptions())
+                .thenReturn(mockRequestRetryOptions);
+        when(mockPartitionServiceClient.getPartition("otherPartition")).thenReturn(mockPartitionInfoAzure);
+
+        DataLakeServiceClient first = dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID);
+        DataLakeServiceClient second = dataLakeClientFactoryImpl.getDataLakeServiceClient("otherPartition");
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void invalidate_CreatesClientWithRotatedAccountKey() {
+        when(mockBlobStoreRetryConfiguration.getRequestRetryOptions())
+                .thenReturn(mockRequestRetryOptions);
+
+        DataLakeServiceClient first = dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID);
+        when(mockPartitionInfoAzure.getHierarchicalStorageAccountKey()).thenReturn("rotatedAccountKey");
+        assertSame(first, dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID));
+
+        dataLakeClientFactoryImpl.invalidate(PARTITION_ID);
+        DataLakeServiceClient second = dataLakeClientFactoryImpl.getDataLakeServiceClient(PARTITION_ID);
+
+        assertNotSame(first, second);
+        verify(mockPartitionServiceClient).invalidatePartition(PARTITION_ID);
+        verify(mockPartitionServiceClient, times(2)).getPartition(PARTITION_ID);
     }
 }
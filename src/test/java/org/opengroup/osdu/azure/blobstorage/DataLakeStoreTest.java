@@ -13,15 +13,31 @@
 // limitations under the License.
 package org.opengroup.osdu.azure.blobstorage;
 
+import com.azure.core.http.rest.PagedFlux;
 import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.PagedResponseBase;
+import com.azure.core.http.rest.Response;
+import com.azure.core.http.rest.SimpleResponse;
+import com.azure.storage.common.ParallelTransferOptions;
 import com.azure.storage.file.datalake.DataLakeDirectoryClient;
+import com.azure.storage.file.datalake.DataLakeFileClient;
+import com.azure.storage.file.datalake.DataLakeFileSystemClient;
 import com.azure.storage.file.datalake.DataLakeServiceClient;
+import com.azure.storage.file.datalake.models.AccessControlChangeResult;
+import com.azure.storage.file.datalake.models.AccessControlChanges;
+import com.azure.storage.file.datalake.models.DataLakeAclChangeFailedException;
 import com.azure.storage.file.datalake.models.DataLakeStorageException;
+import com.azure.storage.file.datalake.models.ListPathsOptions;
+import com.azure.storage.file.datalake.models.PathAccessControlEntry;
 import com.azure.storage.file.datalake.models.PathInfo;
 import com.azure.storage.file.datalake.models.PathItem;
+import com.azure.storage.file.datalake.models.PathProperties;
 import com.azure.storage.file.datalake.models.UserDelegationKey;
 import com.azure.storage.file.datalake.sas.DataLakeServiceSasSignatureValues;
 import com.azure.storage.file.datalake.sas.FileSystemSasPermission;
+import com.azure.storage.file.datalake.options.PathSetAccessControlRecursiveOptions;
+import com.azure.storage.file.datalake.options.PathUpdateAccessControlRecursiveOptions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,27 +48,44 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.azure.datalakestorage.DataLakeAclChangeException;
 import org.opengroup.osdu.azure.datalakestorage.DataLakeStore;
 import org.opengroup.osdu.azure.datalakestorage.IDataLakeClientFactory;
 import org.opengroup.osdu.azure.logging.CoreLogger;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.core.common.model.http.AppException;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -64,6 +97,7 @@ public class DataLakeStoreTest {
     private static final String DIRECTORY_NAME = "directoryName";
     private static final String FILE_SYSTEM_NAME = "fileSystemName";
     private static final String DESTINATION_FILE_SYSTEM = "destinationSystemName";
+    private static final String FILE_PATH = "directoryName/file.bin";
 
     @Mock
     private CoreLoggerFactory coreLoggerFactory;
@@ -100,6 +134,7 @@ public class DataLakeStoreTest {
         lenient().when(coreLoggerFactory.getLogger(anyString())).thenReturn(coreLogger);
         lenient().when(dataLakeClientFactory.getDataLakeDirectoryClient(
                 PARTITION_ID, DIRECTORY_NAME, FILE_SYSTEM_NAME)).thenReturn(dataLakeDirectoryClient);
+        lenient().when(dataLakeServiceClient.getAccountUrl()).thenReturn("https://" + UUID.randomUUID() + ".dfs.core.windows.net");
     }
 
     @AfterEach
@@ -295,4 +330,215 @@ public class DataLakeStoreTest {
         return new PathItem("test-etag", null, 1, "test-group", false, DIRECTORY_NAME+"/"+fileName, "test-owner", "read");
     }
 
+    @Test
+    public void listPaths_StreamsRecursiveListing() {
+        DataLakeFileSystemClient fileSystemClient = mockFileSystemClient();
+        PathItem file = pathItem(DIRECTORY_NAME + "/a.json", false);
+        when(fileSystemClient.listPaths(any(ListPathsOptions.class), any(Duration.class))).thenReturn(pagedIterable(null, file));
+
+        List<PathItem> paths;
+        try (Stream<PathItem> stream = dataLakeStore.listPaths(PARTITION_ID, FILE_SYSTEM_NAME, DIRECTORY_NAME, 100)) {
+            paths = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(Arrays.asList(file), paths);
+        verify(fileSystemClient).listPaths(argThat(options -> options.isRecursive() && DIRECTORY_NAME.equals(options.getPath())
+                && options.getMaxResults() == 100), any(Duration.class));
+        verify(coreLogger).logDependency(any());
+    }
+
+    @Test
+    public void listPathsPage_ReturnsPageWithContinuationToken() {
+        DataLakeFileSystemClient fileSystemClient = mockFileSystemClient();
+        PathItem file = pathItem(DIRECTORY_NAME + "/a.json", false);
+        when(fileSystemClient.listPaths(any(ListPathsOptions.class), any(Duration.class))).thenReturn(pagedIterable("next", file));
+
+        PagedResponse<PathItem> page = dataLakeStore.listPathsPage(PARTITION_ID, FILE_SYSTEM_NAME, DIRECTORY_NAME, false, 10, null);
+
+        assertEquals(Arrays.asList(file), page.getValue());
+        assertEquals("next", page.getContinuationToken());
+    }
+
+    @Test
+    public void listPathsParallel_WalksSubdirectories() {
+        DataLakeFileSystemClient fileSystemClient = mockFileSystemClient();
+        PathItem subdirectory = pathItem(DIRECTORY_NAME + "/sub", true);
+        PathItem rootFile = pathItem(DIRECTORY_NAME + "/a.json", false);
+        PathItem nestedFile = pathItem(DIRECTORY_NAME + "/sub/b.json", false);
+        when(fileSystemClient.listPaths(argThat(options -> options != null && DIRECTORY_NAME.equals(options.getPath())), any(Duration.class)))
+                .thenReturn(pagedIterable(null, subdirectory, rootFile));
+        when(fileSystemClient.listPaths(argThat(options -> options != null && (DIRECTORY_NAME + "/sub").equals(options.getPath())), any(Duration.class)))
+                .thenReturn(pagedIterable(null, nestedFile));
+
+        Set<PathItem> paths;
+        try (Stream<PathItem> stream = dataLakeStore.listPathsParallel(PARTITION_ID, FILE_SYSTEM_NAME, DIRECTORY_NAME, 4)) {
+            paths = stream.collect(Collectors.toSet());
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList(subdirectory, rootFile, nestedFile)), paths);
+        verify(coreLogger, timeout(1000)).logDependency(any());
+    }
+
+    @Test
+    public void uploadFile_UploadsWithTransferOptions() {
+        DataLakeFileClient fileClient = mockFileClient();
+        ParallelTransferOptions transferOptions = new ParallelTransferOptions().setBlockSizeLong(4L * 1024 * 1024).setMaxConcurrency(8);
+
+        dataLakeStore.uploadFile(PARTITION_ID, FILE_SYSTEM_NAME, FILE_PATH, Paths.get("/tmp/source.bin"), transferOptions);
+
+        verify(fileClient).uploadFromFile(eq(Paths.get("/tmp/source.bin").toString()), eq(transferOptions), isNull(), isNull(), isNull(), isNull());
+        verify(coreLogger).logDependency(any());
+    }
+
+    @Test
+    public void downloadToFile_ReturnsFileSize() {
+        DataLakeFileClient fileClient = mockFileClient();
+        Response<PathProperties> response = mock(Response.class);
+        PathProperties properties = mock(PathProperties.class);
+        when(properties.getFileSize()).thenReturn(42L);
+        when(response.getValue()).thenReturn(properties);
+        when(fileClient.readToFileWithResponse(anyString(), isNull(), isNull(), isNull(), isNull(), eq(false), any(), isNull(), any()))
+                .thenReturn(response);
+
+        assertEquals(42L, dataLakeStore.downloadToFile(PARTITION_ID, FILE_SYSTEM_NAME, FILE_PATH, Paths.get("/tmp/target.bin"), null));
+    }
+
+    @Test
+    public void appendToFile_CreatesFileOnFirstAppendAndReturnsNextOffset() {
+        DataLakeFileClient fileClient = mockFileClient();
+        InputStream first = new ByteArrayInputStream(new byte[10]);
+        InputStream second = new ByteArrayInputStream(new byte[5]);
+
+        long offset = dataLakeStore.appendToFile(PARTITION_ID, FILE_SYSTEM_NAME, FILE_PATH, first, 10, 0);
+        offset = dataLakeStore.appendToFile(PARTITION_ID, FILE_SYSTEM_NAME, FILE_PATH, second, 5, offset);
+        dataLakeStore.flushFile(PARTITION_ID, FILE_SYSTEM_NAME, FILE_PATH, offset);
+
+        assertEquals(15, offset);
+        verify(fileClient, times(1)).create(true);
+        verify(fileClient).append(first, 0, 10);
+        verify(fileClient).append(second, 10, 5);
+        verify(fileClient).flush(15, true);
+    }
+
+    @Test
+    public void flushFile_MapsStorageFailure() {
+        DataLakeFileClient fileClient = mockFileClient();
+        DataLakeStorageException exception = mock(DataLakeStorageException.class);
+        when(exception.getStatusCode()).thenReturn(409);
+        when(fileClient.flush(15, true)).thenThrow(exception);
+
+        try {
+            dataLakeStore.flushFile(PARTITION_ID, FILE_SYSTEM_NAME, FILE_PATH, 15);
+            fail("Should not succeed");
+        } catch (AppException ex) {
+            assertEquals(409, ex.getError().getCode());
+        }
+    }
+
+    @Test
+    public void createDirectories_CreatesEachDirectory() {
+        DataLakeFileSystemClient fileSystemClient = mockFileSystemClient();
+        DataLakeDirectoryClient first = mock(DataLakeDirectoryClient.class);
+        DataLakeDirectoryClient second = mock(DataLakeDirectoryClient.class);
+        when(fileSystemClient.getDirectoryClient("a")).thenReturn(first);
+        when(fileSystemClient.getDirectoryClient("a/b")).thenReturn(second);
+        when(first.createIfNotExists()).thenReturn(first);
+        when(second.createIfNotExists()).thenReturn(second);
+
+        dataLakeStore.createDirectories(PARTITION_ID, FILE_SYSTEM_NAME, Arrays.asList("a", "a/b"), 2);
+
+        verify(first).createIfNotExists();
+        verify(second).createIfNotExists();
+        verify(coreLogger).logDependency(any());
+    }
+
+    @Test
+    public void createDirectories_MapsStorageFailure() {
+        DataLakeFileSystemClient fileSystemClient = mockFileSystemClient();
+        DataLakeDirectoryClient directoryClient = mock(DataLakeDirectoryClient.class);
+        DataLakeStorageException exception = mock(DataLakeStorageException.class);
+        when(exception.getStatusCode()).thenReturn(403);
+        when(fileSystemClient.getDirectoryClient("a")).thenReturn(directoryClient);
+        when(directoryClient.createIfNotExists()).thenThrow(exception);
+
+        try {
+            dataLakeStore.createDirectories(PARTITION_ID, FILE_SYSTEM_NAME, Arrays.asList("a"), 2);
+            fail("Should not succeed");
+        } catch (AppException ex) {
+            assertEquals(403, ex.getError().getCode());
+        }
+    }
+
+    @Test
+    public void setAccessControlRecursive_PassesOptionsAndReportsProgress() {
+        DataLakeDirectoryClient directoryClient = mockDirectoryClient();
+        List<PathAccessControlEntry> acl = PathAccessControlEntry.parseList("user::rwx,group::r-x,other::---");
+        AccessControlChanges changes = new AccessControlChanges();
+        AccessControlChangeResult result = new AccessControlChangeResult().setContinuationToken("next");
+        when(directoryClient.setAccessControlRecursiveWithResponse(any(PathSetAccessControlRecursiveOptions.class), isNull(), any()))
+                .thenAnswer(invocation -> {
+                    PathSetAccessControlRecursiveOptions options = invocation.getArgument(0);
+                    assertEquals(acl, options.getAccessControlList());
+                    assertEquals(500, options.getBatchSize());
+                    assertEquals("token", options.getContinuationToken());
+                    options.getProgressHandler().accept(new SimpleResponse<>(null, 200, null, changes));
+                    return new SimpleResponse<>(null, 200, null, result);
+                });
+        List<AccessControlChanges> progress = new ArrayList<>();
+
+        AccessControlChangeResult actual = dataLakeStore.setAccessControlRecursive(PARTITION_ID, FILE_SYSTEM_NAME, DIRECTORY_NAME,
+                acl, 500, "token", progress::add);
+
+        assertEquals("next", actual.getContinuationToken());
+        assertEquals(1, progress.size());
+        assertSame(changes, progress.get(0));
+    }
+
+    @Test
+    public void updateAccessControlRecursive_MapsFailureWithContinuationToken() {
+        DataLakeDirectoryClient directoryClient = mockDirectoryClient();
+        DataLakeAclChangeFailedException exception = new DataLakeAclChangeFailedException("failed", new RuntimeException(), "resume-here");
+        when(directoryClient.updateAccessControlRecursiveWithResponse(any(PathUpdateAccessControlRecursiveOptions.class), isNull(), any()))
+                .thenThrow(exception);
+
+        try {
+            dataLakeStore.updateAccessControlRecursive(PARTITION_ID, FILE_SYSTEM_NAME, DIRECTORY_NAME,
+                    PathAccessControlEntry.parseList("user::rwx"), null, null, null);
+            fail("Should not succeed");
+        } catch (DataLakeAclChangeException ex) {
+            assertEquals(500, ex.getError().getCode());
+            assertEquals("resume-here", ex.getContinuationToken());
+        }
+    }
+
+    private DataLakeDirectoryClient mockDirectoryClient() {
+        DataLakeDirectoryClient directoryClient = mock(DataLakeDirectoryClient.class);
+        when(mockFileSystemClient().getDirectoryClient(DIRECTORY_NAME)).thenReturn(directoryClient);
+        return directoryClient;
+    }
+
+    private DataLakeFileClient mockFileClient() {
+        DataLakeFileClient fileClient = mock(DataLakeFileClient.class);
+        when(mockFileSystemClient().getFileClient(FILE_PATH)).thenReturn(fileClient);
+        return fileClient;
+    }
+
+    private DataLakeFileSystemClient mockFileSystemClient() {
+        DataLakeFileSystemClient fileSystemClient = mock(DataLakeFileSystemClient.class);
+        when(dataLakeClientFactory.getDataLakeServiceClient(PARTITION_ID, FILE_SYSTEM_NAME)).thenReturn(dataLakeServiceClient);
+        when(dataLakeServiceClient.getFileSystemClient(FILE_SYSTEM_NAME)).thenReturn(fileSystemClient);
+        return fileSystemClient;
+    }
+
+    private static PathItem pathItem(String name, boolean directory) {
+        PathItem pathItem = mock(PathItem.class);
+        lenient().when(pathItem.getName()).thenReturn(name);
+        lenient().when(pathItem.isDirectory()).thenReturn(directory);
+        return pathItem;
+    }
+
+    private static PagedIterable<PathItem> pagedIterable(String continuationToken, PathItem... items) {
+        PagedResponse<PathItem> page = new PagedResponseBase<Void, PathItem>(null, 200, null, Arrays.asList(items), continuationToken, null);
+        return new PagedIterable<>(new PagedFlux<>(() -> Mono.just(page)));
+    }
 }
@@ -0,0 +1,194 @@
+package org.opengroup.osdu.azure.cache;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.azure.di.PartitionRedisCacheConfiguration;
+import org.opengroup.osdu.core.common.partition.PartitionInfo;
+import org.opengroup.osdu.core.common.partition.Property;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionInfoRedisCacheTest {
+
+    private static final String PARTITION_ID = "opendes";
+    private static final String BUCKET_KEY = "osdu:partition-info:opendes";
+
+    @Mock
+    private PartitionRedisCacheConfiguration configuration;
+    @Mock
+    private IRedisClientFactory redisClientFactory;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RBucket<String> bucket;
+    @Mock
+    private RLock lock;
+    @Mock
+    private RTopic topic;
+    @InjectMocks
+    private PartitionInfoRedisCache sut;
+
+    private final Gson gson = new Gson();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(configuration.getRefreshSeconds()).thenReturn(300L);
+        lenient().when(configuration.getExpirationSeconds()).thenReturn(86400L);
+        lenient().when(configuration.getLockWaitMillis()).thenReturn(5000L);
+        lenient().when(configuration.getLockLeaseMillis()).thenReturn(30000L);
+        lenient().when(redisClientFactory.getRedissonClient(any(), any())).thenReturn(redissonClient);
+        lenient().doReturn(bucket).when(redissonClient).getBucket(BUCKET_KEY, StringCodec.INSTANCE);
+        lenient().doReturn(lock).when(redissonClient).getLock(anyString());
+        lenient().doReturn(topic).when(redissonClient).getTopic(anyString(), eq(StringCodec.INSTANCE));
+    }
+
+    @Test
+    public void get_returnsFreshSharedEntry_withoutLoading() {
+        when(bucket.get()).thenReturn(entry(System.currentTimeMillis(), "account"));
+
+        PartitionInfo partitionInfo = sut.get(PARTITION_ID, loader("other"));
+
+        assertEquals("account", partitionInfo.getProperties().get("storage-account-name").getValue());
+        assertEquals(0, loads.get());
+        verify(redissonClient, never()).getLock(anyString());
+    }
+
+    @Test
+    public void get_loadsAndStoresMissingEntry_underLock() throws InterruptedException {
+        when(lock.tryLock(5000L, 30000L, TimeUnit.MILLISECONDS)).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+
+        PartitionInfo partitionInfo = sut.get(PARTITION_ID, loader("account"));
+
+        assertEquals("account", partitionInfo.getProperties().get("storage-account-name").getValue());
+        assertEquals(1, loads.get());
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(bucket).set(stored.capture(), eq(86400L), eq(TimeUnit.SECONDS));
+        assertTrue(stored.getValue().contains("opendes-storage-key"));
+        verify(lock).unlock();
+        verify(topic, never()).publish(any());
+    }
+
+    @Test
+    public void get_servesStaleEntry_whenAnotherPodIsReloading() throws InterruptedException {
+        String stale = entry(0, "account");
+        when(bucket.get()).thenReturn(stale);
+        when(lock.tryLock(0L, 30000L, TimeUnit.MILLISECONDS)).thenReturn(false);
+
+        PartitionInfo partitionInfo = sut.get(PARTITION_ID, loader("other"));
+
+        assertEquals("account", partitionInfo.getProperties().get("storage-account-name").getValue());
+        assertEquals(0, loads.get());
+        verify(lock, never()).unlock();
+    }
+
+    @Test
+    public void get_publishesInvalidation_whenReloadChangesPartition() throws InterruptedException {
+        when(bucket.get()).thenReturn(entry(0, "account"));
+        when(lock.tryLock(0L, 30000L, TimeUnit.MILLISECONDS)).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+
+        PartitionInfo partitionInfo = sut.get(PARTITION_ID, loader("new-account"));
+
+        assertEquals("new-account", partitionInfo.getProperties().get("storage-account-name").getValue());
+        verify(topic).publish(PARTITION_ID);
+    }
+
+    @Test
+    public void get_fallsBackToLoader_whenRedisFails() {
+        when(bucket.get()).thenThrow(new RedisException("unavailable"));
+
+        PartitionInfo partitionInfo = sut.get(PARTITION_ID, loader("account"));
+
+        assertEquals("account", partitionInfo.getProperties().get("storage-account-name").getValue());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void get_fallsBackToLoader_whenRedisIsNotConfigured() {
+        when(redisClientFactory.getRedissonClient(any(), any())).thenReturn(null);
+
+        sut.get(PARTITION_ID, loader("account"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void get_fallsBackToLoader_whenRedisCanNotBeConnected() {
+        when(redisClientFactory.getRedissonClient(any(), any())).thenThrow(new RedisConnectionException("unreachable"));
+
+        PartitionInfo partitionInfo = sut.get(PARTITION_ID, loader("account"));
+
+        assertEquals("account", partitionInfo.getProperties().get("storage-account-name").getValue());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void addInvalidationListener_ignoresRedisConnectionFailure() {
+        when(redisClientFactory.getRedissonClient(any(), any())).thenThrow(new RedisConnectionException("unreachable"));
+
+        sut.addInvalidationListener(partitionId -> { });
+        sut.invalidate(PARTITION_ID);
+
+        verify(redissonClient, never()).getTopic(anyString(), eq(StringCodec.INSTANCE));
+    }
+
+    @Test
+    public void invalidate_deletesEntryAndPublishesPartitionId() {
+        sut.invalidate(PARTITION_ID);
+
+        verify(bucket).delete();
+        verify(topic).publish(PARTITION_ID);
+    }
+
+    private Supplier<PartitionInfo> loader(final String accountName) {
+        return () -> {
+            loads.incrementAndGet();
+            return PartitionInfo.builder().properties(properties(accountName)).build();
+        };
+    }
+
+    private String entry(final long loadedAt, final String accountName) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("loadedAt", loadedAt);
+        entry.put("properties", gson.toJson(properties(accountName)));
+        return gson.toJson(entry);
+    }
+
+    private static Map<String, Property> properties(final String accountName) {
+        Map<String, Property> properties = new HashMap<>();
+        properties.put("storage-account-name", Property.builder().value(accountName).sensitive(false).build());
+        properties.put("storage-account-key", Property.builder().value("opendes-storage-key").sensitive(true).build());
+        return properties;
+    }
+}
@@ -0,0 +1,166 @@
+package org.opengroup.osdu.azure.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserDelegationKeyCacheTest {
+    private static final String ACCOUNT = "dataPartitionId";
+
+    @Mock
+    private BiFunction<OffsetDateTime, OffsetDateTime, String> keyLoader;
+    @Mock
+    private BiFunction<OffsetDateTime, OffsetDateTime, Mono<String>> asyncKeyLoader;
+
+    private MutableClock clock;
+    private UserDelegationKeyCache<String> cache;
+
+    @BeforeEach
+    void init() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        cache = new UserDelegationKeyCache<>(Duration.ofDays(2), Duration.ofHours(6), clock);
+    }
+
+    @Test
+    public void get_ReusesKeyForRequestsInsideValidityWindow() {
+        when(keyLoader.apply(any(), any())).thenReturn("key-1");
+
+        assertEquals("key-1", cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader));
+        assertEquals("key-1", cache.get(ACCOUNT, null, now().plusDays(1), keyLoader));
+
+        verify(keyLoader, times(1)).apply(now().minusMinutes(5), now().plusDays(2));
+    }
+
+    @Test
+    public void get_LoadsNewKeyWhenExpiryIsOutsideWindow() {
+        when(keyLoader.apply(any(), any())).thenReturn("key-1", "key-2");
+
+        assertEquals("key-1", cache.get(ACCOUNT, now(), now().plusDays(1), keyLoader));
+        assertEquals("key-2", cache.get(ACCOUNT, now(), now().plusDays(5), keyLoader));
+        assertEquals("key-2", cache.get(ACCOUNT, now(), now().plusDays(4), keyLoader));
+
+        verify(keyLoader, times(2)).apply(any(), any());
+    }
+
+    @Test
+    public void get_KeepsAccountsApart() {
+        when(keyLoader.apply(any(), any())).thenReturn("key-1", "key-2");
+
+        assertEquals("key-1", cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader));
+        assertEquals("key-2", cache.get("otherPartition", now(), now().plusHours(1), keyLoader));
+    }
+
+    @Test
+    public void get_DoesNotCacheMissingKey() {
+        when(keyLoader.apply(any(), any())).thenReturn(null, "key-1");
+
+        assertNull(cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader));
+        assertEquals("key-1", cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader));
+    }
+
+    @Test
+    public void get_RefreshesKeyAheadOfExpiry() {
+        when(keyLoader.apply(any(), any())).thenReturn("key-1", "key-2");
+        cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader);
+
+        clock.advance(Duration.ofHours(43));
+        assertEquals("key-1", cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader));
+
+        verify(keyLoader, timeout(1000).times(2)).apply(any(), any());
+    }
+
+    @Test
+    public void invalidate_DropsKey() {
+        when(keyLoader.apply(any(), any())).thenReturn("key-1", "key-2");
+        cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader);
+
+        cache.invalidate(ACCOUNT);
+
+        assertEquals("key-2", cache.get(ACCOUNT, now(), now().plusHours(1), keyLoader));
+    }
+
+    @Test
+    public void getAsync_SharesPendingKeyRequest() {
+        Sinks.One<String> response = Sinks.one();
+        when(asyncKeyLoader.apply(any(), any())).thenReturn(response.asMono());
+
+        CompletableFuture<String> first = cache.getAsync(ACCOUNT, now(), now().plusHours(1), asyncKeyLoader).toFuture();
+        CompletableFuture<String> second = cache.getAsync(ACCOUNT, now(), now().plusHours(2), asyncKeyLoader).toFuture();
+        response.tryEmitValue("key-1");
+
+        assertEquals("key-1", first.join());
+        assertEquals("key-1", second.join());
+        assertEquals("key-1", cache.getAsync(ACCOUNT, null, now().plusDays(1), asyncKeyLoader).block());
+        verify(asyncKeyLoader, times(1)).apply(now().minusMinutes(5), now().plusDays(2));
+    }
+
+    @Test
+    public void getAsync_DoesNotRememberFailedKeyRequest() {
+        when(asyncKeyLoader.apply(any(), any())).thenReturn(Mono.error(new IllegalStateException("unavailable")), Mono.just("key-1"));
+
+        assertThrows(IllegalStateException.class, () -> cache.getAsync(ACCOUNT, now(), now().plusHours(1), asyncKeyLoader).block());
+        assertEquals("key-1", cache.getAsync(ACCOUNT, now(), now().plusHours(1), asyncKeyLoader).block());
+    }
+
+    @Test
+    public void shared_ReturnsOneCachePerKeyType() {
+        assertSame(UserDelegationKeyCache.shared(String.class), UserDelegationKeyCache.shared(String.class));
+        assertNotSame(UserDelegationKeyCache.shared(String.class), UserDelegationKeyCache.shared(Integer.class));
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(clock);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant start) {
+            this.instant = start;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.opengroup.osdu.azure.cosmosdb;
+
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.azure.di.CosmosQueryCacheConfiguration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@ExtendWith(MockitoExtension.class)
+public class CosmosQueryCacheTest {
+
+    private static final String DATA_PARTITION_ID = "data-partition-id";
+    private static final String COSMOS_DB = "cosmosdb";
+    private static final String COLLECTION = "collection";
+
+    @Spy
+    private CosmosQueryCacheConfiguration configuration = new CosmosQueryCacheConfiguration();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CosmosQueryCache sut;
+
+    @Test
+    void getOrLoad_servesRepeatedQueryFromCache() {
+        enableCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        List<String> first = load(new SqlQuerySpec("SELECT * FROM c"), loads);
+        List<String> second = load(new SqlQuerySpec("  SELECT *\n FROM c "), loads);
+
+        assertEquals(Arrays.asList("a", "b"), first);
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, sut.getStats().hitCount());
+        assertEquals(1, sut.getStats().missCount());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "cosmos.query.cache").meter());
+    }
+
+    @Test
+    void getOrLoad_distinguishesParameters() {
+        enableCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        load(new SqlQuerySpec("SELECT * FROM c WHERE c.kind = @kind", Collections.singletonList(new SqlParameter("@kind", "a"))), loads);
+        load(new SqlQuerySpec("SELECT * FROM c WHERE c.kind = @kind", Collections.singletonList(new SqlParameter("@kind", "b"))), loads);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_dropsCachedQueriesOfCollection() {
+        enableCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        load(new SqlQuerySpec("SELECT * FROM c"), loads);
+        sut.invalidate(DATA_PARTITION_ID, COSMOS_DB, COLLECTION);
+        load(new SqlQuerySpec("SELECT * FROM c"), loads);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getOrLoad_doesNotCacheResultLoadedDuringWrite() {
+        enableCache();
+        AtomicInteger loads = new AtomicInteger();
+        SqlQuerySpec query = new SqlQuerySpec("SELECT * FROM c");
+
+        sut.getOrLoad(DATA_PARTITION_ID, COSMOS_DB, COLLECTION, query, null, String.class, () -> {
+            loads.incrementAndGet();
+            sut.invalidate(DATA_PARTITION_ID, COSMOS_DB, COLLECTION);
+            return Collections.singletonList("stale");
+        });
+        load(query, loads);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getOrLoad_bypassesCache_whenDisabled() {
+        sut.initialize();
+        AtomicInteger loads = new AtomicInteger();
+
+        load(new SqlQuerySpec("SELECT * FROM c"), loads);
+        load(new SqlQuerySpec("SELECT * FROM c"), loads);
+
+        assertEquals(2, loads.get());
+    }
+
+    private void enableCache() {
+        configuration.setEnabled(true);
+        sut.initialize();
+    }
+
+    private List<String> load(SqlQuerySpec query, AtomicInteger loads) {
+        return sut.getOrLoad(DATA_PARTITION_ID, COSMOS_DB, COLLECTION, query, null, String.class, () -> {
+            loads.incrementAndGet();
+            return Arrays.asList("a", "b");
+        });
+    }
+}
@@ -72,6 +72,8 @@ public class CosmosStoreBulkOperationsTest {
     private DependencyLogger dependencyLogger;
     @Mock
     private ICosmosClientFactory cosmosClientFactory;
+    @Mock
+    private CosmosQueryCache queryCache;
     @Captor
     ArgumentCaptor<DependencyLoggingOptions> loggingOptionsArgumentCaptor;
     @Captor
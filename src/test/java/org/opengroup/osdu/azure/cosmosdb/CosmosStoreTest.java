@@ -15,18 +15,26 @@
 package org.opengroup.osdu.azure.cosmosdb;
 
 
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosAsyncDatabase;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosDatabase;
 import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.implementation.ConflictException;
 import com.azure.cosmos.implementation.NotFoundException;
+import com.azure.cosmos.models.CosmosBulkItemResponse;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
 import com.azure.cosmos.models.CosmosItemRequestOptions;
 import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.PartitionKey;
 import com.azure.cosmos.models.SqlQuerySpec;
 import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.util.CosmosPagedFlux;
 import com.azure.cosmos.util.CosmosPagedIterable;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,17 +48,27 @@ import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.azure.logging.DependencyLogger;
 import org.opengroup.osdu.azure.logging.DependencyLoggingOptions;
 import org.opengroup.osdu.azure.multitenancy.TenantInfoDoc;
+import org.opengroup.osdu.azure.partition.PartitionServiceClient;
+import org.opengroup.osdu.azure.query.CrossPartitionQueryOptions;
+import org.opengroup.osdu.azure.query.DeleteByQueryOptions;
+import org.opengroup.osdu.azure.query.DeleteByQueryResult;
+import org.opengroup.osdu.azure.query.PartitionQueryResult;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.springframework.data.domain.Page;
+import reactor.core.publisher.Flux;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -115,6 +133,12 @@ class CosmosStoreTest {
     @Mock
     private DependencyLogger dependencyLogger;
 
+    @Mock
+    private PartitionServiceClient partitionService;
+
+    @Mock
+    private CosmosQueryCache queryCache;
+
     @InjectMocks
     private CosmosStore cosmosStore;
 
@@ -464,6 +488,150 @@ class CosmosStoreTest {
         assertEquals(0, results.getTotalElements());
     }
 
+    @Test
+    void queryAcrossPartitions_returnsResultsPerPartition() {
+        mockAsyncQueryResponse("partition-1", 2.0, "s1", "s2");
+        mockAsyncQueryResponse("partition-2", 3.0, "s3");
+        CrossPartitionQueryOptions fanOut = CrossPartitionQueryOptions.builder()
+                .dataPartitionIds(Arrays.asList("partition-1", "partition-2"))
+                .maxParallelism(2)
+                .build();
+
+        Map<String, PartitionQueryResult<String>> results = cosmosStore.queryAcrossPartitions(COSMOS_DB, COLLECTION,
+                        new SqlQuerySpec("SELECT * FROM c"), null, String.class, fanOut)
+                .collect(Collectors.toMap(PartitionQueryResult::getDataPartitionId, result -> result));
+
+        assertEquals(2, results.size());
+        assertEquals(Arrays.asList("s1", "s2"), results.get("partition-1").getResults());
+        assertEquals(2.0, results.get("partition-1").getRequestCharge());
+        assertTrue(results.get("partition-1").isSuccess());
+        assertEquals(Collections.singletonList("s3"), results.get("partition-2").getResults());
+        assertEquals(3.0, results.get("partition-2").getRequestCharge());
+        verify(partitionService, times(0)).listPartitions();
+        verify(dependencyLogger, times(2)).logDependency(any(DependencyLoggingOptions.class));
+    }
+
+    @Test
+    void queryAcrossPartitions_usesAllPartitions_andReportsFailedPartition() {
+        mockAsyncQueryResponse("partition-1", 1.0, "s1");
+        doThrow(new AppException(403, "Service unavailable", "partition not found"))
+                .when(cosmosClientFactory).getAsyncClient("partition-2");
+        doReturn(Arrays.asList("partition-1", "partition-2")).when(partitionService).listPartitions();
+
+        Map<String, PartitionQueryResult<String>> results = cosmosStore.queryAcrossPartitions(COSMOS_DB, COLLECTION,
+                        new SqlQuerySpec("SELECT * FROM c"), null, String.class)
+                .collect(Collectors.toMap(PartitionQueryResult::getDataPartitionId, result -> result));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get("partition-1").isSuccess());
+        PartitionQueryResult<String> failed = results.get("partition-2");
+        assertFalse(failed.isSuccess());
+        assertEquals(403, failed.getResultCode());
+        assertEquals(403, failed.getError().getError().getCode());
+        assertTrue(failed.getResults().isEmpty());
+
+        ArgumentCaptor<DependencyLoggingOptions> loggingOptionsArgumentCaptor = ArgumentCaptor.forClass(DependencyLoggingOptions.class);
+        verify(dependencyLogger, times(2)).logDependency(loggingOptionsArgumentCaptor.capture());
+        List<String> targets = loggingOptionsArgumentCaptor.getAllValues().stream()
+                .map(DependencyLoggingOptions::getTarget)
+                .collect(Collectors.toList());
+        assertTrue(targets.contains("partition-2:cosmosdb/collection"));
+    }
+
+    @Test
+    void upsertItem_invalidatesQueryCache() {
+        CosmosItemResponse cosmosItemResponse = mock(CosmosItemResponse.class);
+        doReturn(cosmosItemResponse).when(container).upsertItem(any(), any(), any());
+
+        cosmosStore.upsertItem(DATA_PARTITION_ID, COSMOS_DB, COLLECTION, PARTITION_KEY_SOME_DATA, "some-data");
+
+        verify(queryCache, times(1)).invalidate(DATA_PARTITION_ID, COSMOS_DB, COLLECTION);
+    }
+
+    @Test
+    void deleteByQuery_deletesMatchingDocuments() throws Exception {
+        FeedResponse page = mockProjectionPage(null, 2.0, "{\"id\":\"1\",\"kind\":\"a\"}", "{\"id\":\"2\",\"kind\":\"b\"}");
+        mockProjectionQuery(page);
+        doReturn(Arrays.asList(mockBulkResponse(204, true, 5.0), mockBulkResponse(404, false, 1.0)))
+                .when(container).executeBulkOperations(any(), any());
+
+        DeleteByQueryResult result = cosmosStore.deleteByQuery(DATA_PARTITION_ID, COSMOS_DB, COLLECTION,
+                new SqlQuerySpec("SELECT c.id, c.kind FROM c"), DeleteByQueryOptions.builder().partitionKeyPath("/kind").build());
+
+        assertEquals(1, result.getDeletedCount());
+        assertEquals(1, result.getNotFoundCount());
+        assertEquals(0, result.getFailedCount());
+        assertEquals(8.0, result.getRequestCharge());
+        assertTrue(result.isCompleted());
+        assertNull(result.getContinuationToken());
+
+        ArgumentCaptor<DependencyLoggingOptions> loggingOptionsArgumentCaptor = ArgumentCaptor.forClass(DependencyLoggingOptions.class);
+        verify(dependencyLogger, times(1)).logDependency(loggingOptionsArgumentCaptor.capture());
+        assertEquals("DELETE_BY_QUERY", loggingOptionsArgumentCaptor.getValue().getName());
+        assertEquals(8.0, loggingOptionsArgumentCaptor.getValue().getRequestCharge());
+    }
+
+    @Test
+    void deleteByQuery_stopsWithContinuationToken_whenBudgetReached() throws Exception {
+        FeedResponse first = mockProjectionPage("token-1", 10.0, "{\"id\":\"1\"}");
+        FeedResponse second = mockProjectionPage(null, 10.0, "{\"id\":\"2\"}");
+        mockProjectionQuery(first, second);
+        doReturn(Collections.singletonList(mockBulkResponse(204, true, 5.0)))
+                .when(container).executeBulkOperations(any(), any());
+
+        DeleteByQueryResult result = cosmosStore.deleteByQuery(DATA_PARTITION_ID, COSMOS_DB, COLLECTION,
+                new SqlQuerySpec("SELECT c.id FROM c"), DeleteByQueryOptions.builder().requestChargeBudget(12.0).build());
+
+        assertEquals(1, result.getDeletedCount());
+        assertFalse(result.isCompleted());
+        assertEquals("token-1", result.getContinuationToken());
+        verify(container, times(1)).executeBulkOperations(any(), any());
+    }
+
+    private FeedResponse mockProjectionPage(String continuationToken, double requestCharge, String... documents) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> results = new ArrayList<>();
+        for (String document : documents) {
+            results.add(mapper.readTree(document));
+        }
+        FeedResponse page = mock(FeedResponse.class);
+        lenient().doReturn(results).when(page).getResults();
+        lenient().doReturn(continuationToken).when(page).getContinuationToken();
+        lenient().doReturn(requestCharge).when(page).getRequestCharge();
+        return page;
+    }
+
+    private void mockProjectionQuery(FeedResponse... pages) {
+        CosmosPagedIterable pagedIterable = mock(CosmosPagedIterable.class);
+        doReturn(pagedIterable).when(container).queryItems(any(SqlQuerySpec.class), any(), any());
+        doReturn(Arrays.asList(pages)).when(pagedIterable).iterableByPage(any(), anyInt());
+    }
+
+    private CosmosBulkOperationResponse mockBulkResponse(int statusCode, boolean success, double requestCharge) {
+        CosmosBulkOperationResponse response = mock(CosmosBulkOperationResponse.class);
+        CosmosBulkItemResponse itemResponse = mock(CosmosBulkItemResponse.class);
+        doReturn(itemResponse).when(response).getResponse();
+        lenient().doReturn(statusCode).when(itemResponse).getStatusCode();
+        doReturn(success).when(itemResponse).isSuccessStatusCode();
+        doReturn(requestCharge).when(itemResponse).getRequestCharge();
+        return response;
+    }
+
+    private void mockAsyncQueryResponse(String dataPartitionId, double requestCharge, String... responses) {
+        CosmosAsyncClient asyncClient = mock(CosmosAsyncClient.class);
+        CosmosAsyncDatabase asyncDatabase = mock(CosmosAsyncDatabase.class);
+        CosmosAsyncContainer asyncContainer = mock(CosmosAsyncContainer.class);
+        CosmosPagedFlux pagedFlux = mock(CosmosPagedFlux.class);
+        FeedResponse pageResponse = mock(FeedResponse.class);
+        doReturn(asyncClient).when(cosmosClientFactory).getAsyncClient(dataPartitionId);
+        doReturn(asyncDatabase).when(asyncClient).getDatabase(COSMOS_DB);
+        doReturn(asyncContainer).when(asyncDatabase).getContainer(COLLECTION);
+        doReturn(pagedFlux).when(asyncContainer).queryItems(any(SqlQuerySpec.class), any(), any());
+        doReturn(Flux.just(pageResponse)).when(pagedFlux).byPage(anyInt());
+        doReturn(Arrays.asList(responses)).when(pageResponse).getResults();
+        doReturn(requestCharge).when(pageResponse).getRequestCharge();
+    }
+
     private void mockQueryResponse(String... responses) {
         ArrayList<FeedResponse> paginatedResponse = new ArrayList<>();
         for (String response : responses) {
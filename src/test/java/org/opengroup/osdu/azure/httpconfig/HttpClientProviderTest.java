@@ -0,0 +1,53 @@
+package org.opengroup.osdu.azure.httpconfig;
+
+import com.azure.core.http.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opengroup.osdu.azure.di.AzureHttpClientConfiguration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class HttpClientProviderTest {
+
+    private HttpClientProvider sut;
+
+    @AfterEach
+    void cleanup() {
+        if (sut != null) {
+            sut.close();
+        }
+    }
+
+    @Test
+    public void getHttpClient_ReturnsSharedInstance() {
+        sut = new HttpClientProvider(new AzureHttpClientConfiguration());
+
+        HttpClient first = sut.getHttpClient();
+
+        assertNotNull(first);
+        assertSame(first, sut.getHttpClient());
+    }
+
+    @Test
+    public void getHttpClient_AppliesEventLoopAndProtocolSettings() {
+        AzureHttpClientConfiguration configuration = new AzureHttpClientConfiguration();
+        configuration.setEventLoopThreads(2);
+        configuration.setHttp2Enabled(true);
+        configuration.setMetricsEnabled(false);
+        sut = new HttpClientProvider(configuration);
+
+        assertNotNull(sut.getHttpClient());
+    }
+
+    @Test
+    public void close_ReleasesClientSoNextCallBuildsNewOne() {
+        sut = new HttpClientProvider(new AzureHttpClientConfiguration());
+        HttpClient first = sut.getHttpClient();
+
+        sut.close();
+
+        assertNotSame(first, sut.getHttpClient());
+    }
+}
@@ -1,6 +1,7 @@
 package org.opengroup.osdu.azure.partition;
 
 import com.azure.core.exception.ResourceNotFoundException;
+import com.azure.security.keyvault.secrets.SecretAsyncClient;
 import com.azure.security.keyvault.secrets.SecretClient;
 import com.azure.security.keyvault.secrets.models.KeyVaultSecret;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,12 +9,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.opengroup.osdu.core.common.partition.Property;
 import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
 import org.opengroup.osdu.azure.logging.ICoreLogger;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @ExtendWith(MockitoExtension.class)
 public class PartitionInfoAzureTest {
@@ -125,4 +139,84 @@ public class PartitionInfoAzureTest {
         // Test and Result
         assertEquals(HIERARCHICAL_STORAGE_V1_BLOB_ENDPOINT, partitionInfoAzure.getHierarchicalStorageAccountBlobEndpoint());
     }
+
+    @Test
+    public void testGetSecret_ResolvesSecretOncePerInstance() {
+        partitionInfoAzure.setStorageAccountKeyConfig(new Property(true, "opendes-storage-key"));
+        when(secretClient.getSecret("opendes-storage-key"))
+                .thenReturn(new KeyVaultSecret("opendes-storage-key", "storage-key"));
+
+        assertEquals("storage-key", partitionInfoAzure.getStorageAccountKey());
+        assertEquals("storage-key", partitionInfoAzure.getStorageAccountKey());
+
+        verify(secretClient, times(1)).getSecret("opendes-storage-key");
+    }
+
+    @Test
+    public void testGetSecret_SharesLoadBetweenConcurrentCallers() throws Exception {
+        partitionInfoAzure.setStorageAccountKeyConfig(new Property(true, "opendes-storage-key"));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(secretClient.getSecret("opendes-storage-key")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new KeyVaultSecret("opendes-storage-key", "storage-key");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(partitionInfoAzure::getStorageAccountKey);
+            loading.await(5, TimeUnit.SECONDS);
+            Future<String> second = executor.submit(partitionInfoAzure::getStorageAccountKey);
+            release.countDown();
+
+            assertEquals("storage-key", first.get(5, TimeUnit.SECONDS));
+            assertEquals("storage-key", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(secretClient, times(1)).getSecret("opendes-storage-key");
+    }
+
+    @Test
+    public void testGetSecret_DoesNotRememberFailedLoad() {
+        partitionInfoAzure.setStorageAccountKeyConfig(new Property(true, "opendes-storage-key"));
+        when(secretClient.getSecret("opendes-storage-key"))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenReturn(new KeyVaultSecret("opendes-storage-key", "storage-key"));
+
+        assertThrows(RuntimeException.class, () -> partitionInfoAzure.getStorageAccountKey());
+        assertEquals("storage-key", partitionInfoAzure.getStorageAccountKey());
+        verify(secretClient, times(2)).getSecret("opendes-storage-key");
+    }
+
+    @Test
+    public void testGetStorageBlobEndpoint_ResolvesEndpointSecretOnce() {
+        partitionInfoAzure.setStorageAccountBlobEndpointConfig(new Property(true, BLOB_ENDPOINT_SECRET));
+        when(secretClient.getSecret(BLOB_ENDPOINT_SECRET))
+                .thenReturn(new KeyVaultSecret(BLOB_ENDPOINT_SECRET, PARTITION_DNS_BLOB_ENDPOINT));
+
+        assertEquals(PARTITION_DNS_BLOB_ENDPOINT, partitionInfoAzure.getStorageBlobEndpoint());
+
+        verify(secretClient, times(1)).getSecret(BLOB_ENDPOINT_SECRET);
+    }
+
+    @Test
+    public void testResolveSecrets_ResolvesSensitivePropertiesUpFront() {
+        SecretAsyncClient secretAsyncClient = mock(SecretAsyncClient.class);
+        partitionInfoAzure.setStorageAccountKeyConfig(new Property(true, "opendes-storage-key"));
+        partitionInfoAzure.setCosmosPrimaryKeyConfig(new Property(true, "opendes-cosmos-key"));
+        partitionInfoAzure.setStorageAccountNameConfig(new Property(false, "opendes"));
+        when(secretAsyncClient.getSecret("opendes-storage-key"))
+                .thenReturn(Mono.just(new KeyVaultSecret("opendes-storage-key", "storage-key")));
+        when(secretAsyncClient.getSecret("opendes-cosmos-key")).thenReturn(Mono.error(new RuntimeException("unavailable")));
+        when(secretClient.getSecret("opendes-cosmos-key"))
+                .thenReturn(new KeyVaultSecret("opendes-cosmos-key", "cosmos-key"));
+
+        partitionInfoAzure.resolveSecrets(secretAsyncClient, Duration.ofSeconds(5));
+
+        assertEquals("storage-key", partitionInfoAzure.getStorageAccountKey());
+        assertEquals("cosmos-key", partitionInfoAzure.getCosmosPrimaryKey());
+        verify(secretClient, never()).getSecret("opendes-storage-key");
+        verify(secretAsyncClient, never()).getSecret("opendes");
+    }
 }
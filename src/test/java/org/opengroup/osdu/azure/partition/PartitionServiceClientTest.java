@@ -1,11 +1,14 @@
 package org.opengroup.osdu.azure.partition;
 
+import com.azure.security.keyvault.secrets.SecretAsyncClient;
 import com.azure.security.keyvault.secrets.SecretClient;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.azure.di.PartitionCacheConfiguration;
+import org.opengroup.osdu.azure.di.PartitionSecretConfiguration;
 import org.opengroup.osdu.azure.util.AzureServicePrincipleTokenService;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.opengroup.osdu.core.common.model.http.AppException;
@@ -15,6 +18,8 @@ import org.opengroup.osdu.core.common.partition.PartitionException;
 import org.opengroup.osdu.core.common.partition.PartitionInfo;
 import org.opengroup.osdu.core.common.partition.PartitionService;
 import org.opengroup.osdu.core.common.partition.Property;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -23,12 +28,15 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +51,12 @@ public class PartitionServiceClientTest {
     private AzureServicePrincipleTokenService tokenService;
     @Mock
     private DpsHeaders headers;
+    @Mock
+    private PartitionCacheConfiguration partitionCacheConfiguration;
+    @Mock
+    private PartitionSecretConfiguration partitionSecretConfiguration;
+    @Mock
+    private ObjectProvider<SecretAsyncClient> secretAsyncClientProvider;
     @InjectMocks
     private PartitionServiceClient sut;
 
@@ -124,4 +138,103 @@ public class PartitionServiceClientTest {
         assertEquals(partitions.size(), partitionList.size());
         verify(headers, never()).put(eq(DpsHeaders.AUTHORIZATION), anyString());
     }
+
+    @Test
+    public void should_loadPartitionOnce_when_cacheEnabled() throws PartitionException {
+        PartitionService partitionService = mockPartitionService();
+        enableCache();
+
+        PartitionInfoAzure first = sut.getPartition(PARTITION_ID);
+        PartitionInfoAzure second = sut.getPartition(PARTITION_ID);
+
+        assertSame(first, second);
+        verify(partitionService, times(1)).get(PARTITION_ID);
+        assertEquals(1, sut.getCacheStats().hitCount());
+    }
+
+    @Test
+    public void should_cachePartition_when_refreshNotBelowMaxStale() throws PartitionException {
+        PartitionService partitionService = mockPartitionService();
+        when(partitionCacheConfiguration.isEnabled()).thenReturn(true);
+        when(partitionCacheConfiguration.getRefreshSeconds()).thenReturn(3600L);
+        when(partitionCacheConfiguration.getMaxStaleSeconds()).thenReturn(300L);
+        when(partitionCacheConfiguration.getMaxEntries()).thenReturn(10L);
+        sut.initialize();
+
+        PartitionInfoAzure first = sut.getPartition(PARTITION_ID);
+        PartitionInfoAzure second = sut.getPartition(PARTITION_ID);
+
+        assertSame(first, second);
+        verify(partitionService, times(1)).get(PARTITION_ID);
+    }
+
+    @Test
+    public void should_reloadPartition_when_invalidated() throws PartitionException {
+        PartitionService partitionService = mockPartitionService();
+        enableCache();
+
+        sut.getPartition(PARTITION_ID);
+        sut.invalidatePartition(PARTITION_ID);
+        sut.getPartition(PARTITION_ID);
+
+        verify(partitionService, times(2)).get(PARTITION_ID);
+    }
+
+    @Test
+    public void should_notCacheFailure_when_cacheEnabled() throws PartitionException {
+        PartitionService partitionService = mock(PartitionService.class);
+        when(tokenService.getAuthorizationToken()).thenReturn("token");
+        when(partitionFactory.create(any(DpsHeaders.class))).thenReturn(partitionService);
+        when(partitionService.get(PARTITION_ID)).thenThrow(new PartitionException("unknown error", new HttpResponse()));
+        enableCache();
+
+        assertThrows(AppException.class, () -> sut.getPartition(PARTITION_ID));
+        assertThrows(AppException.class, () -> sut.getPartition(PARTITION_ID));
+        verify(partitionService, times(2)).get(PARTITION_ID);
+    }
+
+    @Test
+    public void should_notRequireAsyncSecretClient_when_eagerResolutionDisabled() throws PartitionException {
+        mockPartitionService();
+
+        assertNotNull(sut.getPartition(PARTITION_ID));
+        verify(secretAsyncClientProvider, never()).getIfAvailable();
+    }
+
+    @Test
+    public void should_loadPartition_when_eagerResolutionHasNoAsyncSecretClient() throws PartitionException {
+        mockPartitionService();
+        when(partitionSecretConfiguration.isEagerResolution()).thenReturn(true);
+        when(secretAsyncClientProvider.getIfAvailable()).thenReturn(null);
+
+        assertNotNull(sut.getPartition(PARTITION_ID));
+        verify(secretAsyncClientProvider).getIfAvailable();
+    }
+
+    @Test
+    public void should_useEmptyHeaders_when_outsideOfRequest() throws PartitionException {
+        PartitionService partitionService = mockPartitionService();
+        when(headers.getHeaders()).thenThrow(new BeanCreationException("scopedTarget.headers", "No thread-bound request found"));
+
+        assertNotNull(sut.getPartition(PARTITION_ID));
+        verify(partitionService).get(PARTITION_ID);
+    }
+
+    private PartitionService mockPartitionService() throws PartitionException {
+        PartitionService partitionService = mock(PartitionService.class);
+        when(tokenService.getAuthorizationToken()).thenReturn("token");
+        when(partitionFactory.create(any(DpsHeaders.class))).thenReturn(partitionService);
+        Map<String, Property> properties = new HashMap<>();
+        properties.put("id", Property.builder().value(PARTITION_ID).build());
+        when(partitionService.get(PARTITION_ID)).thenReturn(PartitionInfo.builder().properties(properties).build());
+        return partitionService;
+    }
+
+    private void enableCache() {
+        when(partitionCacheConfiguration.isEnabled()).thenReturn(true);
+        when(partitionCacheConfiguration.getRefreshSeconds()).thenReturn(300L);
+        when(partitionCacheConfiguration.getMaxStaleSeconds()).thenReturn(3600L);
+        when(partitionCacheConfiguration.getMaxEntries()).thenReturn(10L);
+        sut.initialize();
+    }
 }
@@ -0,0 +1,152 @@
+package org.opengroup.osdu.azure.prewarm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.azure.blobstorage.IBlobServiceClientFactory;
+import org.opengroup.osdu.azure.cosmosdb.ICosmosClientFactory;
+import org.opengroup.osdu.azure.di.ClientPrewarmConfiguration;
+import org.opengroup.osdu.azure.di.ClientPrewarmConfiguration.ClientType;
+import org.opengroup.osdu.azure.logging.CoreLoggerFactory;
+import org.opengroup.osdu.azure.partition.PartitionServiceClient;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ClientPrewarmerTest {
+
+    @Mock
+    private ClientPrewarmConfiguration configuration;
+    @Mock
+    private PartitionServiceClient partitionServiceClient;
+    @Mock
+    private ICosmosClientFactory cosmosClientFactory;
+    @Mock
+    private IBlobServiceClientFactory blobServiceClientFactory;
+    @InjectMocks
+    private ClientPrewarmer sut;
+
+    @BeforeEach
+    public void setup() {
+        CoreLoggerFactory.resetFactory();
+        lenient().when(configuration.getParallelism()).thenReturn(4);
+        lenient().when(configuration.getTimeBudgetSeconds()).thenReturn(10L);
+        lenient().when(configuration.getRetryIntervalSeconds()).thenReturn(1L);
+        lenient().when(configuration.getMaxRetries()).thenReturn(3);
+        lenient().when(configuration.getClients()).thenReturn(Arrays.asList(ClientType.COSMOS, ClientType.BLOB, ClientType.DATALAKE));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    public void health_isOutOfService_beforePrewarmFinished() {
+        assertEquals(Status.OUT_OF_SERVICE, sut.health().getStatus());
+    }
+
+    @Test
+    public void start_buildsConfiguredClientsOfEveryPartition() {
+        when(partitionServiceClient.listPartitions()).thenReturn(Arrays.asList("opendes", "tenant1"));
+
+        sut.start();
+
+        verify(cosmosClientFactory, timeout(5000)).getClient("opendes");
+        verify(cosmosClientFactory, timeout(5000)).getClient("tenant1");
+        verify(blobServiceClientFactory, timeout(5000)).getBlobServiceClient("opendes");
+        verify(blobServiceClientFactory, timeout(5000)).getBlobServiceClient("tenant1");
+        Health health = awaitFinished();
+        assertEquals(4, health.getDetails().get("clients"));
+        assertEquals(4, health.getDetails().get("built"));
+    }
+
+    @Test
+    public void start_retriesFailedClientsInBackground() {
+        when(partitionServiceClient.listPartitions()).thenReturn(Collections.singletonList("opendes"));
+        when(cosmosClientFactory.getClient("opendes"))
+                .thenThrow(new AppException(500, "Service unavailable", "partition service down"))
+                .thenReturn(null);
+
+        sut.start();
+
+        Health health = awaitFinished();
+        assertEquals(Status.UP, health.getStatus());
+        verify(cosmosClientFactory, timeout(5000).times(2)).getClient("opendes");
+        verify(blobServiceClientFactory, times(1)).getBlobServiceClient("opendes");
+        awaitBuilt(2);
+        assertEquals(Collections.emptyList(), sut.health().getDetails().get("failed"));
+    }
+
+    @Test
+    public void start_doesNotResubmitClientWhileItsRetryIsRunning() {
+        when(partitionServiceClient.listPartitions()).thenReturn(Collections.singletonList("opendes"));
+        when(cosmosClientFactory.getClient("opendes"))
+                .thenThrow(new AppException(500, "Service unavailable", "partition service down"))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(2500);
+                    return null;
+                });
+
+        sut.start();
+
+        awaitFinished();
+        verify(cosmosClientFactory, timeout(5000).times(2)).getClient("opendes");
+        awaitBuilt(2);
+        assertEquals(2, sut.health().getDetails().get("built"));
+        verify(cosmosClientFactory, times(2)).getClient("opendes");
+    }
+
+    @Test
+    public void start_retriesPartitionListing_whenPartitionServiceFails() {
+        when(partitionServiceClient.listPartitions())
+                .thenThrow(new AppException(403, "Service unavailable", "Error getting list of partitions"))
+                .thenReturn(Collections.singletonList("opendes"));
+
+        sut.start();
+
+        assertEquals(Status.UP, awaitFinished().getStatus());
+        verify(cosmosClientFactory, timeout(5000)).getClient("opendes");
+        verify(partitionServiceClient, times(2)).listPartitions();
+    }
+
+    private Health awaitFinished() {
+        long deadline = System.currentTimeMillis() + 5000;
+        Health health = sut.health();
+        while (health.getStatus() != Status.UP && System.currentTimeMillis() < deadline) {
+            sleep();
+            health = sut.health();
+        }
+        return health;
+    }
+
+    private void awaitBuilt(final int count) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(count).equals(sut.health().getDetails().get("built")) && System.currentTimeMillis() < deadline) {
+            sleep();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}